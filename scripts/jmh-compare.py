@@ -0,0 +1,61 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files (mvn -Pbenchmark verify writes target/jmh-result.json).
+
+usage: scripts/jmh-compare.py baseline.json candidate.json
+
+Prints score and allocation per operation (gc.alloc.rate.norm) for every
+benchmark/parameter combination present in both runs, with the change in
+percent. For the average/single-shot time modes used here, lower is better.
+"""
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        runs = json.load(f)
+    results = {}
+    for run in runs:
+        params = ",".join(f"{k}={v}" for k, v in sorted((run.get("params") or {}).items()))
+        key = run["benchmark"].rsplit(".", 2)[-2] + "." + run["benchmark"].rsplit(".", 1)[-1]
+        if params:
+            key += f" [{params}]"
+        primary = run["primaryMetric"]
+        alloc = run.get("secondaryMetrics", {}).get("gc.alloc.rate.norm")
+        results[key] = {
+            "score": primary["score"],
+            "error": primary["scoreError"],
+            "unit": primary["scoreUnit"],
+            "alloc": alloc["score"] if alloc else None,
+        }
+    return results
+
+
+def change(old, new):
+    if old is None or new is None or old == 0:
+        return ""
+    return f"{(new - old) / old * 100:+.1f}%"
+
+
+def main():
+    if len(sys.argv) != 3:
+        sys.exit(__doc__)
+    base, cand = load(sys.argv[1]), load(sys.argv[2])
+    width = max((len(k) for k in base if k in cand), default=20)
+    print(f"{'benchmark':<{width}}  {'baseline':>16}  {'candidate':>16}  {'change':>8}  "
+          f"{'B/op base':>11}  {'B/op cand':>11}  {'change':>8}")
+    for key in sorted(base):
+        if key not in cand:
+            continue
+        b, c = base[key], cand[key]
+        b_alloc = "" if b["alloc"] is None else f"{b['alloc']:.0f}"
+        c_alloc = "" if c["alloc"] is None else f"{c['alloc']:.0f}"
+        print(f"{key:<{width}}  {b['score']:>10.3f} {b['unit']:>5}  {c['score']:>10.3f} {c['unit']:>5}  "
+              f"{change(b['score'], c['score']):>8}  {b_alloc:>11}  {c_alloc:>11}  "
+              f"{change(b['alloc'], c['alloc']):>8}")
+    for key in sorted(set(base) ^ set(cand)):
+        print(f"{key}: only in {'baseline' if key in base else 'candidate'}")
+
+
+if __name__ == "__main__":
+    main()
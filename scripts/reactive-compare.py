@@ -0,0 +1,208 @@
+#!/usr/bin/env python3
+"""Compare the servlet and reactive validate endpoints at high connection counts.
+
+usage: scripts/reactive-compare.py [--host HOST] [--servlet-port 8080] [--reactive-port 8081]
+                                   [--connections 64,256,1024] [--slow-streams 0,300]
+                                   [--seconds 10] [--line-interval 1.0]
+
+Start the application first with the reactive server on
+(mvn spring-boot:run -Dspring-boot.run.arguments=--drools.reactive.enabled=true);
+it serves the servlet endpoints on server.port and the reactive ones on
+drools.reactive.port.
+
+For each stack, each connection count and each number of slow streams:
+
+  connections   keep-alive connections, each sending POST /api/validate
+                (single-test.json) back to back for --seconds
+  slow streams  POST /api/validate/batch/stream uploads held open the whole
+                time, each sending one test case every --line-interval
+                seconds, as a slow or far-away client would
+
+Reported: validations per second, p50 and p99 latency in milliseconds,
+requests refused with 503 (the reactive evaluation scheduler is full, or
+the session pool is exhausted), and requests that failed otherwise
+(other statuses, timeouts, dropped connections).
+Each slow stream holds one Tomcat thread (server.tomcat.threads.max,
+200 by default) for as long as it is open; on the reactive side it holds
+none. Clients run in this one Python process: when it shares the host
+with the server, both compete for the same cores, so run it from another
+machine for figures worth comparing.
+"""
+import asyncio
+import json
+import os
+import statistics
+import sys
+import time
+
+ROOT = os.path.dirname(os.path.dirname(os.path.abspath(__file__)))
+SAMPLE = os.path.join(ROOT, "src", "main", "resources", "single-test.json")
+CONNECT_TIMEOUT_SECONDS = 10
+
+
+async def read_response(reader):
+    """Read one HTTP/1.1 response; returns (status, keep_alive)."""
+    status_line = await reader.readline()
+    if not status_line:
+        raise ConnectionError("connection closed")
+    status = int(status_line.split()[1])
+    length, chunked, keep_alive = 0, False, True
+    while True:
+        line = await reader.readline()
+        if line in (b"\r\n", b""):
+            break
+        name, _, value = line.decode("latin-1").partition(":")
+        name, value = name.strip().lower(), value.strip().lower()
+        if name == "content-length":
+            length = int(value)
+        elif name == "transfer-encoding" and "chunked" in value:
+            chunked = True
+        elif name == "connection" and value == "close":
+            keep_alive = False
+    if chunked:
+        while True:
+            size = int((await reader.readline()).split(b";")[0], 16)
+            await reader.readexactly(size + 2)
+            if size == 0:
+                break
+    elif length:
+        await reader.readexactly(length)
+    return status, keep_alive
+
+
+async def validate_client(host, port, body, deadline, latencies, errors):
+    request = (f"POST /api/validate?view=lean HTTP/1.1\r\nHost: {host}\r\n"
+               f"Content-Type: application/json\r\nContent-Length: {len(body)}\r\n\r\n").encode() + body
+    writer = None
+    while time.monotonic() < deadline:
+        try:
+            if writer is None:
+                reader, writer = await asyncio.wait_for(asyncio.open_connection(host, port),
+                                                        CONNECT_TIMEOUT_SECONDS)
+            start = time.monotonic()
+            writer.write(request)
+            await writer.drain()
+            status, keep_alive = await asyncio.wait_for(read_response(reader),
+                                                        max(0.1, deadline - time.monotonic() + 5))
+            if status == 200:
+                latencies.append((time.monotonic() - start) * 1000)
+            else:
+                errors.append(status)
+            if not keep_alive:
+                writer.close()
+                writer = None
+        except (OSError, ConnectionError, asyncio.IncompleteReadError, asyncio.TimeoutError, ValueError):
+            errors.append(None)
+            if writer is not None:
+                writer.close()
+            writer = None
+            await asyncio.sleep(0.05)
+    if writer is not None:
+        writer.close()
+
+
+async def slow_stream(host, port, line, interval, stop):
+    """Hold an NDJSON upload open, one test case per interval, until stop is set."""
+    try:
+        reader, writer = await asyncio.wait_for(asyncio.open_connection(host, port), CONNECT_TIMEOUT_SECONDS)
+    except (OSError, asyncio.TimeoutError):
+        return
+    drain = asyncio.ensure_future(discard(reader))
+    try:
+        writer.write((f"POST /api/validate/batch/stream HTTP/1.1\r\nHost: {host}\r\n"
+                      "Content-Type: application/x-ndjson\r\nTransfer-Encoding: chunked\r\n\r\n").encode())
+        while not stop.is_set():
+            writer.write(f"{len(line):x}\r\n".encode() + line + b"\r\n")
+            await writer.drain()
+            try:
+                await asyncio.wait_for(stop.wait(), interval)
+            except asyncio.TimeoutError:
+                pass
+        writer.write(b"0\r\n\r\n")
+        await writer.drain()
+    except (OSError, ConnectionError):
+        pass
+    finally:
+        writer.close()
+        drain.cancel()
+
+
+async def discard(reader):
+    try:
+        while await reader.read(65536):
+            pass
+    except (OSError, ConnectionError):
+        pass
+
+
+async def run(host, port, connections, slow_streams, seconds, interval, body, line):
+    stop = asyncio.Event()
+    streams = [asyncio.ensure_future(slow_stream(host, port, line, interval, stop)) for _ in range(slow_streams)]
+    if slow_streams:
+        await asyncio.sleep(min(2.0, interval * 2))  # let the streams take their threads
+    latencies, errors = [], []
+    deadline = time.monotonic() + seconds
+    start = time.monotonic()
+    await asyncio.gather(*(validate_client(host, port, body, deadline, latencies, errors)
+                           for _ in range(connections)))
+    elapsed = time.monotonic() - start
+    stop.set()
+    await asyncio.gather(*streams, return_exceptions=True)
+    return latencies, errors, elapsed
+
+
+def percentile(values, p):
+    if not values:
+        return float("nan")
+    ordered = sorted(values)
+    return ordered[min(len(ordered) - 1, int(len(ordered) * p))]
+
+
+def counts(text):
+    return [int(v) for v in text.split(",")]
+
+
+def main():
+    args = sys.argv[1:]
+    host, servlet_port, reactive_port = "localhost", 8080, 8081
+    connection_counts, slow_stream_counts = [64, 256, 1024], [0, 300]
+    seconds, interval = 10, 1.0
+    while args:
+        flag = args.pop(0)
+        if flag == "--host":
+            host = args.pop(0)
+        elif flag == "--servlet-port":
+            servlet_port = int(args.pop(0))
+        elif flag == "--reactive-port":
+            reactive_port = int(args.pop(0))
+        elif flag == "--connections":
+            connection_counts = counts(args.pop(0))
+        elif flag == "--slow-streams":
+            slow_stream_counts = counts(args.pop(0))
+        elif flag == "--seconds":
+            seconds = float(args.pop(0))
+        elif flag == "--line-interval":
+            interval = float(args.pop(0))
+        else:
+            sys.exit(__doc__)
+
+    with open(SAMPLE, "rb") as f:
+        body = f.read()
+    applicant = json.loads(body)["applicant"]
+    line = (json.dumps({"testName": "slow", "input": {"applicant": applicant}}) + "\n").encode()
+
+    print(f"{'stack':<9} {'connections':>11} {'slow streams':>12} {'validations/s':>14}"
+          f" {'p50 ms':>8} {'p99 ms':>8} {'503':>7} {'failed':>7}")
+    for slow in slow_stream_counts:
+        for connections in connection_counts:
+            for stack, port in (("servlet", servlet_port), ("reactive", reactive_port)):
+                latencies, errors, elapsed = asyncio.run(
+                    run(host, port, connections, slow, seconds, interval, body, line))
+                print(f"{stack:<9} {connections:>11} {slow:>12} {len(latencies) / elapsed:>14.0f}"
+                      f" {statistics.median(latencies) if latencies else float('nan'):>8.1f}"
+                      f" {percentile(latencies, 0.99):>8.1f} {errors.count(503):>7}"
+                      f" {len(errors) - errors.count(503):>7}", flush=True)
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,156 @@
+#!/usr/bin/env python3
+"""Compare startup time across packaging modes: boot to first successful /api/validate.
+
+usage: scripts/startup-compare.py [--runs N] [--port PORT] [-- app args...]
+
+Build first with mvn -Pcds,aot verify -DskipTests (or -Pcds alone, or a
+plain mvn package; modes whose artifacts are missing are skipped):
+
+  boot-jar          java -jar target/<app>.jar (Spring Boot nested jar)
+  boot-jar-drl      the same with drools.rules.prebuilt=false: DRL compiled at startup
+  classpath         java -jar target/cds/<app>-cds.jar (plain jar, dependencies in lib/)
+  cds               classpath with an AppCDS archive
+  aot               classpath with -Dspring.aot.enabled=true
+  aot-cds           both
+
+Each mode is started --runs times. Reported: milliseconds from launching
+the JVM to the first 200 from POST /api/validate (single-test.json), and
+to /actuator/health/readiness reporting UP, which also waits for the
+startup warmup if it is on (-- --drools.warmup.enabled=true). The CDS archives are trained here, one with and one
+without AOT, the same way the cds profile trains target/cds/app.jsa, so
+each mode gets an archive that matches it. Extra arguments after --
+are passed to the application, e.g. -- --drools.session.mode=stateless.
+"""
+import glob
+import os
+import statistics
+import subprocess
+import sys
+import time
+import urllib.error
+import urllib.request
+
+ROOT = os.path.dirname(os.path.dirname(os.path.abspath(__file__)))
+TARGET = os.path.join(ROOT, "target")
+CDS_DIR = os.path.join(TARGET, "cds")
+SAMPLE = os.path.join(ROOT, "src", "main", "resources", "single-test.json")
+AOT_INITIALIZER = "DroolsValidationTestApplication__ApplicationContextInitializer.class"
+TIMEOUT_SECONDS = 180
+
+
+def boot_jar():
+    jars = [j for j in glob.glob(os.path.join(TARGET, "*.jar")) if not j.endswith("-cds.jar")]
+    return jars[0] if jars else None
+
+
+def cds_jar():
+    jars = glob.glob(os.path.join(CDS_DIR, "*-cds.jar"))
+    return jars[0] if jars else None
+
+
+def has_aot_classes():
+    return bool(glob.glob(os.path.join(TARGET, "classes", "**", AOT_INITIALIZER), recursive=True))
+
+
+def modes():
+    found = []
+    if boot_jar():
+        found.append(("boot-jar", [], ["-jar", boot_jar()], []))
+        found.append(("boot-jar-drl", [], ["-jar", boot_jar()], ["--drools.rules.prebuilt=false"]))
+    if cds_jar():
+        found.append(("classpath", [], ["-jar", cds_jar()], []))
+        found.append(("cds", ["-XX:SharedArchiveFile=" + archive(False)], ["-jar", cds_jar()], []))
+        if has_aot_classes():
+            aot = ["-Dspring.aot.enabled=true"]
+            found.append(("aot", aot, ["-jar", cds_jar()], []))
+            found.append(("aot-cds", aot + ["-XX:SharedArchiveFile=" + archive(True)], ["-jar", cds_jar()], []))
+    return found
+
+
+def archive(aot):
+    return os.path.join(CDS_DIR, "startup-compare-aot.jsa" if aot else "startup-compare.jsa")
+
+
+def train(aot):
+    path = archive(aot)
+    if os.path.exists(path):
+        return
+    print(f"Training {os.path.relpath(path, ROOT)} ...", flush=True)
+    subprocess.run(["java", "-XX:ArchiveClassesAtExit=" + path, "-Xlog:cds=error",
+                    f"-Dspring.aot.enabled={str(aot).lower()}", "-jar", cds_jar(),
+                    "--server.port=0", "--drools.warmup.enabled=true", "--drools.warmup.exit=true"],
+                   cwd=CDS_DIR, stdout=subprocess.DEVNULL, check=True)
+
+
+def ok(url, body=None):
+    request = urllib.request.Request(url, data=body, headers={"Content-Type": "application/json"})
+    try:
+        with urllib.request.urlopen(request, timeout=2) as response:
+            return response.status == 200, response.read()
+    except (urllib.error.URLError, ConnectionError, TimeoutError):
+        return False, None
+
+
+def measure(jvm_args, launch, app_args, port):
+    with open(SAMPLE, "rb") as f:
+        sample = f.read()
+    base = f"http://localhost:{port}"
+    start = time.monotonic()
+    process = subprocess.Popen(["java"] + jvm_args + launch + [f"--server.port={port}"] + app_args,
+                               cwd=CDS_DIR if os.path.isdir(CDS_DIR) else ROOT,
+                               stdout=subprocess.DEVNULL, stderr=subprocess.DEVNULL)
+    first_validate = ready = None
+    try:
+        while ready is None and time.monotonic() - start < TIMEOUT_SECONDS:
+            if process.poll() is not None:
+                raise RuntimeError(f"application exited with {process.returncode}")
+            if first_validate is None and ok(base + "/api/validate", sample)[0]:
+                first_validate = (time.monotonic() - start) * 1000
+            if first_validate is not None:
+                up, body = ok(base + "/actuator/health/readiness")
+                if up and b'"UP"' in body:
+                    ready = (time.monotonic() - start) * 1000
+            time.sleep(0.02)
+    finally:
+        process.terminate()
+        process.wait()
+    if ready is None:
+        raise RuntimeError(f"not ready within {TIMEOUT_SECONDS} s")
+    return first_validate, ready
+
+
+def main():
+    args = sys.argv[1:]
+    app_args = []
+    if "--" in args:
+        app_args = args[args.index("--") + 1:]
+        args = args[:args.index("--")]
+    runs, port = 3, 18080
+    while args:
+        flag = args.pop(0)
+        if flag == "--runs":
+            runs = int(args.pop(0))
+        elif flag == "--port":
+            port = int(args.pop(0))
+        else:
+            sys.exit(__doc__)
+
+    selected = modes()
+    if not selected:
+        sys.exit("No application jar under target/; build with mvn -Pcds,aot verify -DskipTests")
+    if cds_jar():
+        train(False)
+        if has_aot_classes():
+            train(True)
+
+    print(f"{'mode':<14} {'first validate ms (median / min)':>34} {'ready ms (median / min)':>26}")
+    for name, jvm_args, launch, extra in selected:
+        samples = [measure(jvm_args, launch, extra + app_args, port) for _ in range(runs)]
+        validate = [s[0] for s in samples]
+        ready = [s[1] for s in samples]
+        print(f"{name:<14} {statistics.median(validate):>25.0f} / {min(validate):>6.0f}"
+              f" {statistics.median(ready):>17.0f} / {min(ready):>6.0f}", flush=True)
+
+
+if __name__ == "__main__":
+    main()
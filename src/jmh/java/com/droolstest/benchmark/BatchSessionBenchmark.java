@@ -0,0 +1,74 @@
+package com.droolstest.benchmark;
+
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.rules.ApplicantFact;
+import com.droolstest.service.RuleBaseManager;
+import com.droolstest.service.ValidationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A large batch evaluated one fact per session against many facts per
+ * session (drools.batch.facts-per-session). The batch cycles through the
+ * applicants of test-cases.json up to {@code batchSize}.
+ *
+ * factsPerSession=1 is the per-fact path: one session checkout, Rete
+ * propagation and fireAllRules() per applicant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchSessionBenchmark {
+
+    @Param({"pooled", "stateless"})
+    public String sessionMode;
+
+    @Param({"1000"})
+    public int batchSize;
+
+    @Param({"1", "50", "1000"})
+    public int factsPerSession;
+
+    private RuleBaseManager ruleBaseManager;
+    private ExecutorService executor;
+    private ValidationService service;
+    private List<ApplicantFact> applicants;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Fixtures.quietStdout();
+        ruleBaseManager = Fixtures.ruleBaseManager(true);
+        executor = Executors.newSingleThreadExecutor();
+        service = Fixtures.validationService(ruleBaseManager, sessionMode, false, executor, false, factsPerSession);
+
+        List<BatchValidationRequest.TestCase> testCases = Fixtures.testCases().getTestCases();
+        applicants = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            applicants.add(testCases.get(i % testCases.size()).getInput().getApplicant());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+        ruleBaseManager.shutdown();
+    }
+
+    @Benchmark
+    public List<ValidationResponse> validateAll() {
+        List<ApplicantFact> facts = new ArrayList<>(applicants.size());
+        for (ApplicantFact applicant : applicants) {
+            facts.add(applicant.copyInput());
+        }
+        return service.validateAll(facts);
+    }
+}
@@ -0,0 +1,76 @@
+package com.droolstest.benchmark;
+
+import com.droolstest.dto.DecisionResponse;
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.rules.ApplicantFact;
+import com.droolstest.service.RuleBaseManager;
+import com.droolstest.service.ValidationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The decision-only path against full validation, for an applicant that
+ * passes every rule (TC-01 of test-cases.json) and one that does not
+ * (single-test.json): evaluation alone, and with the response written as
+ * JSON the way the controller returns it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecisionBenchmark {
+
+    @Param({"pooled", "stateless"})
+    public String sessionMode;
+
+    @Param({"valid", "invalid"})
+    public String applicantKind;
+
+    private RuleBaseManager ruleBaseManager;
+    private ExecutorService executor;
+    private ValidationService service;
+    private ApplicantFact applicant;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Fixtures.quietStdout();
+        ruleBaseManager = Fixtures.ruleBaseManager(true);
+        executor = Executors.newSingleThreadExecutor();
+        service = Fixtures.validationService(ruleBaseManager, sessionMode, false, executor, false);
+        applicant = "valid".equals(applicantKind)
+                ? Fixtures.testCases().getTestCases().get(0).getInput().getApplicant()
+                : Fixtures.singleApplicant();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+        ruleBaseManager.shutdown();
+    }
+
+    @Benchmark
+    public ValidationResponse validate() {
+        return service.validate(applicant.copyInput());
+    }
+
+    @Benchmark
+    public DecisionResponse decide() {
+        return service.decide(applicant.copyInput());
+    }
+
+    @Benchmark
+    public byte[] validateToJson() throws IOException {
+        return Fixtures.MAPPER.writeValueAsBytes(service.validate(applicant.copyInput()));
+    }
+
+    @Benchmark
+    public byte[] decideToJson() throws IOException {
+        return Fixtures.MAPPER.writeValueAsBytes(service.decide(applicant.copyInput()));
+    }
+}
@@ -0,0 +1,175 @@
+package com.droolstest.benchmark;
+
+import com.droolstest.config.DroolsConfig;
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.dto.ValidationRequest;
+import com.droolstest.rules.ApplicantFact;
+import com.droolstest.service.ParallelBatch;
+import com.droolstest.service.RuleBaseManager;
+import com.droolstest.service.RuleMetricsListener;
+import com.droolstest.service.RuleProfiler;
+import com.droolstest.service.RuleRunner;
+import com.droolstest.service.RuleSetRegistry;
+import com.droolstest.service.ValidationResultCache;
+import com.droolstest.service.ValidationHistory;
+import com.droolstest.service.ValidationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Shared setup for the benchmarks: the JSON fixtures from src/main/resources,
+ * an ObjectMapper configured like the application's, and a ValidationService
+ * wired by hand instead of through Spring. Metrics go to an in-memory
+ * registry, so their recording cost is part of the measurement.
+ *
+ * Rules write their results into the fact they run against, so every
+ * benchmark invocation gets a fresh copy of the fixture applicants.
+ */
+final class Fixtures {
+
+    static final String SINGLE_TEST = "single-test.json";
+    static final String TEST_CASES = "test-cases.json";
+
+    /** Same settings as spring.jackson.* in application.properties. */
+    static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+            .indentOutput(true)
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .simpleDateFormat("yyyy-MM-dd")
+            .build();
+
+    /**
+     * A mapper for one of the wire formats WireFormatConfig serves: json
+     * (as the app is configured, indented), json-compact, smile or cbor.
+     */
+    static ObjectMapper mapper(String format) {
+        Jackson2ObjectMapperBuilder builder;
+        switch (format) {
+            case "json": return MAPPER;
+            case "json-compact": builder = Jackson2ObjectMapperBuilder.json(); break;
+            case "smile": builder = Jackson2ObjectMapperBuilder.smile(); break;
+            case "cbor": builder = Jackson2ObjectMapperBuilder.cbor(); break;
+            default: throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        return builder
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .simpleDateFormat("yyyy-MM-dd")
+                .build();
+    }
+
+    static final MeterRegistry METERS = new SimpleMeterRegistry();
+
+    private Fixtures() {}
+
+    static byte[] bytes(String resource) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture not on the classpath: " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static ApplicantFact singleApplicant() {
+        try {
+            return MAPPER.readValue(bytes(SINGLE_TEST), ValidationRequest.class).getApplicant();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static BatchValidationRequest testCases() {
+        try {
+            return MAPPER.readValue(bytes(TEST_CASES), BatchValidationRequest.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A copy of {@code template} whose applicants have not been through the rules.
+     */
+    static BatchValidationRequest freshCopy(BatchValidationRequest template) {
+        List<BatchValidationRequest.TestCase> testCases = new ArrayList<>(template.getTestCases().size());
+        for (BatchValidationRequest.TestCase tc : template.getTestCases()) {
+            ValidationRequest input = new ValidationRequest();
+            input.setApplicant(tc.getInput().getApplicant().copyInput());
+            BatchValidationRequest.TestCase copy = new BatchValidationRequest.TestCase();
+            copy.setTestName(tc.getTestName());
+            copy.setDescription(tc.getDescription());
+            copy.setExpected(tc.getExpected());
+            copy.setInput(input);
+            testCases.add(copy);
+        }
+        BatchValidationRequest request = new BatchValidationRequest();
+        request.setTestCases(testCases);
+        return request;
+    }
+
+    /**
+     * Build the rule base the way the application does at startup.
+     */
+    static RuleBaseManager ruleBaseManager(boolean prebuilt) {
+        return ruleBaseManager(prebuilt, RuleRunner.ENGINE_DROOLS);
+    }
+
+    static RuleBaseManager ruleBaseManager(boolean prebuilt, String engineMode) {
+        try {
+            return new DroolsConfig().ruleBaseManager(prebuilt, 16, 2000, engineMode,
+                    new RuleMetricsListener(METERS));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static ValidationService validationService(RuleBaseManager manager, String sessionMode,
+                                               boolean cacheEnabled, ExecutorService executor,
+                                               boolean parallelBatch) {
+        return validationService(manager, sessionMode, cacheEnabled, executor, parallelBatch, 0);
+    }
+
+    static ValidationService validationService(RuleBaseManager manager, String sessionMode,
+                                               boolean cacheEnabled, ExecutorService executor,
+                                               boolean parallelBatch, int factsPerSession) {
+        return validationService(manager, sessionMode, cacheEnabled, executor, parallelBatch, factsPerSession,
+                RuleRunner.ENGINE_DROOLS);
+    }
+
+    static ValidationService validationService(RuleBaseManager manager, String sessionMode,
+                                               boolean cacheEnabled, ExecutorService executor,
+                                               boolean parallelBatch, int factsPerSession, String engineMode) {
+        RuleSetRegistry ruleSets = new RuleSetRegistry(manager);
+        return new ValidationService(ruleSets, new RuleRunner(ruleSets, METERS, sessionMode, engineMode),
+                new ParallelBatch(executor, parallelBatch, 4), new ValidationResultCache(cacheEnabled, 10_000, 300),
+                new RuleProfiler(0, 0), disabledHistory(), METERS, factsPerSession);
+    }
+
+    private static ValidationHistory disabledHistory() {
+        try {
+            return new ValidationHistory(false, "", 1 << 20, 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Drop the application's console logging in the forked benchmark JVM;
+     * JMH reports through its own channel, not System.out.
+     */
+    static void quietStdout() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.droolstest.benchmark;
+
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.dto.BatchValidationResponse;
+import com.droolstest.dto.ValidationRequest;
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.service.RuleBaseManager;
+import com.droolstest.service.ValidationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the request and response bodies, with the application's
+ * mapper settings: reading single-test.json and test-cases.json, and
+ * writing the responses they produce.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    private byte[] singleJson;
+    private byte[] batchJson;
+    private ValidationResponse response;
+    private BatchValidationResponse batchResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Fixtures.quietStdout();
+        singleJson = Fixtures.bytes(Fixtures.SINGLE_TEST);
+        batchJson = Fixtures.bytes(Fixtures.TEST_CASES);
+
+        RuleBaseManager manager = Fixtures.ruleBaseManager(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ValidationService service = Fixtures.validationService(manager, "pooled", false, executor, false);
+            response = service.validate(Fixtures.singleApplicant());
+            batchResponse = service.validateBatch(Fixtures.testCases());
+        } finally {
+            executor.shutdown();
+            manager.shutdown();
+        }
+    }
+
+    @Benchmark
+    public ValidationRequest readValidationRequest() throws IOException {
+        return Fixtures.MAPPER.readValue(singleJson, ValidationRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeValidationResponse() throws IOException {
+        return Fixtures.MAPPER.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public BatchValidationRequest readBatchRequest() throws IOException {
+        return Fixtures.MAPPER.readValue(batchJson, BatchValidationRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeBatchResponse() throws IOException {
+        return Fixtures.MAPPER.writeValueAsBytes(batchResponse);
+    }
+}
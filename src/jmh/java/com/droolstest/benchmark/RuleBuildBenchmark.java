@@ -0,0 +1,44 @@
+package com.droolstest.benchmark;
+
+import com.droolstest.service.RuleBaseManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to build a ready-to-use rule base: the prebuilt executable-model
+ * KJAR against compiling the DRL at runtime. This is the KieContainer part
+ * of application startup, so it is measured cold, one build per iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RuleBuildBenchmark {
+
+    @Param({"prebuilt", "drl"})
+    public String source;
+
+    private RuleBaseManager built;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Fixtures.quietStdout();
+    }
+
+    @Benchmark
+    public RuleBaseManager buildRuleBase() {
+        built = Fixtures.ruleBaseManager("prebuilt".equals(source));
+        return built;
+    }
+
+    @TearDown(Level.Iteration)
+    public void dispose() {
+        if (built != null) {
+            built.shutdown();
+            built = null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.droolstest.benchmark;
+
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.dto.BatchValidationResponse;
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.rules.ApplicantFact;
+import com.droolstest.service.RuleBaseManager;
+import com.droolstest.service.ValidationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValidationService.validate() on single-test.json and validateBatch() on
+ * the 34 cases in test-cases.json, per session mode.
+ *
+ * Each invocation includes copying the fixture applicants (a few hundred
+ * nanoseconds for the batch), since facts cannot be reused once fired.
+ * Pass e.g. {@code -p cacheEnabled=true} or {@code -p parallelBatch=true}
+ * to measure the result cache or parallel batches, and
+ * {@code -p engineMode=native} for the rules translated to plain Java.
+ * {@code -p trace=true} measures the cost of a rule trace on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"pooled", "per-call", "stateless"})
+    public String sessionMode;
+
+    @Param({"false"})
+    public boolean cacheEnabled;
+
+    @Param({"false"})
+    public boolean parallelBatch;
+
+    @Param({"drools"})
+    public String engineMode;
+
+    @Param({"false"})
+    public boolean trace;
+
+    private RuleBaseManager ruleBaseManager;
+    private ExecutorService executor;
+    private ValidationService service;
+
+    private ApplicantFact applicant;
+    private BatchValidationRequest testCases;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Fixtures.quietStdout();
+        ruleBaseManager = Fixtures.ruleBaseManager(true, engineMode);
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        service = Fixtures.validationService(ruleBaseManager, sessionMode, cacheEnabled, executor, parallelBatch,
+                0, engineMode);
+        applicant = Fixtures.singleApplicant();
+        testCases = Fixtures.testCases();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+        ruleBaseManager.shutdown();
+    }
+
+    @Benchmark
+    public ValidationResponse validate() {
+        return service.validate(null, applicant.copyInput(), trace);
+    }
+
+    @Benchmark
+    public BatchValidationResponse validateBatch() {
+        return service.validateBatch(null, Fixtures.freshCopy(testCases), trace);
+    }
+}
@@ -0,0 +1,101 @@
+package com.droolstest.benchmark;
+
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.dto.BatchValidationResponse;
+import com.droolstest.dto.ValidationRequest;
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.service.RuleBaseManager;
+import com.droolstest.service.ValidationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against the binary wire formats: the time to read the validate and
+ * batch requests, and to write their responses in full and as the lean
+ * projection. Payload sizes are printed to stderr at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "json-compact", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private byte[] singleRequest;
+    private byte[] batchRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Fixtures.quietStdout();
+        mapper = Fixtures.mapper(format);
+
+        // Requests re-encoded from the JSON fixtures into this format
+        singleRequest = mapper.writeValueAsBytes(
+                Fixtures.MAPPER.readValue(Fixtures.bytes(Fixtures.SINGLE_TEST), ValidationRequest.class));
+        batchRequest = mapper.writeValueAsBytes(Fixtures.testCases());
+        System.err.printf("%n# %s request bytes: validate %d, batch %d%n",
+                format, singleRequest.length, batchRequest.length);
+    }
+
+    /** The responses to write; only the write benchmarks vary by view. */
+    @State(Scope.Benchmark)
+    public static class Responses {
+
+        @Param({"full", "lean"})
+        public String view;
+
+        ValidationResponse response;
+        BatchValidationResponse batchResponse;
+
+        @Setup(Level.Trial)
+        public void setUp(WireFormatBenchmark bench) throws IOException {
+            RuleBaseManager manager = Fixtures.ruleBaseManager(true);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                ValidationService service = Fixtures.validationService(manager, "pooled", false, executor, false);
+                response = service.validate(Fixtures.singleApplicant());
+                batchResponse = service.validateBatch(Fixtures.testCases());
+            } finally {
+                executor.shutdown();
+                manager.shutdown();
+            }
+            if ("lean".equals(view)) {
+                response = response.lean();
+                batchResponse = batchResponse.lean();
+            }
+            System.err.printf("%n# %s/%s response bytes: validate %d, batch %d%n", bench.format, view,
+                    bench.mapper.writeValueAsBytes(response).length,
+                    bench.mapper.writeValueAsBytes(batchResponse).length);
+        }
+    }
+
+    @Benchmark
+    public ValidationRequest readValidationRequest() throws IOException {
+        return mapper.readValue(singleRequest, ValidationRequest.class);
+    }
+
+    @Benchmark
+    public BatchValidationRequest readBatchRequest() throws IOException {
+        return mapper.readValue(batchRequest, BatchValidationRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeValidationResponse(Responses r) throws IOException {
+        return mapper.writeValueAsBytes(r.response);
+    }
+
+    @Benchmark
+    public byte[] writeBatchResponse(Responses r) throws IOException {
+        return mapper.writeValueAsBytes(r.batchResponse);
+    }
+}
@@ -0,0 +1,70 @@
+package com.droolstest.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for parallel batch evaluation.
+ *
+ * drools.batch.executor selects the thread type:
+ *   platform - fixed pool of drools.batch.executor.threads daemon threads (default)
+ *   virtual  - one virtual thread per task; needs JDK 21, falls back to platform otherwise
+ *
+ * Either way, a single batch request never runs more than
+ * drools.batch.max-parallelism chunks at once (see ParallelBatch).
+ */
+@Configuration
+public class BatchExecutorConfig {
+
+    @Bean(name = "batchExecutor", destroyMethod = "shutdown")
+    public ExecutorService batchExecutor(
+            @Value("${drools.batch.executor:platform}") String type,
+            @Value("${drools.batch.executor.threads:0}") int threads) {
+        if ("virtual".equals(type)) {
+            ExecutorService virtual = newVirtualThreadExecutor();
+            if (virtual != null) {
+                System.out.println("Batch executor: virtual threads");
+                return virtual;
+            }
+            System.out.println("Batch executor: virtual threads need JDK 21+, using platform threads");
+        } else if (!"platform".equals(type)) {
+            throw new IllegalArgumentException("Unknown drools.batch.executor: " + type
+                    + " (expected platform or virtual)");
+        }
+
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        System.out.println("Batch executor: " + size + " platform threads");
+        return Executors.newFixedThreadPool(size, new BatchThreadFactory());
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() via reflection, so the
+     * project still compiles for Java 17. Returns null when unavailable.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static class BatchThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "batch-eval-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -1,55 +1,106 @@
 package com.droolstest.config;
 
+import com.droolstest.service.RuleBaseManager;
+import com.droolstest.service.RuleMetricsListener;
+import com.droolstest.service.RuleRunner;
+import com.droolstest.service.RuleSetRegistry;
 import org.kie.api.KieServices;
 import org.kie.api.builder.*;
 import org.kie.api.runtime.KieContainer;
-import org.kie.api.runtime.KieSession;
-import org.kie.internal.io.ResourceFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Drools engine configuration.
- * Scans classpath:rules/*.drl for rule files and compiles them
- * into a KieContainer that produces KieSession instances.
+ *
+ * Prefers the executable-model KJAR that RulePrecompiler writes to
+ * classpath:prebuilt/ during the Maven build: loading it skips DRL parsing
+ * and MVEL compilation entirely. When no prebuilt KJAR is present (e.g. when
+ * running from an IDE) or drools.rules.prebuilt=false, it falls back to
+ * scanning classpath:rules/*.drl and compiling them at startup.
+ *
+ * The resulting container becomes version 1 of the RuleBaseManager, which
+ * later hot-swaps rule sets reloaded from a watched directory or the admin API.
+ * Every session it hands out reports rule matches and firings to the
+ * RuleMetricsListener.
+ *
+ * With drools.engine.mode=native, the manager also translates each rule set
+ * into plain Java (see NativeRuleCompiler) for RuleRunner to run.
+ *
+ * The RuleSetRegistry serves that rule set as "default", plus the named
+ * rule sets under drools.rulesets.dir, which it compiles on first use.
  */
 @Configuration
 public class DroolsConfig {
 
-    @Bean
-    public KieContainer kieContainer() throws IOException {
+    @Bean(destroyMethod = "shutdown")
+    public RuleBaseManager ruleBaseManager(
+            @Value("${drools.rules.prebuilt:true}") boolean usePrebuilt,
+            @Value("${drools.session.pool.max-size:16}") int poolMaxSize,
+            @Value("${drools.session.pool.max-wait-ms:2000}") long poolMaxWaitMillis,
+            @Value("${drools.engine.mode:drools}") String engineMode,
+            RuleMetricsListener ruleMetricsListener) throws IOException {
         KieServices kieServices = KieServices.Factory.get();
-        KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
+        long start = System.nanoTime();
 
-        // Load all .drl files from classpath:rules/
         PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
-        Resource[] ruleFiles = resolver.getResources("classpath:rules/*.drl");
+        Resource prebuilt = resolver.getResource("classpath:" + RulePrecompiler.KJAR_PATH);
+        Map<String, String> sources = RuleCompiler.loadClasspathRules();
 
-        for (Resource ruleFile : ruleFiles) {
-            String path = "src/main/resources/rules/" + ruleFile.getFilename();
-            kieFileSystem.write(path,
-                    kieServices.getResources().newInputStreamResource(ruleFile.getInputStream()));
-            System.out.println("Loaded DRL: " + ruleFile.getFilename());
+        KieContainer container;
+        String source;
+        if (usePrebuilt && prebuilt.exists()) {
+            container = loadPrebuilt(kieServices, prebuilt);
+            source = "prebuilt executable model";
+        } else {
+            container = RuleCompiler.compile(sources, kieServices.getRepository().getDefaultReleaseId());
+            source = "runtime DRL compilation";
         }
 
-        // Build and verify
-        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem).buildAll();
-        Results results = kieBuilder.getResults();
+        System.out.printf("KieContainer ready in %d ms (%s)%n",
+                (System.nanoTime() - start) / 1_000_000, source);
 
-        if (results.hasMessages(Message.Level.ERROR)) {
-            throw new RuntimeException(
-                    "DRL compilation errors:\n" + results.getMessages());
-        }
+        RuleBaseManager manager = new RuleBaseManager(poolMaxSize, poolMaxWaitMillis, List.of(ruleMetricsListener),
+                RuleRunner.ENGINE_NATIVE.equals(engineMode));
+        manager.install(container, sources, source);
+        return manager;
+    }
 
-        if (results.hasMessages(Message.Level.WARNING)) {
-            System.out.println("DRL compilation warnings:\n" + results.getMessages());
+    @Bean(destroyMethod = "shutdown")
+    public RuleSetRegistry ruleSetRegistry(
+            RuleBaseManager ruleBaseManager,
+            @Value("${drools.rulesets.dir:}") String dir,
+            @Value("${drools.rulesets.max-loaded:8}") int maxLoaded,
+            @Value("${drools.rulesets.max-heap-percent:75}") int maxHeapPercent,
+            @Value("${drools.session.pool.max-size:16}") int poolMaxSize,
+            @Value("${drools.session.pool.max-wait-ms:2000}") long poolMaxWaitMillis,
+            @Value("${drools.engine.mode:drools}") String engineMode,
+            RuleMetricsListener ruleMetricsListener) {
+        if (dir.isBlank()) {
+            return new RuleSetRegistry(ruleBaseManager);
         }
+        System.out.println("Named rule sets from " + dir);
+        return new RuleSetRegistry(ruleBaseManager, Path.of(dir), maxLoaded, maxHeapPercent,
+                poolMaxSize, poolMaxWaitMillis, List.of(ruleMetricsListener),
+                RuleRunner.ENGINE_NATIVE.equals(engineMode));
+    }
 
-        return kieServices.newKieContainer(
-                kieServices.getRepository().getDefaultReleaseId());
+    private KieContainer loadPrebuilt(KieServices kieServices, Resource kjar) throws IOException {
+        byte[] bytes;
+        try (InputStream in = kjar.getInputStream()) {
+            bytes = in.readAllBytes();
+        }
+        KieModule kieModule = kieServices.getRepository()
+                .addKieModule(kieServices.getResources().newByteArrayResource(bytes));
+        return kieServices.newKieContainer(kieModule.getReleaseId());
     }
 }
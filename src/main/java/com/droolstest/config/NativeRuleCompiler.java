@@ -0,0 +1,542 @@
+package com.droolstest.config;
+
+import com.droolstest.rules.ApplicantFact;
+import com.droolstest.service.NativeRuleSet;
+import org.drools.drl.ast.descr.AttributeDescr;
+import org.drools.drl.ast.descr.BaseDescr;
+import org.drools.drl.ast.descr.ExprConstraintDescr;
+import org.drools.drl.ast.descr.PackageDescr;
+import org.drools.drl.ast.descr.PatternDescr;
+import org.drools.drl.ast.descr.QueryDescr;
+import org.drools.drl.ast.descr.RuleDescr;
+import org.drools.drl.parser.DrlParser;
+import org.drools.drl.parser.DroolsParserException;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Translates DRL rules into plain Java for the native engine mode.
+ *
+ * A rule is translated when it is a single ApplicantFact pattern whose
+ * constraints use only
+ *   - null checks:               field == null, field != null
+ *   - string (in)equality:       field == "...", field != ""
+ *   - numeric comparisons:       field > 0, field >= 18, ... (Integer, Long, BigDecimal fields)
+ *   - boolean (in)equality:      field == true
+ *   - &&, || and parentheses
+ * and whose consequence only calls boolean setters and addValidationResult()
+ * on the bound fact with literal arguments. Anything else (other patterns,
+ * not/exists/from, functions, modify, agenda attributes) is reported with the
+ * reason and left to Drools.
+ *
+ * Translation happens when a rule set is installed, so uploaded and reloaded
+ * DRL is covered too. Property reads and writes go through accessors spun
+ * with LambdaMetafactory, so evaluation never uses reflection. Comparison
+ * semantics follow Drools: a null field fails every relational comparison,
+ * and null != "" is true.
+ */
+public final class NativeRuleCompiler {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Set<String> FACT_TYPES = Set.of("ApplicantFact", ApplicantFact.class.getName());
+    private static final Set<String> SUPPORTED_ATTRIBUTES = Set.of("dialect", "salience", "no-loop");
+
+    private static final Pattern SETTER_CALL = Pattern.compile(
+            "(\\$?\\w+)\\s*\\.\\s*set(\\w+)\\s*\\(\\s*(true|false)\\s*\\)");
+    private static final Pattern ADD_RESULT_CALL = Pattern.compile(
+            "(\\$?\\w+)\\s*\\.\\s*addValidationResult\\s*\\(\\s*\"([^\"\\\\]*)\"\\s*,\\s*(true|false)\\s*,"
+                    + "\\s*\"([^\"\\\\]*)\"\\s*\\)");
+
+    private static final Map<String, PropertyDescriptor> PROPERTIES = new HashMap<>();
+
+    static {
+        try {
+            for (PropertyDescriptor pd : Introspector.getBeanInfo(ApplicantFact.class).getPropertyDescriptors()) {
+                PROPERTIES.put(pd.getName(), pd);
+            }
+        } catch (IntrospectionException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private NativeRuleCompiler() {}
+
+    /**
+     * Translate every rule in {@code sources} (file name to DRL) that can be
+     * translated; the rest are listed as fallback rules with the reason.
+     */
+    public static NativeRuleSet compile(Map<String, String> sources) {
+        List<TranslatedRule> translated = new ArrayList<>();
+        Map<String, String> fallback = new LinkedHashMap<>();
+
+        for (Map.Entry<String, String> file : new TreeMap<>(sources).entrySet()) {
+            DrlParser parser = new DrlParser();
+            PackageDescr pkg;
+            try {
+                pkg = parser.parse(false, file.getValue());
+            } catch (DroolsParserException e) {
+                throw new RuleCompilationException("Cannot parse " + file.getKey() + ": " + e.getMessage());
+            }
+            if (parser.hasErrors()) {
+                throw new RuleCompilationException("Cannot parse " + file.getKey() + ": " + parser.getErrors());
+            }
+            for (RuleDescr rule : pkg.getRules()) {
+                if (rule instanceof QueryDescr) {
+                    continue; // queries never fire
+                }
+                try {
+                    translated.add(translate(rule, translated.size()));
+                } catch (Unsupported e) {
+                    fallback.put(rule.getName(), e.getMessage());
+                }
+            }
+        }
+
+        // Drools' firing order for these rules: salience, then the order they were loaded in
+        translated.sort(Comparator.comparingInt((TranslatedRule r) -> -r.salience)
+                .thenComparingInt(r -> r.loadOrder));
+        List<NativeRuleSet.Rule> rules = new ArrayList<>(translated.size());
+        for (TranslatedRule r : translated) {
+            rules.add(r.rule);
+        }
+        return new NativeRuleSet(rules, fallback);
+    }
+
+    private static final class TranslatedRule {
+        final NativeRuleSet.Rule rule;
+        final int salience;
+        final int loadOrder;
+
+        TranslatedRule(NativeRuleSet.Rule rule, int salience, int loadOrder) {
+            this.rule = rule;
+            this.salience = salience;
+            this.loadOrder = loadOrder;
+        }
+    }
+
+    /** Why a rule cannot be translated; the rule then runs in Drools. */
+    private static final class Unsupported extends Exception {
+        Unsupported(String reason) {
+            super(reason, null, false, false);
+        }
+    }
+
+    // ── Rules ───────────────────────────────────────────────────────────────
+
+    private static TranslatedRule translate(RuleDescr rule, int loadOrder) throws Unsupported {
+        int salience = 0;
+        for (Map.Entry<String, AttributeDescr> attribute : rule.getAttributes().entrySet()) {
+            if (!SUPPORTED_ATTRIBUTES.contains(attribute.getKey())) {
+                throw new Unsupported("attribute " + attribute.getKey());
+            }
+            if ("salience".equals(attribute.getKey())) {
+                try {
+                    salience = Integer.parseInt(attribute.getValue().getValue().trim());
+                } catch (NumberFormatException e) {
+                    throw new Unsupported("non-constant salience");
+                }
+            }
+        }
+        if (rule.getParentName() != null) {
+            throw new Unsupported("extends another rule");
+        }
+        if (!rule.getNamedConsequences().isEmpty()) {
+            throw new Unsupported("named consequences");
+        }
+
+        List<? extends BaseDescr> lhs = rule.getLhs().getDescrs();
+        if (lhs.size() != 1 || !(lhs.get(0) instanceof PatternDescr pattern)) {
+            throw new Unsupported("condition is not a single pattern");
+        }
+        if (!FACT_TYPES.contains(pattern.getObjectType())) {
+            throw new Unsupported("pattern on " + pattern.getObjectType());
+        }
+        if (pattern.getSource() != null) {
+            throw new Unsupported("pattern with a source (from/collect/accumulate)");
+        }
+
+        List<Predicate<ApplicantFact>> constraints = new ArrayList<>();
+        for (BaseDescr constraint : pattern.getConstraint().getDescrs()) {
+            if (!(constraint instanceof ExprConstraintDescr expr)) {
+                throw new Unsupported("constraint " + constraint);
+            }
+            constraints.add(new ConstraintParser(expr.getExpression()).parse());
+        }
+        Predicate<ApplicantFact> condition = constraints.isEmpty() ? f -> true : and(constraints);
+
+        Object rhs = rule.getConsequence();
+        if (!(rhs instanceof String consequenceText)) {
+            throw new Unsupported("consequence is not DRL text");
+        }
+        Consumer<ApplicantFact> consequence = consequence(consequenceText, pattern.getIdentifier());
+
+        return new TranslatedRule(new NativeRuleSet.Rule(rule.getName(), condition, consequence),
+                salience, loadOrder);
+    }
+
+    // ── Consequences ────────────────────────────────────────────────────────
+
+    private static Consumer<ApplicantFact> consequence(String text, String binding) throws Unsupported {
+        List<Consumer<ApplicantFact>> actions = new ArrayList<>();
+        for (String statement : statements(stripComments(text))) {
+            Matcher setter = SETTER_CALL.matcher(statement);
+            Matcher addResult = ADD_RESULT_CALL.matcher(statement);
+            if (setter.matches()) {
+                checkBinding(setter.group(1), binding);
+                BiConsumer<ApplicantFact, Boolean> write = booleanSetter(Introspector.decapitalize(setter.group(2)));
+                Boolean value = Boolean.valueOf(setter.group(3));
+                actions.add(f -> write.accept(f, value));
+            } else if (addResult.matches()) {
+                checkBinding(addResult.group(1), binding);
+                String key = addResult.group(2);
+                boolean passed = Boolean.parseBoolean(addResult.group(3));
+                String message = addResult.group(4);
+                actions.add(f -> f.addValidationResult(key, passed, message));
+            } else {
+                throw new Unsupported("consequence statement: " + statement);
+            }
+        }
+        if (actions.size() == 1) {
+            return actions.get(0);
+        }
+        @SuppressWarnings("unchecked")
+        Consumer<ApplicantFact>[] steps = actions.toArray(new Consumer[0]);
+        return f -> {
+            for (Consumer<ApplicantFact> step : steps) {
+                step.accept(f);
+            }
+        };
+    }
+
+    private static void checkBinding(String variable, String binding) throws Unsupported {
+        if (!variable.equals(binding)) {
+            throw new Unsupported("consequence uses " + variable + ", not the pattern binding");
+        }
+    }
+
+    /** Remove // and block comments outside string literals. */
+    private static String stripComments(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        boolean inString = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inString) {
+                out.append(c);
+                if (c == '\\' && i + 1 < text.length()) {
+                    out.append(text.charAt(++i));
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+                out.append(c);
+            } else if (c == '/' && i + 1 < text.length() && text.charAt(i + 1) == '/') {
+                while (i < text.length() && text.charAt(i) != '\n') i++;
+                out.append('\n');
+            } else if (c == '/' && i + 1 < text.length() && text.charAt(i + 1) == '*') {
+                int end = text.indexOf("*/", i + 2);
+                i = end < 0 ? text.length() : end + 1;
+                out.append(' ');
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /** Split on ; outside string literals, dropping blank statements. */
+    private static List<String> statements(String text) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inString = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' && (i == 0 || text.charAt(i - 1) != '\\')) {
+                inString = !inString;
+            }
+            if (c == ';' && !inString) {
+                statements.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        statements.add(current.toString().trim());
+        statements.removeIf(String::isEmpty);
+        return statements;
+    }
+
+    // ── Constraints ─────────────────────────────────────────────────────────
+
+    /**
+     * Recursive descent over one constraint expression:
+     *
+     *   or         := and ( "||" and )*
+     *   and        := primary ( "&&" primary )*
+     *   primary    := "(" or ")" | comparison
+     *   comparison := property op literal
+     *   literal    := null | true | false | "string" | number
+     */
+    private static final class ConstraintParser {
+
+        private static final Pattern TOKEN = Pattern.compile(
+                "\\s*(\"[^\"\\\\]*\"|-?\\d+(?:\\.\\d+)?|\\w+|==|!=|>=|<=|>|<|&&|\\|\\||\\(|\\))");
+
+        private final String text;
+        private final List<String> tokens = new ArrayList<>();
+        private int pos;
+
+        ConstraintParser(String text) throws Unsupported {
+            this.text = text;
+            Matcher m = TOKEN.matcher(text);
+            int at = 0;
+            while (at < text.length()) {
+                if (text.substring(at).isBlank()) break;
+                if (!m.find(at) || m.start() != at) {
+                    throw new Unsupported("constraint syntax: " + text.trim());
+                }
+                tokens.add(m.group(1));
+                at = m.end();
+            }
+        }
+
+        Predicate<ApplicantFact> parse() throws Unsupported {
+            Predicate<ApplicantFact> p = or();
+            if (pos != tokens.size()) {
+                throw new Unsupported("constraint syntax: " + text.trim());
+            }
+            return p;
+        }
+
+        private Predicate<ApplicantFact> or() throws Unsupported {
+            List<Predicate<ApplicantFact>> terms = new ArrayList<>();
+            terms.add(and());
+            while (accept("||")) {
+                terms.add(and());
+            }
+            return NativeRuleCompiler.or(terms);
+        }
+
+        private Predicate<ApplicantFact> and() throws Unsupported {
+            List<Predicate<ApplicantFact>> terms = new ArrayList<>();
+            terms.add(primary());
+            while (accept("&&")) {
+                terms.add(primary());
+            }
+            return NativeRuleCompiler.and(terms);
+        }
+
+        private Predicate<ApplicantFact> primary() throws Unsupported {
+            if (accept("(")) {
+                Predicate<ApplicantFact> inner = or();
+                expect(")");
+                return inner;
+            }
+            String property = next();
+            String op = next();
+            String literal = next();
+            return comparison(property, op, literal);
+        }
+
+        private boolean accept(String token) {
+            if (pos < tokens.size() && tokens.get(pos).equals(token)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) throws Unsupported {
+            if (!accept(token)) {
+                throw new Unsupported("constraint syntax: " + text.trim());
+            }
+        }
+
+        private String next() throws Unsupported {
+            if (pos >= tokens.size()) {
+                throw new Unsupported("constraint syntax: " + text.trim());
+            }
+            return tokens.get(pos++);
+        }
+    }
+
+    private static Predicate<ApplicantFact> comparison(String property, String op, String literal)
+            throws Unsupported {
+        PropertyDescriptor pd = PROPERTIES.get(property);
+        if (pd == null || pd.getReadMethod() == null) {
+            throw new Unsupported("unknown property " + property);
+        }
+        Class<?> type = pd.getPropertyType();
+        Function<ApplicantFact, Object> read = getter(pd);
+        boolean equality = "==".equals(op) || "!=".equals(op);
+        boolean negate = "!=".equals(op);
+        if (!equality && !Set.of(">", ">=", "<", "<=").contains(op)) {
+            throw new Unsupported("operator " + op);
+        }
+
+        if ("null".equals(literal)) {
+            if (!equality || type.isPrimitive()) {
+                throw new Unsupported(property + " " + op + " null");
+            }
+            return negate ? f -> read.apply(f) != null : f -> read.apply(f) == null;
+        }
+
+        if (literal.startsWith("\"")) {
+            if (type != String.class || !equality) {
+                throw new Unsupported(property + " " + op + " " + literal);
+            }
+            String value = literal.substring(1, literal.length() - 1);
+            return negate ? f -> !value.equals(read.apply(f)) : f -> value.equals(read.apply(f));
+        }
+
+        if ("true".equals(literal) || "false".equals(literal)) {
+            if ((type != boolean.class && type != Boolean.class) || !equality) {
+                throw new Unsupported(property + " " + op + " " + literal);
+            }
+            Boolean value = Boolean.valueOf(literal);
+            return negate ? f -> !value.equals(read.apply(f)) : f -> value.equals(read.apply(f));
+        }
+
+        if (!literal.matches("-?\\d+(\\.\\d+)?")) {
+            throw new Unsupported(property + " " + op + " " + literal);
+        }
+        BigDecimal value = new BigDecimal(literal);
+        if (isIntegral(type) && value.scale() == 0 && value.unscaledValue().bitLength() < 64) {
+            long bound = value.longValueExact();
+            return numeric(op, f -> {
+                Object v = read.apply(f);
+                return v == null ? null : Long.compare(((Number) v).longValue(), bound);
+            });
+        }
+        if (isIntegral(type) || type == BigDecimal.class || type == BigInteger.class) {
+            return numeric(op, f -> {
+                Object v = read.apply(f);
+                return v == null ? null : toBigDecimal((Number) v).compareTo(value);
+            });
+        }
+        throw new Unsupported(property + " (" + type.getSimpleName() + ") " + op + " " + literal);
+    }
+
+    /**
+     * A numeric comparison from {@code compare}, which returns the sign of
+     * field - literal, or null when the field is null.
+     */
+    private static Predicate<ApplicantFact> numeric(String op, Function<ApplicantFact, Integer> compare) {
+        switch (op) {
+            case "==": return f -> { Integer c = compare.apply(f); return c != null && c == 0; };
+            case "!=": return f -> { Integer c = compare.apply(f); return c == null || c != 0; };
+            case ">":  return f -> { Integer c = compare.apply(f); return c != null && c > 0; };
+            case ">=": return f -> { Integer c = compare.apply(f); return c != null && c >= 0; };
+            case "<":  return f -> { Integer c = compare.apply(f); return c != null && c < 0; };
+            default:   return f -> { Integer c = compare.apply(f); return c != null && c <= 0; };
+        }
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        return type == Integer.class || type == Long.class || type == Short.class || type == Byte.class
+                || type == int.class || type == long.class || type == short.class || type == byte.class;
+    }
+
+    private static BigDecimal toBigDecimal(Number n) {
+        if (n instanceof BigDecimal bd) return bd;
+        if (n instanceof BigInteger bi) return new BigDecimal(bi);
+        return BigDecimal.valueOf(n.longValue());
+    }
+
+    static Predicate<ApplicantFact> and(List<Predicate<ApplicantFact>> terms) {
+        if (terms.size() == 1) return terms.get(0);
+        if (terms.size() == 2) {
+            Predicate<ApplicantFact> a = terms.get(0), b = terms.get(1);
+            return f -> a.test(f) && b.test(f);
+        }
+        @SuppressWarnings("unchecked")
+        Predicate<ApplicantFact>[] all = terms.toArray(new Predicate[0]);
+        return f -> {
+            for (Predicate<ApplicantFact> p : all) {
+                if (!p.test(f)) return false;
+            }
+            return true;
+        };
+    }
+
+    static Predicate<ApplicantFact> or(List<Predicate<ApplicantFact>> terms) {
+        if (terms.size() == 1) return terms.get(0);
+        if (terms.size() == 2) {
+            Predicate<ApplicantFact> a = terms.get(0), b = terms.get(1);
+            return f -> a.test(f) || b.test(f);
+        }
+        @SuppressWarnings("unchecked")
+        Predicate<ApplicantFact>[] any = terms.toArray(new Predicate[0]);
+        return f -> {
+            for (Predicate<ApplicantFact> p : any) {
+                if (p.test(f)) return true;
+            }
+            return false;
+        };
+    }
+
+    // ── Accessors ───────────────────────────────────────────────────────────
+
+    /** The property's getter as a Function, generated with LambdaMetafactory. */
+    @SuppressWarnings("unchecked")
+    private static Function<ApplicantFact, Object> getter(PropertyDescriptor pd) throws Unsupported {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(pd.getReadMethod());
+            Class<?> boxed = MethodType.methodType(pd.getPropertyType()).wrap().returnType();
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(boxed, ApplicantFact.class));
+            return (Function<ApplicantFact, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new Unsupported("cannot access " + pd.getName() + ": " + e);
+        }
+    }
+
+    /** The boolean property's setter as a BiConsumer, generated with LambdaMetafactory. */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<ApplicantFact, Boolean> booleanSetter(String property) throws Unsupported {
+        PropertyDescriptor pd = PROPERTIES.get(property);
+        if (pd == null || pd.getWriteMethod() == null
+                || (pd.getPropertyType() != boolean.class && pd.getPropertyType() != Boolean.class)) {
+            throw new Unsupported("no boolean setter for " + property);
+        }
+        try {
+            MethodHandle handle = LOOKUP.unreflect(pd.getWriteMethod());
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(void.class, ApplicantFact.class, Boolean.class));
+            return (BiConsumer<ApplicantFact, Boolean>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new Unsupported("cannot access " + pd.getName() + ": " + e);
+        }
+    }
+}
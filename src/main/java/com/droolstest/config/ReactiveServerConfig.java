@@ -0,0 +1,107 @@
+package com.droolstest.config;
+
+import com.droolstest.controller.ReactiveValidationHandler;
+import com.droolstest.service.StreamingBatchService;
+import com.droolstest.service.ValidationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Reactive front end: the validate endpoints of ReactiveValidationHandler
+ * on a Reactor Netty server of their own, at drools.reactive.port.
+ *
+ * Spring MVC stays the application's web stack on server.port; this server
+ * runs beside it, so the two can be compared on the same rules, sessions
+ * and metrics. Off unless drools.reactive.enabled=true.
+ *
+ * Rules run on a bounded elastic scheduler of drools.reactive.threads
+ * threads (0 = one per core), each queueing at most
+ * drools.reactive.queued-per-thread tasks; beyond that requests get 503.
+ */
+@Configuration
+@ConditionalOnProperty(name = "drools.reactive.enabled", havingValue = "true")
+public class ReactiveServerConfig {
+
+    private static final int THREAD_TTL_SECONDS = 60;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler reactiveEvaluationScheduler(
+            @Value("${drools.reactive.threads:0}") int threads,
+            @Value("${drools.reactive.queued-per-thread:256}") int queuedPerThread) {
+        if (threads < 0 || queuedPerThread < 1) {
+            throw new IllegalArgumentException("drools.reactive.threads must be at least 0 "
+                    + "and drools.reactive.queued-per-thread at least 1");
+        }
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        System.out.println("Reactive evaluation scheduler: " + size + " threads, "
+                + queuedPerThread + " queued tasks per thread");
+        return Schedulers.newBoundedElastic(size, queuedPerThread, "drools-reactive", THREAD_TTL_SECONDS, true);
+    }
+
+    @Bean
+    public ReactiveValidationHandler reactiveValidationHandler(
+            ValidationService validationService,
+            StreamingBatchService streamingBatchService,
+            ObjectMapper objectMapper,
+            Scheduler reactiveEvaluationScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${drools.reactive.stream-chunks-in-flight:2}") int streamChunksInFlight) {
+        return new ReactiveValidationHandler(validationService, streamingBatchService, objectMapper,
+                reactiveEvaluationScheduler, streamChunksInFlight, meterRegistry);
+    }
+
+    /**
+     * Started here rather than with the servlet container, and stopped, with
+     * up to a few seconds for requests in progress, when the context closes.
+     */
+    @Bean(destroyMethod = "disposeNow")
+    public DisposableServer reactiveServer(
+            ReactiveValidationHandler handler,
+            Jackson2ObjectMapperBuilder builder,
+            @Value("${drools.reactive.port:8081}") int port,
+            @Value("${drools.reactive.max-in-memory-bytes:16777216}") int maxInMemoryBytes) {
+        // Same spring.jackson settings as the servlet side, but NDJSON needs one document per line
+        ObjectMapper mapper = builder.featuresToDisable(SerializationFeature.INDENT_OUTPUT).build();
+        Jackson2JsonDecoder decoder = new Jackson2JsonDecoder(mapper);
+        decoder.setMaxInMemorySize(maxInMemoryBytes);
+
+        UrlBasedCorsConfigurationSource cors = new UrlBasedCorsConfigurationSource();
+        cors.registerCorsConfiguration("/api/**", new CorsConfiguration().applyPermitDefaultValues());
+
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().maxInMemorySize(maxInMemoryBytes);
+                    codecs.defaultCodecs().jackson2JsonDecoder(decoder);
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(mapper));
+                })
+                .webFilter(new CorsWebFilter(cors))
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(handler.routes(), strategies);
+
+        DisposableServer server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        System.out.println("Reactive validation endpoints on port " + server.port());
+        return server;
+    }
+}
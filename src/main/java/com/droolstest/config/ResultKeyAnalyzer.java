@@ -0,0 +1,57 @@
+package com.droolstest.config;
+
+import com.droolstest.rules.ResultKeys;
+import org.drools.drl.ast.descr.PackageDescr;
+import org.drools.drl.ast.descr.RuleDescr;
+import org.drools.drl.parser.DrlParser;
+import org.drools.drl.parser.DroolsParserException;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Works out which result keys a rule set records: the string literals its
+ * rule consequences pass as the first argument of addValidationResult().
+ *
+ * A key built at run time rather than written as a literal is not found.
+ * Such a result still counts against fullyValid if it fails, but its
+ * absence does not.
+ */
+public final class ResultKeyAnalyzer {
+
+    private static final Pattern RECORD =
+            Pattern.compile("addValidationResult\\s*\\(\\s*\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    private ResultKeyAnalyzer() {}
+
+    /** Analyze every rule in {@code sources} (file name to DRL). */
+    public static ResultKeys analyze(Map<String, String> sources) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Map.Entry<String, String> file : new TreeMap<>(sources).entrySet()) {
+            DrlParser parser = new DrlParser();
+            PackageDescr pkg;
+            try {
+                pkg = parser.parse(false, file.getValue());
+            } catch (DroolsParserException e) {
+                throw new RuleCompilationException("Cannot parse " + file.getKey() + ": " + e.getMessage());
+            }
+            if (parser.hasErrors()) {
+                throw new RuleCompilationException("Cannot parse " + file.getKey() + ": " + parser.getErrors());
+            }
+            for (RuleDescr rule : pkg.getRules()) {
+                if (rule.getConsequence() == null) {
+                    continue;
+                }
+                Matcher m = RECORD.matcher(rule.getConsequence().toString());
+                while (m.find()) {
+                    keys.add(m.group(1));
+                }
+            }
+        }
+        return ResultKeys.of(keys);
+    }
+}
@@ -0,0 +1,11 @@
+package com.droolstest.config;
+
+/**
+ * Thrown when DRL sources fail to compile into a KieBase.
+ */
+public class RuleCompilationException extends RuntimeException {
+
+    public RuleCompilationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,100 @@
+package com.droolstest.config;
+
+import org.kie.api.KieServices;
+import org.kie.api.builder.*;
+import org.kie.api.runtime.KieContainer;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Loads DRL sources and compiles them into KieContainers.
+ *
+ * Rule sets are passed around as file name to DRL text maps, so the same
+ * code compiles the classpath rules at startup, a watched rules directory,
+ * or a DRL uploaded through the admin API.
+ */
+public final class RuleCompiler {
+
+    static final String RULES_PATTERN = "classpath:rules/*.drl";
+
+    private RuleCompiler() {}
+
+    /**
+     * Read all .drl files from classpath:rules/, keyed by file name.
+     */
+    public static Map<String, String> loadClasspathRules() throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        Resource[] ruleFiles = resolver.getResources(RULES_PATTERN);
+
+        Map<String, String> sources = new TreeMap<>();
+        for (Resource ruleFile : ruleFiles) {
+            try (InputStream in = ruleFile.getInputStream()) {
+                sources.put(ruleFile.getFilename(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            System.out.println("Loaded DRL: " + ruleFile.getFilename());
+        }
+        return sources;
+    }
+
+    /**
+     * Read all .drl files directly inside {@code dir}, keyed by file name.
+     */
+    public static Map<String, String> loadDirectoryRules(Path dir) throws IOException {
+        Map<String, String> sources = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.drl")) {
+            for (Path file : files) {
+                sources.put(file.getFileName().toString(), Files.readString(file));
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Write DRL sources into a fresh KieFileSystem.
+     */
+    public static KieFileSystem newFileSystem(KieServices kieServices, Map<String, String> sources) {
+        KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
+        sources.forEach((name, drl) -> kieFileSystem.write("src/main/resources/rules/" + name, drl));
+        return kieFileSystem;
+    }
+
+    /**
+     * Compile DRL sources into a KieContainer under the given release id.
+     *
+     * @throws RuleCompilationException if the DRL has errors or there is none
+     */
+    public static KieContainer compile(Map<String, String> sources, ReleaseId releaseId) {
+        if (sources.isEmpty()) {
+            throw new RuleCompilationException("No DRL files to compile");
+        }
+        KieServices kieServices = KieServices.Factory.get();
+        KieFileSystem kieFileSystem = newFileSystem(kieServices, sources);
+        kieFileSystem.generateAndWritePomXML(releaseId);
+
+        // Build and verify
+        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem).buildAll();
+        checkResults(kieBuilder.getResults());
+
+        return kieServices.newKieContainer(releaseId);
+    }
+
+    static void checkResults(Results results) {
+        if (results.hasMessages(Message.Level.ERROR)) {
+            throw new RuleCompilationException(
+                    "DRL compilation errors:\n" + results.getMessages());
+        }
+
+        if (results.hasMessages(Message.Level.WARNING)) {
+            System.out.println("DRL compilation warnings:\n" + results.getMessages());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.droolstest.config;
+
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.model.codegen.ExecutableModelProject;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Build-time compiler for the rule files.
+ *
+ * Compiles classpath:rules/*.drl to a Drools executable model (rules as
+ * generated Java classes instead of DRL + MVEL) and writes the resulting
+ * KJAR to {@code <outputDir>/prebuilt/rules-kjar.jar}. Maven runs this in
+ * the process-classes phase so the KJAR is packaged with the application;
+ * DroolsConfig loads it at startup instead of compiling DRL.
+ *
+ * Usage: RulePrecompiler <outputDir>
+ */
+public class RulePrecompiler {
+
+    public static final String KJAR_PATH = "prebuilt/rules-kjar.jar";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: RulePrecompiler <outputDir>");
+            System.exit(2);
+        }
+        Path output = Paths.get(args[0]).resolve(KJAR_PATH);
+
+        long start = System.nanoTime();
+        KieServices kieServices = KieServices.Factory.get();
+        KieFileSystem kieFileSystem = RuleCompiler.newFileSystem(kieServices, RuleCompiler.loadClasspathRules());
+
+        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem)
+                .buildAll(ExecutableModelProject.class);
+        RuleCompiler.checkResults(kieBuilder.getResults());
+
+        InternalKieModule kieModule = (InternalKieModule) kieBuilder.getKieModule();
+        Files.createDirectories(output.getParent());
+        Files.write(output, kieModule.getBytes());
+
+        System.out.printf("Wrote executable-model KJAR %s in %d ms%n",
+                output, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,144 @@
+package com.droolstest.config;
+
+import com.droolstest.rules.ApplicantFact;
+import com.droolstest.service.RuleReactivity;
+import org.drools.drl.ast.descr.BaseDescr;
+import org.drools.drl.ast.descr.ExprConstraintDescr;
+import org.drools.drl.ast.descr.PackageDescr;
+import org.drools.drl.ast.descr.PatternDescr;
+import org.drools.drl.ast.descr.QueryDescr;
+import org.drools.drl.ast.descr.RuleDescr;
+import org.drools.drl.parser.DrlParser;
+import org.drools.drl.parser.DroolsParserException;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Works out which ApplicantFact properties each DRL rule's conditions read,
+ * which is what Drools' property reactivity keys on.
+ *
+ * A rule is resolved when its condition is a single ApplicantFact pattern,
+ * with no source and no annotations such as @watch, and every constraint
+ * reads properties by name or by getter, and calls no other method on the
+ * fact. Calls on a property's value are fine: applicantZipCode.length() > 4
+ * reads applicantZipCode. Anything else, including "this", leaves the rule
+ * unresolved with the reason, and callers have to assume it reacts to
+ * every property.
+ */
+public final class RuleReactivityAnalyzer {
+
+    private static final Set<String> FACT_TYPES = Set.of("ApplicantFact", ApplicantFact.class.getName());
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*'");
+    private static final Pattern IDENTIFIER = Pattern.compile("(\\.\\s*)?([A-Za-z_$][\\w$]*)(\\s*\\()?");
+
+    /** Property name, and getter name to property name. */
+    private static final Map<String, String> PROPERTY_NAMES = new HashMap<>();
+
+    static {
+        try {
+            for (PropertyDescriptor pd : Introspector.getBeanInfo(ApplicantFact.class).getPropertyDescriptors()) {
+                if (pd.getReadMethod() != null) {
+                    PROPERTY_NAMES.put(pd.getName(), pd.getName());
+                    PROPERTY_NAMES.put(pd.getReadMethod().getName(), pd.getName());
+                }
+            }
+        } catch (IntrospectionException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private RuleReactivityAnalyzer() {}
+
+    /** Analyze every rule in {@code sources} (file name to DRL). */
+    public static RuleReactivity analyze(Map<String, String> sources) {
+        Map<String, Set<String>> properties = new HashMap<>();
+        Map<String, String> unresolved = new HashMap<>();
+        for (Map.Entry<String, String> file : new TreeMap<>(sources).entrySet()) {
+            DrlParser parser = new DrlParser();
+            PackageDescr pkg;
+            try {
+                pkg = parser.parse(false, file.getValue());
+            } catch (DroolsParserException e) {
+                throw new RuleCompilationException("Cannot parse " + file.getKey() + ": " + e.getMessage());
+            }
+            if (parser.hasErrors()) {
+                throw new RuleCompilationException("Cannot parse " + file.getKey() + ": " + parser.getErrors());
+            }
+            for (RuleDescr rule : pkg.getRules()) {
+                if (rule instanceof QueryDescr) {
+                    continue;
+                }
+                try {
+                    properties.put(rule.getName(), read(rule));
+                } catch (IllegalArgumentException e) {
+                    unresolved.put(rule.getName(), e.getMessage());
+                }
+            }
+        }
+        return new RuleReactivity(properties, unresolved);
+    }
+
+    private static Set<String> read(RuleDescr rule) {
+        if (rule.getParentName() != null) {
+            throw new IllegalArgumentException("extends another rule");
+        }
+        List<? extends BaseDescr> lhs = rule.getLhs().getDescrs();
+        if (lhs.size() != 1 || !(lhs.get(0) instanceof PatternDescr pattern)) {
+            throw new IllegalArgumentException("condition is not a single pattern");
+        }
+        if (!FACT_TYPES.contains(pattern.getObjectType())) {
+            throw new IllegalArgumentException("pattern on " + pattern.getObjectType());
+        }
+        if (pattern.getSource() != null) {
+            throw new IllegalArgumentException("pattern with a source (from/collect/accumulate)");
+        }
+        if (!pattern.getAnnotations().isEmpty()) {
+            throw new IllegalArgumentException("pattern annotations " + pattern.getAnnotationNames());
+        }
+        Set<String> read = new TreeSet<>();
+        for (BaseDescr constraint : pattern.getConstraint().getDescrs()) {
+            if (!(constraint instanceof ExprConstraintDescr expr)) {
+                throw new IllegalArgumentException("constraint " + constraint);
+            }
+            read.addAll(readBy(expr.getExpression()));
+        }
+        return read;
+    }
+
+    /** The properties one constraint expression reads. */
+    private static Set<String> readBy(String expression) {
+        Set<String> read = new HashSet<>();
+        Matcher m = IDENTIFIER.matcher(STRING_LITERAL.matcher(expression).replaceAll("\"\""));
+        while (m.find()) {
+            boolean member = m.group(1) != null;
+            String name = m.group(2);
+            boolean call = m.group(3) != null;
+            if (member || name.startsWith("$") || name.equals("null") || name.equals("true")
+                    || name.equals("false")) {
+                continue; // a member of some value, a binding, or a literal
+            }
+            if (name.equals("this")) {
+                throw new IllegalArgumentException("constraint uses this: " + expression);
+            }
+            String property = PROPERTY_NAMES.get(name);
+            if (property != null && (!call || !property.equals(name))) {
+                read.add(property);
+            } else if (call) {
+                throw new IllegalArgumentException("constraint calls " + name + "(): " + expression);
+            }
+        }
+        return read;
+    }
+}
@@ -0,0 +1,240 @@
+package com.droolstest.controller;
+
+import com.droolstest.config.RuleCompilationException;
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.dto.BulkValidationRequest;
+import com.droolstest.dto.LoadTestRequest;
+import com.droolstest.service.BulkValidationService;
+import com.droolstest.service.LoadTestService;
+import com.droolstest.service.NativeRuleVerifier;
+import com.droolstest.service.RuleBaseManager;
+import com.droolstest.service.RuleProfiler;
+import com.droolstest.service.RuleSetRegistry;
+import com.droolstest.service.ValidationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Administrative endpoints for managing the loaded rule set, and for
+ * diagnostics too expensive to leave open to any caller.
+ *
+ * Endpoints:
+ *   GET  /api/admin/rules              - Active rule set version and last reload outcome
+ *   POST /api/admin/rules?file=x.drl   - Upload a DRL file and hot-swap the rule set
+ *   GET  /api/admin/rulesets           - Named rule sets: available, loaded, evictions
+ *   DELETE /api/admin/rulesets/{name}  - Unload a named rule set; it recompiles on next use
+ *   POST /api/admin/loadtest           - Run a load test against ValidationService and report
+ *   GET  /api/admin/loadtest           - Report of the last load test
+ *   POST /api/admin/loadtest/scaling   - Run the load test at 1, 2, 4 ... threads and report the scaling
+ *   GET  /api/admin/loadtest/scaling   - Report of the last scaling run
+ *   POST /api/admin/bulk               - Validate a whole applicant file into a result file
+ *   GET  /api/admin/bulk               - Report of the last bulk run
+ *   POST /api/admin/native/verify      - Compare the native rules with Drools
+ *   DELETE /api/admin/profile          - Clear the sampling profiler's totals
+ *
+ * Only registered with drools.admin.enabled=true. A DRL consequence is
+ * arbitrary Java, so uploading rules amounts to running code on the
+ * server; without the flag every /api/admin path is a 404. Enable it only
+ * where the port is reachable by trusted callers alone.
+ */
+@RestController
+@ConditionalOnProperty(name = "drools.admin.enabled", havingValue = "true")
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private static final long RELOAD_TIMEOUT_SECONDS = 60;
+
+    private final RuleBaseManager ruleBaseManager;
+    private final RuleSetRegistry ruleSetRegistry;
+    private final LoadTestService loadTestService;
+    private final BulkValidationService bulkValidationService;
+    private final ValidationService validationService;
+    private final RuleProfiler ruleProfiler;
+
+    public AdminController(RuleBaseManager ruleBaseManager, RuleSetRegistry ruleSetRegistry,
+                           LoadTestService loadTestService, BulkValidationService bulkValidationService,
+                           ValidationService validationService, RuleProfiler ruleProfiler) {
+        this.ruleBaseManager = ruleBaseManager;
+        this.ruleSetRegistry = ruleSetRegistry;
+        this.loadTestService = loadTestService;
+        this.bulkValidationService = bulkValidationService;
+        this.validationService = validationService;
+        this.ruleProfiler = ruleProfiler;
+    }
+
+    @GetMapping("/rules")
+    public ResponseEntity<Map<String, Object>> rules() {
+        return ResponseEntity.ok(ruleBaseManager.getStatus());
+    }
+
+    /**
+     * Add or replace one DRL file and reload.
+     *
+     * POST /api/admin/rules?file=applicant-validation.drl
+     * Content-Type: text/plain
+     * Body: DRL source
+     *
+     * The new rule set compiles in the background while validations keep
+     * running on the current one. Returns 200 with the new status once it
+     * is active, or 422 with the compiler messages if the DRL does not
+     * compile; the current rule set then stays active.
+     */
+    @PostMapping(value = "/rules", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadRules(@RequestParam("file") String file,
+                                                           @RequestBody String drl) throws InterruptedException {
+        if (!file.endsWith(".drl") || file.contains("/") || file.contains("\\")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "file must be a plain *.drl name"));
+        }
+        try {
+            ruleBaseManager.upload(file, drl).get(RELOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return ResponseEntity.ok(ruleBaseManager.getStatus());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuleCompilationException) {
+                return ResponseEntity.unprocessableEntity().body(Map.of("error", e.getCause().getMessage()));
+            }
+            return ResponseEntity.internalServerError().body(Map.of("error", String.valueOf(e.getCause())));
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(Map.of("status", "Still compiling; poll GET /api/admin/rules"));
+        }
+    }
+
+    @GetMapping("/rulesets")
+    public ResponseEntity<Map<String, Object>> ruleSets() {
+        return ResponseEntity.ok(ruleSetRegistry.getStatus());
+    }
+
+    @DeleteMapping("/rulesets/{name}")
+    public ResponseEntity<Map<String, Object>> evictRuleSet(@PathVariable String name) {
+        if (!ruleSetRegistry.evict(name)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("ruleSet", name, "evicted", true));
+    }
+
+    /**
+     * Drive the validation path in-process for a while and report
+     * throughput, latency percentiles, GC and allocation.
+     *
+     * POST /api/admin/loadtest
+     * Body (all optional): { "source": "synthetic", "validPercent": 80, "operation": "validate",
+     *                        "ruleSet": null, "concurrency": 0, "targetRate": 0,
+     *                        "warmupSeconds": 2, "durationSeconds": 10, "seed": 42 }
+     *
+     * Returns when the test is done. 409 if another load test is running.
+     */
+    @PostMapping("/loadtest")
+    public ResponseEntity<Map<String, Object>> loadTest(@RequestBody(required = false) LoadTestRequest request)
+            throws InterruptedException {
+        try {
+            return ResponseEntity.ok(loadTestService.run(request == null ? new LoadTestRequest() : request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/loadtest")
+    public ResponseEntity<Map<String, Object>> lastLoadTest() {
+        Map<String, Object> report = loadTestService.getLastReport();
+        return report == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(report);
+    }
+
+    /**
+     * Run the closed-loop load test at 1, 2, 4 ... threads up to "concurrency"
+     * (one per core if 0), and report throughput per thread and per core,
+     * speedup, efficiency against linear, and contention per operation.
+     *
+     * POST /api/admin/loadtest/scaling
+     * Body: as for /loadtest, without targetRate; warmup and duration apply to each step.
+     *
+     * Returns when every step is done. 409 if another load test is running.
+     */
+    @PostMapping("/loadtest/scaling")
+    public ResponseEntity<Map<String, Object>> scalingTest(@RequestBody(required = false) LoadTestRequest request)
+            throws InterruptedException {
+        try {
+            return ResponseEntity.ok(loadTestService.runScaling(request == null ? new LoadTestRequest() : request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/loadtest/scaling")
+    public ResponseEntity<Map<String, Object>> lastScalingTest() {
+        Map<String, Object> report = loadTestService.getLastScalingReport();
+        return report == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(report);
+    }
+
+    /**
+     * Validate every applicant of a CSV or NDJSON file in drools.bulk.dir
+     * with the columnar bulk engine, and write one result byte per row.
+     *
+     * POST /api/admin/bulk
+     * Body: { "input": "applicants.csv", "output": null, "verifyRows": 1000 }
+     *
+     * Returns the report when done. 400 for a bad path, 409 if a bulk run
+     * is already going or the loaded rules are not the bundled five.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> bulk(@RequestBody BulkValidationRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(bulkValidationService.run(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> lastBulk() {
+        Map<String, Object> report = bulkValidationService.getLastReport();
+        return report == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(report);
+    }
+
+    /**
+     * Run applicants through Drools and through the native rules and
+     * report any difference in the resulting facts.
+     *
+     * POST /api/admin/native/verify
+     * Body (optional): { "testCases": [ ... ] }, as for /api/validate/batch;
+     * the bundled test-cases.json without one.
+     */
+    @PostMapping("/native/verify")
+    public ResponseEntity<Map<String, Object>> verifyNativeRules(
+            @RequestBody(required = false) BatchValidationRequest request) {
+        if (request != null && request.getTestCases() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "testCases is required"));
+        }
+        try {
+            return ResponseEntity.ok(validationService.verifyNativeRules(request == null
+                    ? NativeRuleVerifier.sampleApplicants()
+                    : NativeRuleVerifier.applicants(request)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Clear the sampling profiler's totals and recent traces; GET
+     * /api/engine/profile starts over from now.
+     */
+    @DeleteMapping("/profile")
+    public ResponseEntity<Map<String, Object>> resetProfile() {
+        ruleProfiler.reset();
+        return ResponseEntity.ok(Map.of("status", "reset"));
+    }
+}
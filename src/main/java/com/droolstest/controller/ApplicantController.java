@@ -0,0 +1,97 @@
+package com.droolstest.controller;
+
+import com.droolstest.dto.ValidationRequest;
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.service.ApplicantSessionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Stateful validation of one applicant over several requests: the
+ * applicant's session is kept under its id, and corrections re-evaluate
+ * only the rules that read the corrected fields.
+ *
+ * Endpoints:
+ *   PUT    /api/applicants/{id}  - Validate an applicant and keep its session
+ *   PATCH  /api/applicants/{id}  - Change some fields and re-evaluate the rules that read them
+ *   GET    /api/applicants/{id}  - The current result, without re-evaluating
+ *   DELETE /api/applicants/{id}  - Dispose the session
+ *   GET    /api/applicants       - Open sessions, evictions, and the fields each rule reads
+ *
+ * Sessions are evicted after drools.applicant-sessions.idle-timeout-seconds
+ * without use; the other endpoints then return 404, and the client starts
+ * over with PUT.
+ */
+@RestController
+@RequestMapping("/api/applicants")
+@CrossOrigin(origins = "*")
+public class ApplicantController {
+
+    private final ApplicantSessionService applicantSessions;
+
+    public ApplicantController(ApplicantSessionService applicantSessions) {
+        this.applicantSessions = applicantSessions;
+    }
+
+    /**
+     * PUT /api/applicants/{id}
+     * Body: { "applicant": { ... } }, as for POST /api/validate. An
+     * X-Rule-Set header picks a named rule set.
+     *
+     * Replaces any session already kept for the id.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<?> open(@PathVariable String id, @RequestBody ValidationRequest request,
+                                  @RequestHeader(value = ValidationController.RULE_SET_HEADER, required = false)
+                                  String ruleSet) {
+        if (request.getApplicant() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(applicantSessions.open(id, ruleSet, request.getApplicant()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * PATCH /api/applicants/{id}
+     * Body: the applicant fields to change, e.g. { "applicantZipCode": "62704" };
+     * null clears a field.
+     *
+     * Returns the refreshed ValidationResponse, with "reevaluatedRules"
+     * naming the rules that reacted to the change. 400 for a field that is
+     * not an applicant input field or a value that does not bind, 404 if
+     * there is no session for the id.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patch(@PathVariable String id, @RequestBody JsonNode patch) {
+        try {
+            ValidationResponse response = applicantSessions.patch(id, patch);
+            return response == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ValidationResponse> get(@PathVariable String id) {
+        ValidationResponse response = applicantSessions.get(id);
+        return response == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> close(@PathVariable String id) {
+        return applicantSessions.close(id)
+                ? ResponseEntity.ok(Map.of("id", id, "closed", true))
+                : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> stats() {
+        return ResponseEntity.ok(applicantSessions.getStats());
+    }
+}
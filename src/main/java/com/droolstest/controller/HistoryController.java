@@ -0,0 +1,51 @@
+package com.droolstest.controller;
+
+import com.droolstest.dto.HistoryQuery;
+import com.droolstest.service.ValidationHistory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Queries over the validation history log; never runs a rule.
+ *
+ * Endpoints:
+ *   GET /api/history         - Records by outcome, time range, rule set or applicant (see HistoryQuery)
+ *   GET /api/history/status  - Segments, record count and disk use
+ */
+@RestController
+@RequestMapping("/api/history")
+@CrossOrigin(origins = "*")
+public class HistoryController {
+
+    private final ValidationHistory history;
+
+    public HistoryController(ValidationHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * GET /api/history?failed=4&from=2026-10-17&to=2026-10-18&limit=100
+     *
+     * Returns the matching records oldest first, up to limit, and the total
+     * number of matches. 400 for a parameter that does not parse, 409 if
+     * the history is disabled.
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> query(HistoryQuery query) {
+        try {
+            return ResponseEntity.ok(history.query(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(history.getStatus());
+    }
+}
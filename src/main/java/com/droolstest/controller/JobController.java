@@ -0,0 +1,156 @@
+package com.droolstest.controller;
+
+import com.droolstest.service.JobQueueFullException;
+import com.droolstest.service.JobTooLargeException;
+import com.droolstest.service.ValidationJob;
+import com.droolstest.service.ValidationJobService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Asynchronous batch validation, for batches too large to wait on.
+ *
+ * Endpoints:
+ *   POST   /api/jobs                 - Submit a batch; returns 202 with a job id
+ *   GET    /api/jobs                 - All retained jobs and worker/queue usage
+ *   GET    /api/jobs/{id}            - Job state and progress
+ *   GET    /api/jobs/{id}/results    - One page of TestCaseResults (?page=0&size=100)
+ *   DELETE /api/jobs/{id}            - Cancel a job and delete its results
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*")
+public class JobController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ValidationJobService jobService;
+    private final ObjectMapper objectMapper;
+
+    public JobController(ValidationJobService jobService, ObjectMapper objectMapper) {
+        this.jobService = jobService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Queue a batch for validation.
+     *
+     * POST /api/jobs
+     * Content-Type: application/json   - { "testCases": [ ... ] }, as for /api/validate/batch
+     * Content-Type: application/x-ndjson - one test case per line
+     *
+     * Returns 202 as soon as the body is on disk, 429 if the job queue is full,
+     * or 413 if the body is larger than drools.jobs.max-body-bytes.
+     */
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Map<String, Object>> submit(InputStream body,
+                                                      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType)
+            throws IOException {
+        boolean ndjson = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON);
+        ValidationJob job;
+        try {
+            job = jobService.submit(body, ndjson);
+        } catch (JobQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("error", e.getMessage()));
+        } catch (JobTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+        }
+
+        String self = "/api/jobs/" + job.getId();
+        Map<String, Object> accepted = new LinkedHashMap<>(job.getStatus());
+        accepted.put("statusUrl", self);
+        accepted.put("resultsUrl", self + "/results");
+        return ResponseEntity.accepted().location(URI.create(self)).body(accepted);
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> list() {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (ValidationJob job : jobService.list()) {
+            jobs.add(job.getStatus());
+        }
+        Map<String, Object> body = new LinkedHashMap<>(jobService.getStats());
+        body.put("jobs", jobs);
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> status(@PathVariable String id) {
+        ValidationJob job = jobService.get(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job.getStatus());
+    }
+
+    /**
+     * One page of results, in submission order. Pages can be fetched while
+     * the job is running; "available" says how many results exist so far.
+     *
+     * GET /api/jobs/{id}/results?page=0&size=100
+     *
+     * The stored result lines are copied into the response as they are,
+     * without being parsed and re-serialized.
+     */
+    @GetMapping(value = "/{id}/results", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void results(@PathVariable String id,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "100") int size,
+                        HttpServletResponse response) throws IOException {
+        ValidationJob job = jobService.get(id);
+        if (job == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+            return;
+        }
+
+        // Read the state before the results, so a COMPLETED page is never short
+        ValidationJob.State state = job.getState();
+        int available = job.getProcessed();
+        List<String> results = jobService.results(job, page, size, available);
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            gen.writeStartObject();
+            gen.writeStringField("jobId", id);
+            gen.writeStringField("state", state.name());
+            gen.writeNumberField("page", page);
+            gen.writeNumberField("size", size);
+            gen.writeNumberField("available", available);
+            gen.writeArrayFieldStart("results");
+            for (String result : results) {
+                gen.writeRawValue(result);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> delete(@PathVariable String id) throws IOException {
+        if (!jobService.delete(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("jobId", id, "deleted", true));
+    }
+}
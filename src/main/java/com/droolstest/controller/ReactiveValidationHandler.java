@@ -0,0 +1,249 @@
+package com.droolstest.controller;
+
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.dto.BatchValidationResponse;
+import com.droolstest.dto.ValidationRequest;
+import com.droolstest.service.StreamingBatchService;
+import com.droolstest.service.ValidationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * The validate endpoints on the reactive stack, served by Reactor Netty on
+ * drools.reactive.port next to the servlet ones (see ReactiveServerConfig).
+ *
+ * Endpoints:
+ *   POST /api/validate              - Validate a single applicant
+ *   POST /api/validate/batch        - Run batch test cases with assertions
+ *   POST /api/validate/batch/stream - Same, streamed as NDJSON in and out
+ *
+ * Requests and responses are those of ValidationController, with view=lean,
+ * trace=true and the X-Rule-Set header; JSON only. No thread waits on a
+ * client: Netty's event loops read and write, and rules run on the bounded
+ * evaluation scheduler. When its threads are busy and its queues full, a
+ * request gets 503 instead of waiting in an unbounded queue.
+ */
+public class ReactiveValidationHandler {
+
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_LEAN = "lean";
+
+    /** How long a partial chunk waits for more test cases from a slow client. */
+    private static final Duration CHUNK_LINGER = Duration.ofMillis(20);
+
+    private final ValidationService validationService;
+    private final StreamingBatchService streamingBatchService;
+    private final ObjectReader testCaseReader;
+    private final Scheduler scheduler;
+    private final int streamChunksInFlight;
+    private final AtomicInteger evaluations = new AtomicInteger();
+    private final Counter rejected;
+
+    public ReactiveValidationHandler(ValidationService validationService,
+                                     StreamingBatchService streamingBatchService, ObjectMapper objectMapper,
+                                     Scheduler scheduler, int streamChunksInFlight, MeterRegistry meterRegistry) {
+        if (streamChunksInFlight < 1) {
+            throw new IllegalArgumentException("drools.reactive.stream-chunks-in-flight must be at least 1");
+        }
+        this.validationService = validationService;
+        this.streamingBatchService = streamingBatchService;
+        this.testCaseReader = objectMapper.readerFor(BatchValidationRequest.TestCase.class);
+        this.scheduler = scheduler;
+        this.streamChunksInFlight = streamChunksInFlight;
+
+        Gauge.builder("drools.reactive.evaluations", evaluations, AtomicInteger::get)
+                .description("Reactive evaluations queued on or running on the evaluation scheduler")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("drools.reactive.rejected")
+                .description("Reactive evaluations refused because the evaluation scheduler was full")
+                .register(meterRegistry);
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .POST("/api/validate", this::validate)
+                .POST("/api/validate/batch", this::validateBatch)
+                .POST("/api/validate/batch/stream",
+                        RequestPredicates.contentType(MediaType.APPLICATION_NDJSON), this::validateBatchStream)
+                .build();
+    }
+
+    // ── Endpoints ───────────────────────────────────────────────────────────
+
+    /**
+     * POST /api/validate[?view=lean][&trace=true]
+     * Body: { "applicant": { ... } }
+     */
+    Mono<ServerResponse> validate(ServerRequest request) {
+        String view = request.queryParam("view").orElse(VIEW_FULL);
+        boolean trace = Boolean.parseBoolean(request.queryParam("trace").orElse("false"));
+        String ruleSet = request.headers().firstHeader(ValidationController.RULE_SET_HEADER);
+        if (!isKnownView(view)) {
+            return ServerResponse.badRequest().build();
+        }
+        return request.bodyToMono(ValidationRequest.class)
+                .filter(r -> r.getApplicant() != null)
+                .flatMap(r -> evaluate(() -> validationService.validate(ruleSet, r.getApplicant(), trace)))
+                .flatMap(response -> ok(VIEW_LEAN.equals(view) ? response.lean() : response))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()))
+                .onErrorResume(this::error);
+    }
+
+    /**
+     * POST /api/validate/batch[?view=lean][&trace=true]
+     * Body: { "testCases": [ { "testName": "...", "input": {...}, "expected": {...} } ] }
+     */
+    Mono<ServerResponse> validateBatch(ServerRequest request) {
+        String view = request.queryParam("view").orElse(VIEW_FULL);
+        boolean trace = Boolean.parseBoolean(request.queryParam("trace").orElse("false"));
+        String ruleSet = request.headers().firstHeader(ValidationController.RULE_SET_HEADER);
+        if (!isKnownView(view)) {
+            return ServerResponse.badRequest().build();
+        }
+        return request.bodyToMono(BatchValidationRequest.class)
+                .filter(r -> r.getTestCases() != null && !r.getTestCases().isEmpty())
+                .flatMap(r -> evaluate(() -> validationService.validateBatch(ruleSet, r, trace)))
+                .flatMap(response -> ok(VIEW_LEAN.equals(view) ? response.lean() : response))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()))
+                .onErrorResume(this::error);
+    }
+
+    /**
+     * POST /api/validate/batch/stream
+     * Content-Type: application/x-ndjson
+     * Body: one test case per line, same shape as the entries of "testCases"
+     *
+     * Responds with one TestCaseResult per line and a {"summary": {...}}
+     * trailer, as the servlet endpoint does. Lines are parsed one at a time,
+     * and only as fast as results are written: at most
+     * stream-chunks-in-flight chunks are read ahead of the client, and
+     * Netty stops reading the request while the response cannot be
+     * written. Chunks are evaluated and counted by StreamingBatchService.
+     * An error once the response has started, malformed input included,
+     * ends the stream with "error" in the summary.
+     */
+    Mono<ServerResponse> validateBatchStream(ServerRequest request) {
+        String ruleSet = request.headers().firstHeader(ValidationController.RULE_SET_HEADER);
+        StreamingBatchService.Tally tally = new StreamingBatchService.Tally();
+
+        Flux<Object> lines = request.bodyToFlux(String.class)
+                .filter(line -> !line.isBlank())
+                .<BatchValidationRequest.TestCase>handle((line, sink) -> {
+                    BatchValidationRequest.TestCase tc;
+                    try {
+                        tc = testCaseReader.readValue(line);
+                    } catch (JsonProcessingException e) {
+                        // Stop reading, but still evaluate and report what was read
+                        tally.malformed(e);
+                        sink.complete();
+                        return;
+                    }
+                    if (tally.accept(tc)) {
+                        sink.next(tc);
+                    } else {
+                        sink.complete();
+                    }
+                })
+                .onErrorResume(e -> {
+                    tally.failed(rootMessage(e));
+                    return Mono.empty();
+                })
+                .bufferTimeout(StreamingBatchService.CHUNK_SIZE, CHUNK_LINGER, true)
+                .flatMapSequential(chunk -> evaluate(() -> streamingBatchService.evaluateChunk(ruleSet, chunk)),
+                        streamChunksInFlight, 1)
+                .flatMapIterable(Function.identity())
+                .doOnNext(tally::count)
+                .onErrorResume(e -> {
+                    tally.failed(rootMessage(e));
+                    return Mono.empty();
+                })
+                .cast(Object.class)
+                .concatWith(Mono.fromSupplier(() -> Map.of("summary", tally.summary())));
+
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(lines, Object.class);
+    }
+
+    // ── Evaluation ──────────────────────────────────────────────────────────
+
+    /**
+     * Run {@code task} on the evaluation scheduler. Fails with
+     * RejectedExecutionException when the scheduler is full.
+     */
+    private <T> Mono<T> evaluate(Callable<T> task) {
+        return Mono.fromCallable(task)
+                .subscribeOn(scheduler)
+                .doOnSubscribe(s -> evaluations.incrementAndGet())
+                .doFinally(s -> evaluations.decrementAndGet())
+                .doOnError(RejectedExecutionException.class, e -> rejected.increment());
+    }
+
+    // ── Responses ───────────────────────────────────────────────────────────
+
+    private static Mono<ServerResponse> ok(Object body) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+    }
+
+    /**
+     * The status the servlet stack would give {@code e}: 503 for a full
+     * scheduler, 400 for an unreadable body, the @ResponseStatus of the
+     * service exceptions; anything else is left to the server (500).
+     */
+    private Mono<ServerResponse> error(Throwable e) {
+        HttpStatusCode status;
+        String message = e.getMessage();
+        if (e instanceof RejectedExecutionException) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            message = "Rule evaluation is at capacity, retry later";
+        } else if (e instanceof ResponseStatusException rse) {
+            status = rse.getStatusCode();
+            message = rse.getReason();
+        } else if (e instanceof IllegalArgumentException) {
+            status = HttpStatus.BAD_REQUEST;
+        } else {
+            ResponseStatus annotation = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+            if (annotation == null) {
+                return Mono.error(e);
+            }
+            status = annotation.code();
+        }
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("error", String.valueOf(message)));
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return String.valueOf(root.getMessage());
+    }
+
+    private static boolean isKnownView(String view) {
+        return VIEW_FULL.equals(view) || VIEW_LEAN.equals(view);
+    }
+}
@@ -1,10 +1,17 @@
 package com.droolstest.controller;
 
 import com.droolstest.dto.*;
+import com.droolstest.service.RuleProfiler;
+import com.droolstest.service.StartupWarmup;
+import com.droolstest.service.StreamingBatchService;
 import com.droolstest.service.ValidationService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -13,50 +20,144 @@ import java.util.Map;
  *
  * Endpoints:
  *   POST /api/validate       - Validate a single applicant
+ *   POST /api/validate/decision - fullyValid only; the rules run in full, only the results are skipped
  *   POST /api/validate/batch  - Run batch test cases with assertions
+ *   POST /api/validate/batch/stream - Same, streamed as NDJSON in and out
  *   GET  /api/rules/info      - Show loaded rule descriptions
+ *   GET  /api/engine/stats    - Session mode and pool statistics
+ *   GET  /api/engine/native   - Rules translated for the native engine mode
+ *   GET  /api/engine/profile  - Per-rule totals from sampled request traces
+ *   GET  /api/engine/warmup   - Startup warmup progress and latency reached
  *   GET  /api/health          - Health check
+ *
+ * The validate endpoints run the default rule set unless a named one is
+ * chosen, either by path (POST /api/rulesets/{ruleSet}/validate, .../decision,
+ * .../batch) or with an X-Rule-Set header; the path wins if both are given.
+ * /api/validate and /api/validate/batch take ?trace=true to return a rule
+ * trace with each ValidationResponse.
+ *
+ * /api/validate, /api/validate/batch and /api/validate/batch/stream are
+ * also served on the reactive stack, at drools.reactive.port (see
+ * ReactiveValidationHandler).
  */
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class ValidationController {
 
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_LEAN = "lean";
+
+    static final String RULE_SET_HEADER = "X-Rule-Set";
+
     private final ValidationService validationService;
+    private final StreamingBatchService streamingBatchService;
+    private final RuleProfiler ruleProfiler;
+    private final StartupWarmup startupWarmup;
 
-    public ValidationController(ValidationService validationService) {
+    public ValidationController(ValidationService validationService,
+                                StreamingBatchService streamingBatchService,
+                                RuleProfiler ruleProfiler,
+                                StartupWarmup startupWarmup) {
         this.validationService = validationService;
+        this.streamingBatchService = streamingBatchService;
+        this.ruleProfiler = ruleProfiler;
+        this.startupWarmup = startupWarmup;
     }
 
     /**
      * Validate a single applicant against all rules.
      *
-     * POST /api/validate
+     * POST /api/validate[?view=lean][&trace=true]
+     * Body: { "applicant": { ... } }
+     *
+     * view=lean leaves factAfterRules out of the response. Request and
+     * response can also be Smile or CBOR (see WireFormatConfig). trace=true
+     * adds "trace": the rules that matched and fired, each firing's
+     * duration, and the timeline of events (see RuleTrace).
+     */
+    @PostMapping({"/validate", "/rulesets/{ruleSet}/validate"})
+    public ResponseEntity<ValidationResponse> validate(@RequestBody ValidationRequest request,
+                                                       @RequestParam(defaultValue = VIEW_FULL) String view,
+                                                       @RequestParam(defaultValue = "false") boolean trace,
+                                                       @PathVariable(required = false) String ruleSet,
+                                                       @RequestHeader(value = RULE_SET_HEADER, required = false)
+                                                       String ruleSetHeader) {
+        if (request.getApplicant() == null || !isKnownView(view)) {
+            return ResponseEntity.badRequest().build();
+        }
+        ValidationResponse response = validationService.validate(ruleSet(ruleSet, ruleSetHeader),
+                request.getApplicant(), trace);
+        return ResponseEntity.ok(VIEW_LEAN.equals(view) ? response.lean() : response);
+    }
+
+    /**
+     * Decide whether a single applicant passes every rule, and return only that.
+     * The rules are matched as for /api/validate; only recording their
+     * results and building the full response are skipped.
+     *
+     * POST /api/validate/decision
      * Body: { "applicant": { ... } }
+     * Response: { "fullyValid": true, "ruleSetVersion": "1-9f1c2a4b" }
      */
-    @PostMapping("/validate")
-    public ResponseEntity<ValidationResponse> validate(@RequestBody ValidationRequest request) {
+    @PostMapping({"/validate/decision", "/rulesets/{ruleSet}/validate/decision"})
+    public ResponseEntity<DecisionResponse> decide(@RequestBody ValidationRequest request,
+                                                   @PathVariable(required = false) String ruleSet,
+                                                   @RequestHeader(value = RULE_SET_HEADER, required = false)
+                                                   String ruleSetHeader) {
         if (request.getApplicant() == null) {
             return ResponseEntity.badRequest().build();
         }
-        ValidationResponse response = validationService.validate(request.getApplicant());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(validationService.decide(ruleSet(ruleSet, ruleSetHeader), request.getApplicant()));
     }
 
     /**
      * Run batch test cases with expected result assertions.
      *
-     * POST /api/validate/batch
+     * POST /api/validate/batch[?view=lean][&trace=true]
      * Body: { "testCases": [ { "testName": "...", "input": {...}, "expected": {...} } ] }
+     *
+     * trace=true puts each applicant's rule trace on its validationResponse.
      */
-    @PostMapping("/validate/batch")
+    @PostMapping({"/validate/batch", "/rulesets/{ruleSet}/validate/batch"})
     public ResponseEntity<BatchValidationResponse> validateBatch(
-            @RequestBody BatchValidationRequest request) {
-        if (request.getTestCases() == null || request.getTestCases().isEmpty()) {
+            @RequestBody BatchValidationRequest request,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
+            @RequestParam(defaultValue = "false") boolean trace,
+            @PathVariable(required = false) String ruleSet,
+            @RequestHeader(value = RULE_SET_HEADER, required = false) String ruleSetHeader) {
+        if (request.getTestCases() == null || request.getTestCases().isEmpty() || !isKnownView(view)) {
             return ResponseEntity.badRequest().build();
         }
-        BatchValidationResponse response = validationService.validateBatch(request);
-        return ResponseEntity.ok(response);
+        BatchValidationResponse response = validationService.validateBatch(ruleSet(ruleSet, ruleSetHeader), request, trace);
+        return ResponseEntity.ok(VIEW_LEAN.equals(view) ? response.lean() : response);
+    }
+
+    private static boolean isKnownView(String view) {
+        return VIEW_FULL.equals(view) || VIEW_LEAN.equals(view);
+    }
+
+    /** The rule set named by the path, else by the header; null for the default. */
+    private static String ruleSet(String fromPath, String fromHeader) {
+        return fromPath != null ? fromPath : fromHeader;
+    }
+
+    /**
+     * Run batch test cases as a stream, for files too large to hold in memory.
+     *
+     * POST /api/validate/batch/stream
+     * Content-Type: application/x-ndjson
+     * Body: one test case per line, same shape as the entries of "testCases"
+     *
+     * Responds with one TestCaseResult per line as each is evaluated,
+     * followed by a {"summary": {...}} trailer line.
+     */
+    @PostMapping(value = "/validate/batch/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void validateBatchStream(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        streamingBatchService.validateStream(body, response.getOutputStream());
     }
 
     /**
@@ -84,6 +185,42 @@ public class ValidationController {
         return ResponseEntity.ok(info);
     }
 
+    /**
+     * Session mode and pool statistics (pool size, in-use, wait times).
+     */
+    @GetMapping("/engine/stats")
+    public ResponseEntity<Map<String, Object>> engineStats() {
+        return ResponseEntity.ok(validationService.getEngineStats());
+    }
+
+    /**
+     * Which rules of the active rule set run as plain Java in
+     * drools.engine.mode=native, which are left to Drools and why, and how
+     * the translation compared with Drools when the rule set was installed.
+     */
+    @GetMapping("/engine/native")
+    public ResponseEntity<Map<String, Object>> nativeRules() {
+        return ResponseEntity.ok(validationService.getNativeRulesReport());
+    }
+
+    /**
+     * What the sampling profiler has seen (drools.trace.sample-rate): per-rule
+     * match and firing totals and the most recent sampled requests.
+     */
+    @GetMapping("/engine/profile")
+    public ResponseEntity<Map<String, Object>> profile() {
+        return ResponseEntity.ok(ruleProfiler.getProfile());
+    }
+
+    /**
+     * How the startup warmup went: its state, and once done how long it
+     * took and the validate latency of its first and last rounds.
+     */
+    @GetMapping("/engine/warmup")
+    public ResponseEntity<Map<String, Object>> warmup() {
+        return ResponseEntity.ok(startupWarmup.getReport());
+    }
+
     /**
      * Health check endpoint.
      */
@@ -27,6 +27,18 @@ public class BatchValidationResponse {
     public List<TestCaseResult> getResults() { return results; }
     public void setResults(List<TestCaseResult> v) { this.results = v; }
 
+    /**
+     * Switch every result's validationResponse to its lean projection.
+     */
+    public BatchValidationResponse lean() {
+        for (TestCaseResult r : results) {
+            if (r.validationResponse != null) {
+                r.validationResponse = r.validationResponse.lean();
+            }
+        }
+        return this;
+    }
+
     public static class TestCaseResult {
         private String testName;
         private String description;
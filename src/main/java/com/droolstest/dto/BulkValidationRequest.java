@@ -0,0 +1,28 @@
+package com.droolstest.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Request body for POST /api/admin/bulk. Only input is required.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkValidationRequest {
+
+    /** Applicant file (*.csv or NDJSON), relative to drools.bulk.dir. */
+    private String input;
+    /** Result file, relative to drools.bulk.dir; default is the input name plus ".results". */
+    private String output;
+    /** Rows sampled from the input and also run through Drools, to compare. */
+    private int verifyRows = 1000;
+
+    public BulkValidationRequest() {}
+
+    public String getInput() { return input; }
+    public void setInput(String input) { this.input = input; }
+
+    public String getOutput() { return output; }
+    public void setOutput(String output) { this.output = output; }
+
+    public int getVerifyRows() { return verifyRows; }
+    public void setVerifyRows(int verifyRows) { this.verifyRows = verifyRows; }
+}
@@ -0,0 +1,20 @@
+package com.droolstest.dto;
+
+/**
+ * Response body from POST /api/validate/decision: the verdict only.
+ */
+public class DecisionResponse {
+
+    private boolean fullyValid;
+    private String ruleSetVersion;
+
+    public DecisionResponse() {}
+
+    public DecisionResponse(boolean fullyValid, String ruleSetVersion) {
+        this.fullyValid = fullyValid;
+        this.ruleSetVersion = ruleSetVersion;
+    }
+
+    public boolean isFullyValid() { return fullyValid; }
+    public String getRuleSetVersion() { return ruleSetVersion; }
+}
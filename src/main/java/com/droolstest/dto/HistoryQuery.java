@@ -0,0 +1,55 @@
+package com.droolstest.dto;
+
+/**
+ * Query parameters of GET /api/history. Every one is optional; together
+ * they must all match.
+ */
+public class HistoryQuery {
+
+    /** Earliest timestamp, inclusive: an ISO-8601 instant, or a date for its start in UTC. */
+    private String from;
+    /** Latest timestamp, exclusive; same format as from. */
+    private String to;
+    /** Rules that must have passed: comma-separated rule numbers (1-5) or result keys. */
+    private String passed;
+    /** Rules the rule set has that must not have passed; same format as passed. */
+    private String failed;
+    private Boolean fullyValid;
+    /** Named rule set; "default" for the default one. */
+    private String ruleSet;
+    /** Input fingerprint as 16 hex digits, as returned in each record. */
+    private String inputHash;
+    /** Only records after this sequence number: the "next" of the previous page. */
+    private Long after;
+    /** Records to return; matches beyond it are only counted. */
+    private int limit = 100;
+
+    public HistoryQuery() {}
+
+    public String getFrom() { return from; }
+    public void setFrom(String from) { this.from = from; }
+
+    public String getTo() { return to; }
+    public void setTo(String to) { this.to = to; }
+
+    public String getPassed() { return passed; }
+    public void setPassed(String passed) { this.passed = passed; }
+
+    public String getFailed() { return failed; }
+    public void setFailed(String failed) { this.failed = failed; }
+
+    public Boolean getFullyValid() { return fullyValid; }
+    public void setFullyValid(Boolean fullyValid) { this.fullyValid = fullyValid; }
+
+    public String getRuleSet() { return ruleSet; }
+    public void setRuleSet(String ruleSet) { this.ruleSet = ruleSet; }
+
+    public String getInputHash() { return inputHash; }
+    public void setInputHash(String inputHash) { this.inputHash = inputHash; }
+
+    public Long getAfter() { return after; }
+    public void setAfter(Long after) { this.after = after; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,56 @@
+package com.droolstest.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Request body for POST /api/admin/loadtest and /api/admin/loadtest/scaling.
+ * Every field is optional.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class LoadTestRequest {
+
+    /** "synthetic" (generated applicants) or "test-cases" (replay test-cases.json). */
+    private String source = "synthetic";
+    /** Share of synthetic applicants that pass every rule, 0-100. */
+    private int validPercent = 80;
+    /** "validate" or "decide". */
+    private String operation = "validate";
+    /** Named rule set to run; null for the default. */
+    private String ruleSet;
+    /** Worker threads; for a scaling run, the most threads tried. 0 = one per core. */
+    private int concurrency;
+    /** Operations per second across all workers; 0 = as fast as the workers go. */
+    private int targetRate;
+    private int warmupSeconds = 2;
+    private int durationSeconds = 10;
+    private long seed = 42;
+
+    public LoadTestRequest() {}
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public int getValidPercent() { return validPercent; }
+    public void setValidPercent(int validPercent) { this.validPercent = validPercent; }
+
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+
+    public String getRuleSet() { return ruleSet; }
+    public void setRuleSet(String ruleSet) { this.ruleSet = ruleSet; }
+
+    public int getConcurrency() { return concurrency; }
+    public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+
+    public int getTargetRate() { return targetRate; }
+    public void setTargetRate(int targetRate) { this.targetRate = targetRate; }
+
+    public int getWarmupSeconds() { return warmupSeconds; }
+    public void setWarmupSeconds(int warmupSeconds) { this.warmupSeconds = warmupSeconds; }
+
+    public int getDurationSeconds() { return durationSeconds; }
+    public void setDurationSeconds(int durationSeconds) { this.durationSeconds = durationSeconds; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+}
@@ -1,11 +1,18 @@
 package com.droolstest.dto;
 
 import com.droolstest.rules.ApplicantFact;
+import com.droolstest.rules.ResultKeys;
+import com.droolstest.rules.ValidationRule;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.util.*;
 
 /**
  * Response body from POST /api/validate
+ *
+ * The lean projection (see {@link #lean()}) leaves out factAfterRules, the
+ * echo of the whole applicant with its timestamped validationResults, which
+ * is most of the full response's size.
  */
 public class ValidationResponse {
 
@@ -14,53 +21,78 @@ public class ValidationResponse {
     private int totalRules;
     private Map<String, Boolean> ruleResults;
     private List<ValidationDetail> details;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private ApplicantFact factAfterRules;
+    private String ruleSetVersion;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Object> trace;
+
+    /** After a patch of a stateful applicant session: the rules that were re-evaluated. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> reevaluatedRules;
 
     public ValidationResponse() {}
 
     // ── Builder-style static factory ────────────────────────────────────────
 
-    public static ValidationResponse fromFact(ApplicantFact fact, int totalRules) {
+    /**
+     * The response for a fact the rules have run against. Rule count,
+     * verdict and "conditions not met" entries follow the result keys of
+     * the rule set that evaluated it (see ApplicantFact.evaluatedWith).
+     */
+    public static ValidationResponse fromFact(ApplicantFact fact) {
+        ResultKeys keys = fact.resultKeys();
         ValidationResponse resp = new ValidationResponse();
+        resp.rulesMatched = fact.resultCount();
         resp.fullyValid = fact.isFullyValid();
-        resp.rulesMatched = fact.getValidationFlags().size();
-        resp.totalRules = totalRules;
+        resp.totalRules = keys.size();
         resp.ruleResults = fact.getValidationFlags();
         resp.factAfterRules = fact;
 
-        resp.details = new ArrayList<>();
-        for (ApplicantFact.ValidationResult vr : fact.getValidationResults()) {
-            resp.details.add(new ValidationDetail(
-                    vr.getFieldName(), vr.isPassed(), vr.getMessage()));
+        // Recorded results in firing order, then a "conditions not met" entry per key that was NOT recorded
+        List<ApplicantFact.ValidationResult> extra = fact.extraResults();
+        List<ValidationDetail> details = new ArrayList<>(fact.recordedRuleCount() + extra.size() + keys.size());
+        for (int i = 0; i < fact.recordedRuleCount(); i++) {
+            ValidationRule rule = fact.recordedRule(i);
+            details.add(rule.detail(fact.isPassed(rule), fact.resultMessage(rule)));
         }
-
-        // Add entries for rules that did NOT fire
-        List<String> allRuleKeys = List.of(
-                "applicantDataIsValid",
-                "applicantIncomeIsVerified",
-                "applicantAddressIsComplete",
-                "applicantIsEligible",
-                "applicantIdentityIsConfirmed"
-        );
-        List<String> allRuleLabels = List.of(
-                "Personal data validation",
-                "Income verification",
-                "Address completeness",
-                "Eligibility check",
-                "Identity confirmation"
-        );
-        for (int i = 0; i < allRuleKeys.size(); i++) {
-            String key = allRuleKeys.get(i);
-            if (!resp.ruleResults.containsKey(key)) {
-                resp.ruleResults.put(key, false);
-                resp.details.add(new ValidationDetail(
-                        key, false, allRuleLabels.get(i) + " - conditions not met"));
+        for (ApplicantFact.ValidationResult vr : extra) {
+            details.add(new ValidationDetail(vr.getFieldName(), vr.isPassed(), vr.getMessage()));
+        }
+        for (int i = 0; i < ValidationRule.COUNT; i++) {
+            ValidationRule rule = ValidationRule.byIndex(i);
+            if ((keys.knownMask() & rule.getBit()) != 0 && !fact.hasResult(rule)) {
+                details.add(rule.notMetDetail());
             }
         }
+        for (String key : keys.otherKeys()) {
+            if (!fact.hasExtraResult(key)) {
+                details.add(new ValidationDetail(key, false, key + " - conditions not met"));
+            }
+        }
+        resp.details = details;
 
         return resp;
     }
 
+    /**
+     * This response with only the verdict, rule flags and details: the same
+     * fields minus factAfterRules. A rule trace, if any, is kept.
+     */
+    public ValidationResponse lean() {
+        ValidationResponse lean = new ValidationResponse();
+        lean.fullyValid = fullyValid;
+        lean.rulesMatched = rulesMatched;
+        lean.totalRules = totalRules;
+        lean.ruleResults = ruleResults;
+        lean.details = details;
+        lean.ruleSetVersion = ruleSetVersion;
+        lean.trace = trace;
+        lean.reevaluatedRules = reevaluatedRules;
+        return lean;
+    }
+
     // ── Getters ─────────────────────────────────────────────────────────────
 
     public boolean isFullyValid() { return fullyValid; }
@@ -69,6 +101,13 @@ public class ValidationResponse {
     public Map<String, Boolean> getRuleResults() { return ruleResults; }
     public List<ValidationDetail> getDetails() { return details; }
     public ApplicantFact getFactAfterRules() { return factAfterRules; }
+    public String getRuleSetVersion() { return ruleSetVersion; }
+
+    public void setRuleSetVersion(String v) { this.ruleSetVersion = v; }
+    public Map<String, Object> getTrace() { return trace; }
+    public void setTrace(Map<String, Object> v) { this.trace = v; }
+    public List<String> getReevaluatedRules() { return reevaluatedRules; }
+    public void setReevaluatedRules(List<String> v) { this.reevaluatedRules = v; }
 
     // ── Inner detail class ──────────────────────────────────────────────────
 
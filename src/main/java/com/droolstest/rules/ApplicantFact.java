@@ -3,6 +3,8 @@ package com.droolstest.rules;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonProperty.Access;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -12,16 +14,37 @@ import java.util.*;
  * Converted from Oracle Policy Automation (OPA) rule documents.
  *
  * This class is inserted into the Drools working memory and evaluated
- * against the DRL rules. Validation results are collected in the
- * validationResults list and validationFlags map.
+ * against the DRL rules. Rules record their outcome with
+ * addValidationResult(); results for the known rules (see ValidationRule)
+ * are kept as bits in rule index order, so recording a result allocates
+ * nothing. The validationResults list and validationFlags map seen in JSON
+ * are built from those bits only when read.
+ *
+ * Which results the fact needs to be fully valid depends on the rule set
+ * that evaluated it: the service hands the fact that rule set's
+ * ResultKeys with evaluatedWith(). Until then, the five built-in keys.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"validationResults", "validationFlags"})
 public class ApplicantFact {
 
     // ── Validation results storage ──────────────────────────────────────────
 
-    private List<ValidationResult> validationResults = new ArrayList<>();
-    private Map<String, Boolean> validationFlags = new HashMap<>();
+    /** Rules that recorded a result, and which of those passed; bit = ValidationRule ordinal. */
+    private int recordedMask;
+    private int passedMask;
+    /** Rule ordinals in the order they recorded results, 4 bits each. */
+    private long recordOrder;
+    private int recordedCount;
+    /** Per-rule message when the DRL used a non-standard one; allocated on first use. */
+    private String[] messages;
+    /** When the first result was recorded (epoch millis). */
+    private long resultsAt;
+    /** Results under keys outside ValidationRule, e.g. from an uploaded DRL; allocated on first use. */
+    private List<ValidationResult> extraResults;
+    private Map<String, Boolean> extraFlags;
+    /** The result keys of the rule set that evaluated the fact. */
+    private ResultKeys resultKeys = ResultKeys.BUILT_IN;
 
     // ── Personal data fields (Rule 1: applicant data is valid) ──────────────
 
@@ -73,20 +96,330 @@ public class ApplicantFact {
     // ── Validation Result Methods ───────────────────────────────────────────
 
     public void addValidationResult(String field, boolean passed, String message) {
-        this.validationResults.add(new ValidationResult(field, passed, message));
-        this.validationFlags.put(field, passed);
+        if (resultsAt == 0) {
+            resultsAt = System.currentTimeMillis();
+        }
+        ValidationRule rule = ValidationRule.forKey(field);
+        if (rule == null) {
+            addExtraResult(field, passed, message);
+            return;
+        }
+        int bit = rule.getBit();
+        if ((recordedMask & bit) == 0) {
+            recordOrder |= (long) rule.ordinal() << (4 * recordedCount);
+            recordedCount++;
+            recordedMask |= bit;
+        }
+        passedMask = passed ? passedMask | bit : passedMask & ~bit;
+        if (!rule.getPassedMessage().equals(message) || messages != null) {
+            if (messages == null) {
+                messages = new String[ValidationRule.COUNT];
+            }
+            messages[rule.ordinal()] = message;
+        }
+    }
+
+    private void addExtraResult(String field, boolean passed, String message) {
+        if (extraResults == null) {
+            extraResults = new ArrayList<>();
+            extraFlags = new LinkedHashMap<>();
+        }
+        extraResults.add(new ValidationResult(field, passed, message, resultsAt));
+        extraFlags.put(field, passed);
     }
 
+    /**
+     * Results in the order they were recorded. Built on every call.
+     */
+    @JsonProperty(access = Access.READ_ONLY)
     public List<ValidationResult> getValidationResults() {
-        return this.validationResults;
+        List<ValidationResult> results = new ArrayList<>(recordedCount + (extraResults == null ? 0 : extraResults.size()));
+        for (int i = 0; i < recordedCount; i++) {
+            ValidationRule rule = recordedRule(i);
+            results.add(new ValidationResult(rule.getKey(), isPassed(rule), resultMessage(rule), resultsAt));
+        }
+        if (extraResults != null) {
+            results.addAll(extraResults);
+        }
+        return results;
     }
 
+    /**
+     * True when every result key of the rule set has a passing result, and
+     * no result recorded under any key failed.
+     */
     public boolean isFullyValid() {
-        return this.validationFlags.values().stream().allMatch(v -> v);
+        int known = resultKeys.knownMask();
+        if ((recordedMask & known) != known || (recordedMask & ~passedMask) != 0) {
+            return false;
+        }
+        if (extraFlags == null) {
+            return resultKeys.otherKeys().isEmpty();
+        }
+        if (extraFlags.containsValue(false)) {
+            return false;
+        }
+        for (String key : resultKeys.otherKeys()) {
+            if (!extraFlags.containsKey(key)) {
+                return false;
+            }
+        }
+        return true;
     }
 
+    /**
+     * Rule key to passed, for every result key of the rule set (false when
+     * its rule did not fire) and any other key a result was recorded under.
+     */
+    @JsonProperty(access = Access.READ_ONLY)
     public Map<String, Boolean> getValidationFlags() {
-        return this.validationFlags;
+        Map<String, Boolean> extra = extraFlags;
+        if (!resultKeys.otherKeys().isEmpty()) {
+            extra = new LinkedHashMap<>();
+            for (String key : resultKeys.otherKeys()) {
+                extra.put(key, extraFlags != null && Boolean.TRUE.equals(extraFlags.get(key)));
+            }
+            if (extraFlags != null) {
+                extraFlags.forEach(extra::putIfAbsent);
+            }
+        }
+        return new RuleResultsMap(recordedMask & passedMask, resultKeys.knownMask() | recordedMask, extra);
+    }
+
+    /** Note the result keys of the rule set evaluating this fact. */
+    public void evaluatedWith(ResultKeys keys) {
+        this.resultKeys = keys;
+    }
+
+    public ResultKeys resultKeys() { return resultKeys; }
+
+    // ── Result accessors (rule index based, no allocation) ──────────────────
+
+    /** Number of results recorded, including keys outside ValidationRule. */
+    public int resultCount() {
+        return recordedCount + (extraResults == null ? 0 : extraResults.size());
+    }
+
+    /** Number of known rules that recorded a result. */
+    public int recordedRuleCount() { return recordedCount; }
+
+    /** The i-th known rule to record a result. */
+    public ValidationRule recordedRule(int i) {
+        return ValidationRule.byIndex((int) (recordOrder >>> (4 * i)) & 0xf);
+    }
+
+    public boolean hasResult(ValidationRule rule) { return (recordedMask & rule.getBit()) != 0; }
+    public boolean isPassed(ValidationRule rule) { return (passedMask & rule.getBit()) != 0; }
+    public int recordedMask() { return recordedMask; }
+    public int passedMask() { return recordedMask & passedMask; }
+
+    public String resultMessage(ValidationRule rule) {
+        String message = messages == null ? null : messages[rule.ordinal()];
+        return message != null ? message : rule.getPassedMessage();
+    }
+
+    /** Whether a result was recorded under {@code key}, a key outside ValidationRule. */
+    public boolean hasExtraResult(String key) {
+        return extraFlags != null && extraFlags.containsKey(key);
+    }
+
+    /** Results under keys outside ValidationRule, in recording order; empty if none. */
+    public List<ValidationResult> extraResults() {
+        return extraResults == null ? List.of() : extraResults;
+    }
+
+    /**
+     * Forget the result recorded under {@code key}, and for a known rule its
+     * conclusion flag too, as if the rule had never fired. For re-evaluating
+     * a rule in a session that keeps the fact between evaluations.
+     */
+    public void clearResult(String key) {
+        ValidationRule rule = ValidationRule.forKey(key);
+        if (rule == null) {
+            if (extraResults != null) {
+                extraResults.removeIf(r -> r.getFieldName().equals(key));
+                extraFlags.remove(key);
+            }
+            return;
+        }
+        int bit = rule.getBit();
+        if ((recordedMask & bit) == 0) {
+            return;
+        }
+        long order = 0;
+        int count = 0;
+        for (int i = 0; i < recordedCount; i++) {
+            long ordinal = (recordOrder >>> (4 * i)) & 0xf;
+            if (ordinal != rule.ordinal()) {
+                order |= ordinal << (4 * count++);
+            }
+        }
+        recordOrder = order;
+        recordedCount = count;
+        recordedMask &= ~bit;
+        passedMask &= ~bit;
+        if (messages != null) {
+            messages[rule.ordinal()] = null;
+        }
+        switch (rule) {
+            case DATA_IS_VALID -> applicantDataIsValid = false;
+            case INCOME_IS_VERIFIED -> applicantIncomeIsVerified = false;
+            case ADDRESS_IS_COMPLETE -> applicantAddressIsComplete = false;
+            case IS_ELIGIBLE -> applicantIsEligible = false;
+            case IDENTITY_IS_CONFIRMED -> applicantIdentityIsConfirmed = false;
+        }
+    }
+
+    /** Forget every recorded result and conclusion flag. */
+    public void clearResults() {
+        recordedMask = 0;
+        passedMask = 0;
+        recordOrder = 0;
+        recordedCount = 0;
+        messages = null;
+        resultsAt = 0;
+        extraResults = null;
+        extraFlags = null;
+        applicantDataIsValid = false;
+        applicantIncomeIsVerified = false;
+        applicantAddressIsComplete = false;
+        applicantIsEligible = false;
+        applicantIdentityIsConfirmed = false;
+    }
+
+    /**
+     * Copy another fact's recorded results and conclusion flags onto this
+     * one, as if the rules had just fired against it.
+     */
+    public void copyResultsFrom(ApplicantFact other) {
+        recordedMask = other.recordedMask;
+        passedMask = other.passedMask;
+        recordOrder = other.recordOrder;
+        recordedCount = other.recordedCount;
+        messages = other.messages == null ? null : other.messages.clone();
+        resultsAt = other.resultsAt == 0 ? 0 : System.currentTimeMillis();
+        resultKeys = other.resultKeys;
+        extraResults = null;
+        extraFlags = null;
+        for (ValidationResult r : other.extraResults()) {
+            addExtraResult(r.getFieldName(), r.isPassed(), r.getMessage());
+        }
+        applicantDataIsValid = other.applicantDataIsValid;
+        applicantIncomeIsVerified = other.applicantIncomeIsVerified;
+        applicantAddressIsComplete = other.applicantAddressIsComplete;
+        applicantIsEligible = other.applicantIsEligible;
+        applicantIdentityIsConfirmed = other.applicantIdentityIsConfirmed;
+    }
+
+    // ── Input identity ──────────────────────────────────────────────────────
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * 64-bit hash of the input fields only; results and conclusion flags are
+     * ignored. Values that compare equal hash equally: income is hashed with
+     * trailing zeros stripped (50000 == 50000.00) and the date of birth by
+     * its epoch millis.
+     */
+    public long inputFingerprint() {
+        long h = FNV_OFFSET;
+        h = mix(h, applicantFirstName);
+        h = mix(h, applicantLastName);
+        h = mix(h, applicantDateOfBirth == null ? null : applicantDateOfBirth.getTime());
+        h = mix(h, applicantSocialSecurityNumber);
+        h = mix(h, applicantAnnualIncome == null ? null
+                : applicantAnnualIncome.stripTrailingZeros().toPlainString());
+        h = mix(h, applicantEmploymentStatus);
+        h = mix(h, applicantEmployerName);
+        h = mix(h, applicantStreetAddress);
+        h = mix(h, applicantCity);
+        h = mix(h, applicantState);
+        h = mix(h, applicantZipCode);
+        h = mix(h, applicantAge == null ? null : (long) applicantAge);
+        h = mix(h, applicantCreditScore == null ? null : (long) applicantCreditScore);
+        h = mix(h, applicantDriversLicenseNumber);
+        h = mix(h, applicantPassportNumber);
+        h = mix(h, applicantStateIdNumber);
+        // Final avalanche (MurmurHash3 fmix64) so every input bit reaches every output bit
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * True if both facts have the same input fields, with the same
+     * equivalences as {@link #inputFingerprint()}.
+     */
+    public boolean sameInputAs(ApplicantFact other) {
+        return Objects.equals(applicantFirstName, other.applicantFirstName)
+                && Objects.equals(applicantLastName, other.applicantLastName)
+                && Objects.equals(applicantDateOfBirth, other.applicantDateOfBirth)
+                && Objects.equals(applicantSocialSecurityNumber, other.applicantSocialSecurityNumber)
+                && (applicantAnnualIncome == null ? other.applicantAnnualIncome == null
+                    : other.applicantAnnualIncome != null
+                      && applicantAnnualIncome.compareTo(other.applicantAnnualIncome) == 0)
+                && Objects.equals(applicantEmploymentStatus, other.applicantEmploymentStatus)
+                && Objects.equals(applicantEmployerName, other.applicantEmployerName)
+                && Objects.equals(applicantStreetAddress, other.applicantStreetAddress)
+                && Objects.equals(applicantCity, other.applicantCity)
+                && Objects.equals(applicantState, other.applicantState)
+                && Objects.equals(applicantZipCode, other.applicantZipCode)
+                && Objects.equals(applicantAge, other.applicantAge)
+                && Objects.equals(applicantCreditScore, other.applicantCreditScore)
+                && Objects.equals(applicantDriversLicenseNumber, other.applicantDriversLicenseNumber)
+                && Objects.equals(applicantPassportNumber, other.applicantPassportNumber)
+                && Objects.equals(applicantStateIdNumber, other.applicantStateIdNumber);
+    }
+
+    /**
+     * A new fact carrying only this fact's input fields.
+     */
+    public ApplicantFact copyInput() {
+        ApplicantFact copy = new ApplicantFact();
+        copy.applicantFirstName = applicantFirstName;
+        copy.applicantLastName = applicantLastName;
+        copy.applicantDateOfBirth = applicantDateOfBirth == null ? null : new Date(applicantDateOfBirth.getTime());
+        copy.applicantSocialSecurityNumber = applicantSocialSecurityNumber;
+        copy.applicantAnnualIncome = applicantAnnualIncome;
+        copy.applicantEmploymentStatus = applicantEmploymentStatus;
+        copy.applicantEmployerName = applicantEmployerName;
+        copy.applicantStreetAddress = applicantStreetAddress;
+        copy.applicantCity = applicantCity;
+        copy.applicantState = applicantState;
+        copy.applicantZipCode = applicantZipCode;
+        copy.applicantAge = applicantAge;
+        copy.applicantCreditScore = applicantCreditScore;
+        copy.applicantDriversLicenseNumber = applicantDriversLicenseNumber;
+        copy.applicantPassportNumber = applicantPassportNumber;
+        copy.applicantStateIdNumber = applicantStateIdNumber;
+        return copy;
+    }
+
+    private static long mix(long h, String s) {
+        if (s == null) {
+            return (h ^ 0xff) * FNV_PRIME;
+        }
+        h = (h ^ s.length()) * FNV_PRIME;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    private static long mix(long h, Long v) {
+        if (v == null) {
+            return (h ^ 0xff) * FNV_PRIME;
+        }
+        long x = v;
+        for (int i = 0; i < 8; i++) {
+            h = (h ^ (x & 0xff)) * FNV_PRIME;
+            x >>>= 8;
+        }
+        return h;
     }
 
     // ── Personal data getters/setters ───────────────────────────────────────
@@ -175,10 +508,14 @@ public class ApplicantFact {
         public ValidationResult() {}
 
         public ValidationResult(String fieldName, boolean passed, String message) {
+            this(fieldName, passed, message, System.currentTimeMillis());
+        }
+
+        public ValidationResult(String fieldName, boolean passed, String message, long timestamp) {
             this.fieldName = fieldName;
             this.passed = passed;
             this.message = message;
-            this.timestamp = new Date();
+            this.timestamp = new Date(timestamp);
         }
 
         public String getFieldName() { return fieldName; }
@@ -0,0 +1,67 @@
+package com.droolstest.rules;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The result keys a rule set records with ApplicantFact.addValidationResult(),
+ * as found in its DRL consequences (see ResultKeyAnalyzer).
+ *
+ * An applicant is fully valid when it has a passing result under every one
+ * of them and no failing result under any key. The rule results of a
+ * response list these keys, false for those that did not fire. The bundled
+ * rule set records exactly the five ValidationRule keys ({@link #BUILT_IN});
+ * named and uploaded rule sets may record some of them, others, or both.
+ */
+public final class ResultKeys {
+
+    /** The five ValidationRule keys and nothing else. */
+    public static final ResultKeys BUILT_IN = new ResultKeys(ValidationRule.ALL_MASK, List.of());
+
+    /** ValidationRule bits of the known keys among them. */
+    private final int knownMask;
+    /** Keys outside ValidationRule, in the order the DRL records them. */
+    private final List<String> otherKeys;
+
+    private ResultKeys(int knownMask, List<String> otherKeys) {
+        this.knownMask = knownMask;
+        this.otherKeys = otherKeys;
+    }
+
+    public static ResultKeys of(Collection<String> keys) {
+        int mask = 0;
+        List<String> other = new ArrayList<>();
+        for (String key : keys) {
+            ValidationRule rule = ValidationRule.forKey(key);
+            if (rule != null) {
+                mask |= rule.getBit();
+            } else if (!other.contains(key)) {
+                other.add(key);
+            }
+        }
+        return mask == ValidationRule.ALL_MASK && other.isEmpty() ? BUILT_IN : new ResultKeys(mask, List.copyOf(other));
+    }
+
+    /** Whether these are exactly the five ValidationRule keys. */
+    public boolean isBuiltIn() { return this == BUILT_IN; }
+    public int knownMask() { return knownMask; }
+    public List<String> otherKeys() { return otherKeys; }
+
+    /** Number of keys; a response's totalRules. */
+    public int size() {
+        return Integer.bitCount(knownMask) + otherKeys.size();
+    }
+
+    /** Every key, ValidationRule keys first in rule index order. */
+    public List<String> getKeys() {
+        List<String> keys = new ArrayList<>(size());
+        for (int i = 0; i < ValidationRule.COUNT; i++) {
+            if ((knownMask & (1 << i)) != 0) {
+                keys.add(ValidationRule.byIndex(i).getKey());
+            }
+        }
+        keys.addAll(otherKeys);
+        return keys;
+    }
+}
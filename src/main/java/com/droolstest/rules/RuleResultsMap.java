@@ -0,0 +1,106 @@
+package com.droolstest.rules;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only rule key to passed map over ApplicantFact's result bits.
+ *
+ * The known rules of the rule set (or that recorded a result) are present,
+ * in rule index order: true if they fired and passed, false otherwise.
+ * Results recorded under other keys (e.g. from a named rule set) follow. Iterating hands out shared, precomputed entries,
+ * so serializing it allocates nothing per rule.
+ */
+public final class RuleResultsMap extends AbstractMap<String, Boolean> {
+
+    private final int passed;
+    /** The known rules present in the map. */
+    private final int present;
+    private final Map<String, Boolean> extra;
+
+    RuleResultsMap(int passed, int present, Map<String, Boolean> extra) {
+        this.passed = passed;
+        this.present = present;
+        this.extra = extra;
+    }
+
+    @Override
+    public Boolean get(Object key) {
+        if (key instanceof String k) {
+            ValidationRule rule = ValidationRule.forKey(k);
+            if (rule != null && (present & rule.getBit()) != 0) {
+                return (passed & rule.getBit()) != 0;
+            }
+        }
+        return extra == null ? null : extra.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (key instanceof String k) {
+            ValidationRule rule = ValidationRule.forKey(k);
+            if (rule != null && (present & rule.getBit()) != 0) {
+                return true;
+            }
+        }
+        return extra != null && extra.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return Integer.bitCount(present) + (extra == null ? 0 : extra.size());
+    }
+
+    @Override
+    public Set<Entry<String, Boolean>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Boolean>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return RuleResultsMap.this.size();
+            }
+        };
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Boolean>> {
+        private int next;
+        private Iterator<Entry<String, Boolean>> extraEntries;
+
+        @Override
+        public boolean hasNext() {
+            while (next < ValidationRule.COUNT && (present & (1 << next)) == 0) {
+                next++;
+            }
+            if (next < ValidationRule.COUNT) {
+                return true;
+            }
+            if (extra == null) {
+                return false;
+            }
+            if (extraEntries == null) {
+                extraEntries = extra.entrySet().iterator();
+            }
+            return extraEntries.hasNext();
+        }
+
+        @Override
+        public Entry<String, Boolean> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (next < ValidationRule.COUNT) {
+                ValidationRule rule = ValidationRule.byIndex(next++);
+                return (passed & rule.getBit()) != 0 ? rule.trueEntry : rule.falseEntry;
+            }
+            return extraEntries.next();
+        }
+    }
+}
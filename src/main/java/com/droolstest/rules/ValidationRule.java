@@ -0,0 +1,110 @@
+package com.droolstest.rules;
+
+import com.droolstest.dto.ValidationResponse.ValidationDetail;
+
+import java.util.Map;
+
+/**
+ * The rules in applicant-validation.drl, in a fixed index order.
+ *
+ * ApplicantFact records results as bits indexed by {@link #ordinal()}, and
+ * everything a response needs per rule (labels, messages, the "conditions
+ * not met" detail) is computed once here instead of on every request.
+ */
+public enum ValidationRule {
+
+    DATA_IS_VALID("applicantDataIsValid", "Personal data validation",
+            "the applicant data is valid"),
+    INCOME_IS_VERIFIED("applicantIncomeIsVerified", "Income verification",
+            "the applicant income is verified"),
+    ADDRESS_IS_COMPLETE("applicantAddressIsComplete", "Address completeness",
+            "the applicant address is complete"),
+    IS_ELIGIBLE("applicantIsEligible", "Eligibility check",
+            "the applicant is eligible"),
+    IDENTITY_IS_CONFIRMED("applicantIdentityIsConfirmed", "Identity confirmation",
+            "the applicant identity is confirmed");
+
+    private static final ValidationRule[] ALL = values();
+
+    public static final int COUNT = ALL.length;
+
+    /** Bit mask with every rule's bit set. */
+    public static final int ALL_MASK = (1 << COUNT) - 1;
+
+    private final String key;
+    private final String label;
+    private final String passedMessage;
+    private final String ruleName;
+    private final int bit;
+    private final ValidationDetail passedDetail;
+    private final ValidationDetail notMetDetail;
+    final Map.Entry<String, Boolean> trueEntry;
+    final Map.Entry<String, Boolean> falseEntry;
+
+    ValidationRule(String key, String label, String passedMessage) {
+        this.key = key;
+        this.label = label;
+        this.passedMessage = passedMessage;
+        this.ruleName = passedMessage + " - Rule " + (ordinal() + 1);
+        this.bit = 1 << ordinal();
+        this.passedDetail = new ValidationDetail(key, true, passedMessage);
+        this.notMetDetail = new ValidationDetail(key, false, label + " - conditions not met");
+        this.trueEntry = Map.entry(key, Boolean.TRUE);
+        this.falseEntry = Map.entry(key, Boolean.FALSE);
+    }
+
+    /** The result key the DRL passes to addValidationResult, e.g. "applicantIsEligible". */
+    public String getKey() { return key; }
+    public String getLabel() { return label; }
+    /** The message the DRL records when the rule fires. */
+    public String getPassedMessage() { return passedMessage; }
+    /** The rule's name in the DRL, e.g. "the applicant is eligible - Rule 4". */
+    public String getRuleName() { return ruleName; }
+    public int getBit() { return bit; }
+
+    /** Response detail for a rule that never fired. */
+    public ValidationDetail notMetDetail() { return notMetDetail; }
+
+    /**
+     * Response detail for a recorded result; shared unless the DRL used a
+     * different message than the standard one.
+     */
+    public ValidationDetail detail(boolean passed, String message) {
+        if (passed && passedMessage.equals(message)) {
+            return passedDetail;
+        }
+        return new ValidationDetail(key, passed, message);
+    }
+
+    public static ValidationRule byIndex(int index) {
+        return ALL[index];
+    }
+
+    /**
+     * The rule for a result key, or null for a key that is not one of the
+     * five known rules (e.g. from an uploaded DRL).
+     */
+    public static ValidationRule forKey(String key) {
+        switch (key) {
+            case "applicantDataIsValid": return DATA_IS_VALID;
+            case "applicantIncomeIsVerified": return INCOME_IS_VERIFIED;
+            case "applicantAddressIsComplete": return ADDRESS_IS_COMPLETE;
+            case "applicantIsEligible": return IS_ELIGIBLE;
+            case "applicantIdentityIsConfirmed": return IDENTITY_IS_CONFIRMED;
+            default: return null;
+        }
+    }
+
+    /**
+     * The rule for a DRL rule name, or null for a rule that is not one of
+     * the five known rules.
+     */
+    public static ValidationRule forRuleName(String name) {
+        for (ValidationRule rule : ALL) {
+            if (rule.ruleName.equals(name)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+}
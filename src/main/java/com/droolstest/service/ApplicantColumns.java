@@ -0,0 +1,195 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ApplicantFact;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applicant input fields stored column by column, for bulk evaluation.
+ *
+ * Every field has a presence bitmap, one bit per row in 64-row words: set
+ * when the value is there, which for text fields also means not empty,
+ * since every rule treats an empty string like a missing one. Text and
+ * dates are kept as nothing more than that bit. Age and credit score are
+ * int columns and annual income a long column of cents, each meaningful
+ * only where its presence bit is set. A row that could not be read has
+ * no presence bits and is marked in a bitmap of its own.
+ *
+ * Income is rounded up to whole cents. For a comparison against a whole
+ * amount, as in "income > 25000", that gives the same answer as the exact
+ * value: 25000.001 rounds up to 2500001 cents and is still above 2500000.
+ */
+public final class ApplicantColumns {
+
+    /** Applicant input fields, by their JSON property name. */
+    public enum Field {
+        FIRST_NAME("applicantFirstName"),
+        LAST_NAME("applicantLastName"),
+        DATE_OF_BIRTH("applicantDateOfBirth"),
+        SOCIAL_SECURITY_NUMBER("applicantSocialSecurityNumber"),
+        ANNUAL_INCOME("applicantAnnualIncome"),
+        EMPLOYMENT_STATUS("applicantEmploymentStatus"),
+        EMPLOYER_NAME("applicantEmployerName"),
+        STREET_ADDRESS("applicantStreetAddress"),
+        CITY("applicantCity"),
+        STATE("applicantState"),
+        ZIP_CODE("applicantZipCode"),
+        AGE("applicantAge"),
+        CREDIT_SCORE("applicantCreditScore"),
+        DRIVERS_LICENSE_NUMBER("applicantDriversLicenseNumber"),
+        PASSPORT_NUMBER("applicantPassportNumber"),
+        STATE_ID_NUMBER("applicantStateIdNumber");
+
+        static final int COUNT = values().length;
+        private static final Map<String, Field> BY_NAME = new HashMap<>();
+
+        static {
+            for (Field field : values()) {
+                BY_NAME.put(field.jsonName, field);
+            }
+        }
+
+        private final String jsonName;
+        final int bit;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+            this.bit = 1 << ordinal();
+        }
+
+        public String getJsonName() { return jsonName; }
+
+        /** The field with this JSON property name, or null. */
+        public static Field forJsonName(String name) {
+            return BY_NAME.get(name);
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private int size;
+    private int capacity;
+    private final long[][] present = new long[Field.COUNT][];
+    private long[] unreadable;
+    private int[] age;
+    private int[] creditScore;
+    private long[] incomeCents;
+
+    public ApplicantColumns() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /** The input fields of {@code facts}, one row each, in order. */
+    public static ApplicantColumns of(List<ApplicantFact> facts) {
+        ApplicantColumns columns = new ApplicantColumns();
+        for (ApplicantFact f : facts) {
+            int mask = 0;
+            mask |= text(f.getApplicantFirstName(), Field.FIRST_NAME);
+            mask |= text(f.getApplicantLastName(), Field.LAST_NAME);
+            mask |= f.getApplicantDateOfBirth() != null ? Field.DATE_OF_BIRTH.bit : 0;
+            mask |= text(f.getApplicantSocialSecurityNumber(), Field.SOCIAL_SECURITY_NUMBER);
+            mask |= f.getApplicantAnnualIncome() != null ? Field.ANNUAL_INCOME.bit : 0;
+            mask |= text(f.getApplicantEmploymentStatus(), Field.EMPLOYMENT_STATUS);
+            mask |= text(f.getApplicantEmployerName(), Field.EMPLOYER_NAME);
+            mask |= text(f.getApplicantStreetAddress(), Field.STREET_ADDRESS);
+            mask |= text(f.getApplicantCity(), Field.CITY);
+            mask |= text(f.getApplicantState(), Field.STATE);
+            mask |= text(f.getApplicantZipCode(), Field.ZIP_CODE);
+            mask |= f.getApplicantAge() != null ? Field.AGE.bit : 0;
+            mask |= f.getApplicantCreditScore() != null ? Field.CREDIT_SCORE.bit : 0;
+            mask |= text(f.getApplicantDriversLicenseNumber(), Field.DRIVERS_LICENSE_NUMBER);
+            mask |= text(f.getApplicantPassportNumber(), Field.PASSPORT_NUMBER);
+            mask |= text(f.getApplicantStateIdNumber(), Field.STATE_ID_NUMBER);
+            columns.add(mask,
+                    f.getApplicantAge() == null ? 0 : f.getApplicantAge(),
+                    f.getApplicantCreditScore() == null ? 0 : f.getApplicantCreditScore(),
+                    f.getApplicantAnnualIncome() == null ? 0 : cents(f.getApplicantAnnualIncome()));
+        }
+        return columns;
+    }
+
+    private static int text(String value, Field field) {
+        return value != null && !value.isEmpty() ? field.bit : 0;
+    }
+
+    /** {@code amount} in cents, rounded up; saturates beyond the range of a long. */
+    static long cents(BigDecimal amount) {
+        BigDecimal cents = amount.movePointRight(2).setScale(0, RoundingMode.CEILING);
+        if (cents.unscaledValue().bitLength() > 63) {
+            return cents.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+        return cents.longValue();
+    }
+
+    // ── Appending ───────────────────────────────────────────────────────────
+
+    /**
+     * Append a row.
+     *
+     * @param presentMask the {@link Field} bits of the fields that are present
+     */
+    public void add(int presentMask, int age, int creditScore, long incomeCents) {
+        int row = nextRow();
+        int word = row >>> 6;
+        long bit = 1L << row;
+        for (int m = presentMask; m != 0; m &= m - 1) {
+            present[Integer.numberOfTrailingZeros(m)][word] |= bit;
+        }
+        this.age[row] = age;
+        this.creditScore[row] = creditScore;
+        this.incomeCents[row] = incomeCents;
+    }
+
+    /** Append a row that could not be read; it has no fields and fails every rule. */
+    public void addUnreadable() {
+        int row = nextRow();
+        unreadable[row >>> 6] |= 1L << row;
+    }
+
+    private int nextRow() {
+        if (size == capacity) {
+            if (capacity > Integer.MAX_VALUE / 2) {
+                throw new IllegalStateException("Too many rows for one bulk run: " + size);
+            }
+            allocate(capacity * 2);
+        }
+        return size++;
+    }
+
+    private void allocate(int rows) {
+        int words = (rows + 63) >>> 6;
+        for (int f = 0; f < Field.COUNT; f++) {
+            present[f] = present[f] == null ? new long[words] : Arrays.copyOf(present[f], words);
+        }
+        unreadable = unreadable == null ? new long[words] : Arrays.copyOf(unreadable, words);
+        age = age == null ? new int[rows] : Arrays.copyOf(age, rows);
+        creditScore = creditScore == null ? new int[rows] : Arrays.copyOf(creditScore, rows);
+        incomeCents = incomeCents == null ? new long[rows] : Arrays.copyOf(incomeCents, rows);
+        capacity = rows;
+    }
+
+    // ── Column access for BulkRuleEvaluator ─────────────────────────────────
+
+    public int size() { return size; }
+
+    /** Number of 64-row words in use. */
+    int words() { return (size + 63) >>> 6; }
+
+    long[] present(Field field) { return present[field.ordinal()]; }
+    long[] unreadable() { return unreadable; }
+    int[] age() { return age; }
+    int[] creditScore() { return creditScore; }
+    long[] incomeCents() { return incomeCents; }
+
+    /** Bytes held by the columns, including unused capacity. */
+    public long footprintBytes() {
+        long words = (capacity + 63) >>> 6;
+        return (Field.COUNT + 1) * words * Long.BYTES
+                + (long) capacity * (Integer.BYTES * 2 + Long.BYTES);
+    }
+}
@@ -0,0 +1,337 @@
+package com.droolstest.service;
+
+import com.droolstest.service.ApplicantColumns.Field;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reads an applicant file into ApplicantColumns, one row per record.
+ *
+ * Two formats, told apart by the file name:
+ *
+ *   *.csv      a header line of applicant JSON property names, then one
+ *              applicant per line; cells may be quoted ("a, b" and "" for
+ *              a quote), an empty cell is a missing value, and columns
+ *              that are not applicant fields are ignored
+ *   otherwise  NDJSON: one applicant object per line, bare or wrapped
+ *              as {"applicant": {...}}; blank lines are skipped
+ *
+ * Values are read as Jackson would bind them to ApplicantFact, without
+ * building one: text fields are present unless null or empty (a number or
+ * boolean reads as its text), ages and credit scores are ints, income
+ * is any decimal, and numbers may also come as strings. A date of birth
+ * is only checked for being there, as the rules only check that; it is
+ * not parsed. A line that does not read (malformed JSON, a CSV line with
+ * an open quote, an object or array for a value, a number that does not
+ * parse or fit) becomes an unreadable row rather than stopping the run.
+ *
+ * Along the way a seeded reservoir sample of the lines is kept, so the
+ * caller can run the same records through Drools and compare.
+ */
+final class ApplicantColumnsReader {
+
+    /** A sampled input line and the row it became. */
+    record SampledRow(int row, String line) {}
+
+    private final JsonFactory jsonFactory;
+    private final int sampleSize;
+    private final Random random;
+    private final List<SampledRow> sample = new ArrayList<>();
+    private final boolean csv;
+
+    private Field[] csvColumns;
+    private String[] csvHeader;
+
+    // The row being read; committed to the columns once the whole line has read
+    private int mask;
+    private int age;
+    private int creditScore;
+    private long incomeCents;
+
+    ApplicantColumnsReader(JsonFactory jsonFactory, Path file, int sampleSize, long seed) {
+        this.jsonFactory = jsonFactory;
+        this.sampleSize = Math.max(0, sampleSize);
+        this.random = new Random(seed);
+        this.csv = file.getFileName().toString().toLowerCase().endsWith(".csv");
+    }
+
+    String format() {
+        return csv ? "csv" : "ndjson";
+    }
+
+    ApplicantColumns read(Path file) throws IOException {
+        ApplicantColumns columns = new ApplicantColumns();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (csv && !readHeader(in.readLine())) {
+                throw new IllegalArgumentException("The CSV header names none of the applicant fields: " + file);
+            }
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                boolean ok;
+                try {
+                    ok = csv ? readCsv(line) : readJson(line);
+                } catch (IOException | RuntimeException e) {
+                    ok = false;
+                }
+                if (ok) {
+                    columns.add(mask, age, creditScore, incomeCents);
+                } else {
+                    columns.addUnreadable();
+                }
+                offer(columns.size() - 1, line);
+            }
+        }
+        return columns;
+    }
+
+    /** Algorithm R: every line ends up in the sample with the same probability. */
+    private void offer(int row, String line) {
+        if (sample.size() < sampleSize) {
+            sample.add(new SampledRow(row, line));
+        } else if (sampleSize > 0) {
+            int slot = random.nextInt(row + 1);
+            if (slot < sampleSize) {
+                sample.set(slot, new SampledRow(row, line));
+            }
+        }
+    }
+
+    List<SampledRow> sample() {
+        return sample;
+    }
+
+    /**
+     * The applicant of a sampled line as a JSON tree, for binding to
+     * ApplicantFact the way a request would be.
+     *
+     * @throws IOException if the line is not well-formed
+     */
+    JsonNode applicantNode(SampledRow sampled, ObjectMapper mapper) throws IOException {
+        if (!csv) {
+            JsonNode node = mapper.readTree(sampled.line());
+            JsonNode wrapped = node == null ? null : node.get("applicant");
+            return wrapped != null && wrapped.isObject() ? wrapped : node;
+        }
+        List<String> cells = splitCsv(sampled.line());
+        if (cells == null) {
+            throw new IOException("Unterminated quote");
+        }
+        ObjectNode node = mapper.createObjectNode();
+        for (int i = 0; i < cells.size() && i < csvHeader.length; i++) {
+            if (csvColumns[i] != null && !cells.get(i).isEmpty()) {
+                node.put(csvHeader[i], cells.get(i));
+            }
+        }
+        return node;
+    }
+
+    private void reset() {
+        mask = 0;
+        age = 0;
+        creditScore = 0;
+        incomeCents = 0;
+    }
+
+    // ── NDJSON ──────────────────────────────────────────────────────────────
+
+    private boolean readJson(String line) throws IOException {
+        reset();
+        try (JsonParser parser = jsonFactory.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT || !readObject(parser, true)) {
+                return false;
+            }
+            return parser.nextToken() == null;
+        }
+    }
+
+    private boolean readObject(JsonParser parser, boolean outer) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (outer && "applicant".equals(name) && token == JsonToken.START_OBJECT) {
+                reset();
+                return readObject(parser, false) && skipRest(parser);
+            }
+            Field field = Field.forJsonName(name);
+            if (field == null) {
+                parser.skipChildren();
+            } else if (!readValue(parser, token, field)) {
+                return false;
+            }
+        }
+        return parser.currentToken() == JsonToken.END_OBJECT;
+    }
+
+    /** Skip the fields of the wrapper after "applicant"; the wrapper's own values are not applicant fields. */
+    private static boolean skipRest(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return parser.currentToken() == JsonToken.END_OBJECT;
+    }
+
+    private boolean readValue(JsonParser parser, JsonToken token, Field field) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            mask &= ~field.bit;
+            return true;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return readText(parser.getText(), field);
+        }
+        if (token.isStructStart()) {
+            return false;
+        }
+        switch (field) {
+            case AGE -> age = numberAsInt(parser, token);
+            case CREDIT_SCORE -> creditScore = numberAsInt(parser, token);
+            case ANNUAL_INCOME -> {
+                if (!token.isNumeric()) {
+                    return false;
+                }
+                incomeCents = parser.getNumberType() == JsonParser.NumberType.INT
+                        || parser.getNumberType() == JsonParser.NumberType.LONG
+                        ? centsOf(parser.getLongValue())
+                        : ApplicantColumns.cents(parser.getDecimalValue());
+            }
+            default -> { }  // Text fields take a number or boolean as its text; dates take epoch millis
+        }
+        mask |= field.bit;
+        return true;
+    }
+
+    private static int numberAsInt(JsonParser parser, JsonToken token) throws IOException {
+        if (!token.isNumeric()) {
+            throw new IllegalArgumentException("Not a number: " + token);
+        }
+        return parser.getIntValue();
+    }
+
+    private static long centsOf(long amount) {
+        try {
+            return Math.multiplyExact(amount, 100L);
+        } catch (ArithmeticException e) {
+            return ApplicantColumns.cents(BigDecimal.valueOf(amount));
+        }
+    }
+
+    /** A string value of either format. */
+    private boolean readText(String text, Field field) {
+        switch (field) {
+            case AGE, CREDIT_SCORE, ANNUAL_INCOME -> {
+                String trimmed = text.trim();
+                if (trimmed.isEmpty()) {
+                    mask &= ~field.bit;
+                    return true;
+                }
+                if (field == Field.AGE) {
+                    age = Integer.parseInt(trimmed);
+                } else if (field == Field.CREDIT_SCORE) {
+                    creditScore = Integer.parseInt(trimmed);
+                } else {
+                    incomeCents = ApplicantColumns.cents(new BigDecimal(trimmed));
+                }
+                mask |= field.bit;
+            }
+            default -> {
+                if (text.isEmpty()) {
+                    mask &= ~field.bit;
+                } else {
+                    mask |= field.bit;
+                }
+            }
+        }
+        return true;
+    }
+
+    // ── CSV ─────────────────────────────────────────────────────────────────
+
+    private boolean readHeader(String header) {
+        if (header == null) {
+            return false;
+        }
+        List<String> names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        if (names == null) {
+            return false;
+        }
+        csvHeader = new String[names.size()];
+        csvColumns = new Field[names.size()];
+        boolean any = false;
+        for (int i = 0; i < names.size(); i++) {
+            csvHeader[i] = names.get(i).trim();
+            csvColumns[i] = Field.forJsonName(csvHeader[i]);
+            any |= csvColumns[i] != null;
+        }
+        return any;
+    }
+
+    private boolean readCsv(String line) {
+        reset();
+        List<String> cells = splitCsv(line);
+        if (cells == null) {
+            return false;
+        }
+        for (int i = 0; i < cells.size() && i < csvColumns.length; i++) {
+            Field field = csvColumns[i];
+            if (field != null && !readText(cells.get(i), field)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The cells of one CSV line, or null if a quote is left open. */
+    static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder quoted = null;
+        int start = 0;
+        int i = 0;
+        int n = line.length();
+        while (true) {
+            if (i < n && line.charAt(i) == '"' && i == start) {
+                quoted = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= n) {
+                        return null;
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        quoted.append(c);
+                    } else if (i < n && line.charAt(i) == '"') {
+                        quoted.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+            }
+            while (i < n && line.charAt(i) != ',') {
+                i++;
+            }
+            cells.add(quoted != null ? quoted.toString() : line.substring(start, i));
+            quoted = null;
+            if (i >= n) {
+                return cells;
+            }
+            start = ++i;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ApplicantFact;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Synthetic applicants for the load generator.
+ *
+ * A valid applicant passes all five bundled rules. An invalid one is a
+ * valid applicant with exactly one defect that fails one rule: a missing
+ * or empty field, or a value just across an eligibility boundary. The same
+ * seed always produces the same applicants.
+ */
+final class ApplicantGenerator {
+
+    private static final String[] FIRST_NAMES = {"Jane", "John", "Maria", "Wei", "Aisha", "Luca", "Priya", "Sam"};
+    private static final String[] LAST_NAMES = {"Doe", "Smith", "Garcia", "Chen", "Okafor", "Rossi", "Patel", "Lee"};
+    private static final String[] EMPLOYMENT = {"Full-Time", "Part-Time", "Self-Employed", "Contract"};
+    private static final String[] EMPLOYERS = {"Acme Corp", "Globex", "Initech", "Umbrella", "Hooli"};
+    private static final String[] CITIES = {"Baton Rouge", "Austin", "Denver", "Portland", "Raleigh"};
+    private static final String[] STATES = {"LA", "TX", "CO", "OR", "NC"};
+
+    /** One defect per entry; each fails exactly one rule. */
+    private static final List<Consumer<ApplicantFact>> DEFECTS = List.of(
+            f -> f.setApplicantFirstName(null),
+            f -> f.setApplicantLastName(""),
+            f -> f.setApplicantDateOfBirth(null),
+            f -> f.setApplicantSocialSecurityNumber(""),
+            f -> f.setApplicantEmployerName(null),
+            f -> f.setApplicantEmploymentStatus(""),
+            f -> f.setApplicantZipCode(null),
+            f -> f.setApplicantCity(""),
+            f -> f.setApplicantAge(17),
+            f -> f.setApplicantCreditScore(600),
+            f -> f.setApplicantAnnualIncome(new BigDecimal("25000")),
+            f -> {
+                f.setApplicantDriversLicenseNumber(null);
+                f.setApplicantPassportNumber("");
+                f.setApplicantStateIdNumber(null);
+            });
+
+    private ApplicantGenerator() {}
+
+    /**
+     * {@code count} applicants, {@code validPercent} of them valid, in random order.
+     */
+    static List<ApplicantFact> generate(int count, int validPercent, long seed) {
+        Random random = new Random(seed);
+        List<ApplicantFact> applicants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ApplicantFact fact = valid(random);
+            if (random.nextInt(100) >= validPercent) {
+                DEFECTS.get(random.nextInt(DEFECTS.size())).accept(fact);
+            }
+            applicants.add(fact);
+        }
+        return applicants;
+    }
+
+    private static ApplicantFact valid(Random random) {
+        ApplicantFact fact = new ApplicantFact();
+        fact.setApplicantFirstName(pick(random, FIRST_NAMES));
+        fact.setApplicantLastName(pick(random, LAST_NAMES));
+        int age = 18 + random.nextInt(62);
+        fact.setApplicantDateOfBirth(new Date(System.currentTimeMillis() - (age * 365L + 30) * 86_400_000L));
+        fact.setApplicantSocialSecurityNumber(String.format("%03d-%02d-%04d",
+                100 + random.nextInt(800), 10 + random.nextInt(89), random.nextInt(10_000)));
+
+        fact.setApplicantAnnualIncome(BigDecimal.valueOf(25_001 + random.nextInt(175_000)));
+        fact.setApplicantEmploymentStatus(pick(random, EMPLOYMENT));
+        fact.setApplicantEmployerName(pick(random, EMPLOYERS));
+
+        int place = random.nextInt(CITIES.length);
+        fact.setApplicantStreetAddress((1 + random.nextInt(9_999)) + " Main Street");
+        fact.setApplicantCity(CITIES[place]);
+        fact.setApplicantState(STATES[place]);
+        fact.setApplicantZipCode(String.format("%05d", 10_000 + random.nextInt(89_999)));
+
+        fact.setApplicantAge(age);
+        fact.setApplicantCreditScore(601 + random.nextInt(249));
+
+        // Any one identity document confirms identity
+        switch (random.nextInt(3)) {
+            case 0 -> fact.setApplicantDriversLicenseNumber("D" + (1_000_000 + random.nextInt(9_000_000)));
+            case 1 -> fact.setApplicantPassportNumber("P" + (10_000_000 + random.nextInt(90_000_000)));
+            default -> fact.setApplicantStateIdNumber("S" + (100_000 + random.nextInt(900_000)));
+        }
+        return fact;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,131 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ApplicantFact;
+import com.droolstest.rules.ValidationRule;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A stateful KieSession kept for one applicant between requests, with the
+ * applicant's fact inserted and its rules fired.
+ *
+ * Rules record a pass and never take it back, so before a change is
+ * re-evaluated the results of the rules that react to it are cleared;
+ * those that still match then fire again and record it anew. To know
+ * which results belong to which rule, every firing is watched for the
+ * result keys it records.
+ *
+ * Not thread-safe: ApplicantSessionService locks the session around every use.
+ */
+final class ApplicantSession extends DefaultAgendaEventListener {
+
+    private final String id;
+    private final RuleBase rules;
+    private final KieSession session;
+    private final ApplicantFact fact;
+    private final FactHandle handle;
+    private final Instant createdAt = Instant.now();
+    /** Result keys each rule recorded when it last fired. */
+    private final Map<String, Set<String>> keysByRule = new HashMap<>();
+
+    // Results of the fact when the current consequence started
+    private int recordedBefore;
+    private int passedBefore;
+    private int extraBefore;
+    private volatile long lastUsedNanos = System.nanoTime();
+    private long updates;
+    private boolean closed;
+
+    /** Opens a session on {@code rules}, which the session now holds a reference to. */
+    ApplicantSession(String id, RuleBase rules, ApplicantFact fact) {
+        this.id = id;
+        this.rules = rules;
+        this.fact = fact;
+        fact.evaluatedWith(rules.getResultKeys());
+        this.session = rules.newKieSession();
+        session.addEventListener(this);
+        this.handle = session.insert(fact);
+        session.fireAllRules();
+    }
+
+    // ── Re-evaluation ───────────────────────────────────────────────────────
+
+    /**
+     * Re-evaluate after {@code properties} of the fact were changed in place.
+     *
+     * @param reacting the rules that react to those properties, or null to
+     *                 re-evaluate every rule
+     */
+    void update(Set<String> properties, List<String> reacting) {
+        if (reacting == null) {
+            fact.clearResults();
+            keysByRule.clear();
+            session.update(handle, fact);
+        } else {
+            for (String rule : reacting) {
+                Set<String> keys = keysByRule.remove(rule);
+                if (keys != null) {
+                    keys.forEach(fact::clearResult);
+                }
+            }
+            session.update(handle, fact, properties.toArray(new String[0]));
+        }
+        session.fireAllRules();
+        updates++;
+    }
+
+    @Override
+    public void beforeMatchFired(BeforeMatchFiredEvent event) {
+        recordedBefore = fact.recordedMask();
+        passedBefore = fact.passedMask();
+        extraBefore = fact.extraResults().size();
+    }
+
+    @Override
+    public void afterMatchFired(AfterMatchFiredEvent event) {
+        Set<String> keys = keysByRule.computeIfAbsent(event.getMatch().getRule().getName(), r -> new HashSet<>());
+        int changed = (fact.recordedMask() ^ recordedBefore) | (fact.passedMask() ^ passedBefore);
+        for (int i = 0; i < ValidationRule.COUNT; i++) {
+            if ((changed & (1 << i)) != 0) {
+                keys.add(ValidationRule.byIndex(i).getKey());
+            }
+        }
+        List<ApplicantFact.ValidationResult> extra = fact.extraResults();
+        for (int i = extraBefore; i < extra.size(); i++) {
+            keys.add(extra.get(i).getFieldName());
+        }
+    }
+
+    // ── Lifecycle ───────────────────────────────────────────────────────────
+
+    void touch() {
+        lastUsedNanos = System.nanoTime();
+    }
+
+    /** Dispose the session and release the rule set; idempotent. */
+    void close() {
+        if (!closed) {
+            closed = true;
+            session.dispose();
+            rules.release();
+        }
+    }
+
+    String getId() { return id; }
+    RuleBase getRules() { return rules; }
+    ApplicantFact getFact() { return fact; }
+    Instant getCreatedAt() { return createdAt; }
+    long getLastUsedNanos() { return lastUsedNanos; }
+    long getUpdates() { return updates; }
+    boolean isClosed() { return closed; }
+}
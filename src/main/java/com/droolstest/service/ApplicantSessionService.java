@@ -0,0 +1,378 @@
+package com.droolstest.service;
+
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.rules.ApplicantFact;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stateful, incremental validation: one KieSession per applicant id, kept
+ * between requests so that a correction re-evaluates only the rules that
+ * read the corrected fields.
+ *
+ * open() inserts the applicant into a new session and fires every rule.
+ * patch() then applies a partial update to the fact in place and tells
+ * Drools which properties changed. Drools is property reactive, so only
+ * patterns on those properties are re-evaluated; see RuleReactivity for
+ * how the rules reacting to a change are known, and ApplicantSession for
+ * how their old results are cleared first. If a rule of the set cannot be
+ * analyzed, every patch re-evaluates every rule, still in the session.
+ *
+ * Sessions always run in Drools, whatever drools.session.mode and
+ * drools.engine.mode say. A session not used for
+ * drools.applicant-sessions.idle-timeout-seconds is disposed; so is the
+ * least recently used one when drools.applicant-sessions.max-sessions are
+ * open and another is opened. A session pins the rule set version it
+ * was opened on; once that is no longer the active one, the next patch
+ * moves the applicant to a fresh session on the active version.
+ *
+ * Sessions are kept in access order, least recently used first, so both
+ * kinds of eviction only look at the sessions they dispose. The map is
+ * guarded by its own monitor, which is never held while waiting for a
+ * session's: sessions are closed after it is released.
+ */
+@Service
+public class ApplicantSessionService {
+
+    private static final int MAX_ID_LENGTH = 128;
+
+    private final RuleSetRegistry ruleSets;
+    private final ValidationHistory history;
+    private final ObjectMapper objectMapper;
+    private final long idleTimeoutNanos;
+    private final int maxSessions;
+    private final ScheduledExecutorService janitor;
+    /** Least recently used first; guarded by itself. */
+    private final LinkedHashMap<String, ApplicantSession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Counter evicted;
+    private final Counter moved;
+    private final Timer patchTimer;
+
+    public ApplicantSessionService(RuleSetRegistry ruleSets,
+                                   ValidationHistory history,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${drools.applicant-sessions.idle-timeout-seconds:600}") long idleTimeoutSeconds,
+                                   @Value("${drools.applicant-sessions.max-sessions:10000}") int maxSessions) {
+        if (idleTimeoutSeconds < 1 || maxSessions < 1) {
+            throw new IllegalArgumentException("drools.applicant-sessions.idle-timeout-seconds and max-sessions "
+                    + "must be at least 1");
+        }
+        this.ruleSets = ruleSets;
+        this.history = history;
+        this.objectMapper = objectMapper;
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        this.maxSessions = maxSessions;
+
+        this.janitor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "applicant-session-janitor");
+            t.setDaemon(true);
+            return t;
+        });
+        long sweepSeconds = Math.max(1, Math.min(60, idleTimeoutSeconds / 4));
+        janitor.scheduleWithFixedDelay(this::evictIdle, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+
+        Gauge.builder("drools.applicant.sessions", this, ApplicantSessionService::openCount)
+                .description("Stateful per-applicant sessions open")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("drools.applicant.sessions.evicted")
+                .description("Per-applicant sessions disposed for being idle or the least recently used")
+                .register(meterRegistry);
+        this.moved = Counter.builder("drools.applicant.sessions.moved")
+                .description("Per-applicant sessions re-created on a newer rule set version")
+                .register(meterRegistry);
+        this.patchTimer = Timer.builder("drools.applicant.patch")
+                .description("Time to apply a partial update and re-evaluate the rules reacting to it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validate {@code fact} in a new session kept under {@code id},
+     * replacing any session already there.
+     *
+     * @param ruleSet named rule set, or null for the default
+     * @throws IllegalArgumentException if the id is blank or too long
+     */
+    public ValidationResponse open(String id, String ruleSet, ApplicantFact fact) {
+        checkId(id);
+        fact.clearResults();
+        ApplicantSession session = newSession(id, ruleSets.acquire(ruleSet), fact);
+        ValidationResponse response;
+        synchronized (session) {
+            response = respond(session, null);
+        }
+        record(session, response);
+        List<ApplicantSession> replaced = new ArrayList<>();
+        synchronized (sessions) {
+            ApplicantSession previous = sessions.put(id, session);
+            if (previous != null) {
+                replaced.add(previous);
+            }
+            // Over the limit: the sessions used longest ago go until back under it
+            Iterator<ApplicantSession> oldest = sessions.values().iterator();
+            while (sessions.size() > maxSessions && oldest.hasNext()) {
+                ApplicantSession victim = oldest.next();
+                if (victim != session) {
+                    oldest.remove();
+                    replaced.add(victim);
+                    evicted.increment();
+                }
+            }
+        }
+        replaced.forEach(ApplicantSessionService::close);
+        return response;
+    }
+
+    /**
+     * Apply {@code patch}, an object of applicant fields to new values (null
+     * clears a field), and re-evaluate the rules that read them.
+     *
+     * @return the refreshed response, or null if there is no session for {@code id}
+     * @throws IllegalArgumentException if the patch names anything but
+     *                                  applicant input fields, or a value does not bind
+     */
+    public ValidationResponse patch(String id, JsonNode patch) {
+        Set<String> changed = changedProperties(patch);
+        ApplicantSession session = lookUp(id);
+        if (session == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        synchronized (session) {
+            if (session.isClosed()) {
+                return null; // evicted or replaced while this request waited
+            }
+            ApplicantFact fact = session.getFact();
+            ApplicantFact before = fact.copyInput();
+            ObjectReader updater = objectMapper.readerForUpdating(fact);
+            try {
+                // Bind to a copy first, so a value that does not bind leaves the fact as it was
+                objectMapper.readerForUpdating(fact.copyInput()).readValue(patch);
+                updater.readValue(patch);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Cannot apply the patch: " + e.getOriginalMessage());
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot apply the patch: " + e.getMessage());
+            }
+            session.touch();
+            if (fact.sameInputAs(before)) {
+                return respond(session, List.of());
+            }
+
+            RuleBase active = ruleSets.acquire(session.getRules().getRuleSet());
+            if (active != session.getRules()) {
+                // Opened on an older version of the rule set: start over on the active one
+                fact.clearResults();
+                ApplicantSession fresh = newSession(id, active, fact);
+                synchronized (fresh) {
+                    ValidationResponse response = respond(fresh, active.getReactivity().getRuleNames());
+                    record(fresh, response);
+                    boolean replaced;
+                    synchronized (sessions) {
+                        replaced = sessions.replace(id, session, fresh);
+                    }
+                    if (replaced) {
+                        close(session);
+                        moved.increment();
+                    } else {
+                        // Closed, reopened or evicted meanwhile; that waits for this lock, so the patch came first and stands
+                        close(fresh);
+                    }
+                    patchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return response;
+                }
+            }
+            active.release();
+
+            RuleReactivity reactivity = active.getReactivity();
+            List<String> reacting = reactivity.rulesReactingTo(changed);
+            session.update(changed, reacting);
+            ValidationResponse response = respond(session, reacting != null ? reacting : reactivity.getRuleNames());
+            record(session, response);
+            patchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return response;
+        }
+    }
+
+    /** The current response for {@code id} without re-evaluating, or null if there is no session. */
+    public ValidationResponse get(String id) {
+        ApplicantSession session = lookUp(id);
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            if (session.isClosed()) {
+                return null;
+            }
+            session.touch();
+            return respond(session, null);
+        }
+    }
+
+    /** Dispose the session for {@code id}; false if there was none. */
+    public boolean close(String id) {
+        ApplicantSession session;
+        synchronized (sessions) {
+            session = sessions.remove(id);
+        }
+        if (session == null) {
+            return false;
+        }
+        close(session);
+        return true;
+    }
+
+    // ── Internals ───────────────────────────────────────────────────────────
+
+    /** The session for {@code id}, now the most recently used; null if there is none. */
+    private ApplicantSession lookUp(String id) {
+        synchronized (sessions) {
+            return sessions.get(id);
+        }
+    }
+
+    private int openCount() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    private static void checkId(String id) {
+        if (id == null || id.isBlank() || id.length() > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Applicant id must be 1 to " + MAX_ID_LENGTH + " characters");
+        }
+    }
+
+    /** A new session holding {@code rules}; the reference is released if the session cannot be made. */
+    private static ApplicantSession newSession(String id, RuleBase rules, ApplicantFact fact) {
+        try {
+            return new ApplicantSession(id, rules, fact);
+        } catch (RuntimeException e) {
+            rules.release();
+            throw e;
+        }
+    }
+
+    /** The applicant input fields a patch sets, as ApplicantFact property names. */
+    private static Set<String> changedProperties(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("The patch must be a JSON object of applicant fields");
+        }
+        Set<String> changed = new LinkedHashSet<>();
+        for (Iterator<String> names = patch.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            if (ApplicantColumns.Field.forJsonName(name) == null) {
+                throw new IllegalArgumentException("Not an applicant input field: " + name);
+            }
+            changed.add(name);
+        }
+        if (changed.isEmpty()) {
+            throw new IllegalArgumentException("The patch changes no fields");
+        }
+        return changed;
+    }
+
+    /**
+     * The response for the session's fact as it is now. It is built from a
+     * copy, as the fact keeps changing after the response has gone.
+     *
+     * @param reevaluated the rules that were re-evaluated for it, or null when it was not a patch
+     */
+    private ValidationResponse respond(ApplicantSession session, List<String> reevaluated) {
+        ApplicantFact fact = session.getFact();
+        ApplicantFact snapshot = fact.copyInput();
+        snapshot.copyResultsFrom(fact);
+        ValidationResponse response = ValidationResponse.fromFact(snapshot);
+        response.setRuleSetVersion(session.getRules().getVersion());
+        response.setReevaluatedRules(reevaluated);
+        return response;
+    }
+
+    private void record(ApplicantSession session, ValidationResponse response) {
+        if (history.isEnabled()) {
+            ApplicantFact fact = response.getFactAfterRules();
+            history.record(session.getRules(), fact.inputFingerprint(), fact.passedMask(), response.isFullyValid());
+        }
+    }
+
+    private static void close(ApplicantSession session) {
+        synchronized (session) {
+            session.close();
+        }
+    }
+
+    // ── Eviction ────────────────────────────────────────────────────────────
+
+    /** Dispose the sessions idle for longer than the timeout; they are the first in access order. */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        List<ApplicantSession> idle = new ArrayList<>();
+        synchronized (sessions) {
+            Iterator<ApplicantSession> oldest = sessions.values().iterator();
+            while (oldest.hasNext()) {
+                ApplicantSession session = oldest.next();
+                if (now - session.getLastUsedNanos() <= idleTimeoutNanos) {
+                    break;
+                }
+                oldest.remove();
+                idle.add(session);
+            }
+        }
+        idle.forEach(ApplicantSessionService::close);
+        evicted.increment(idle.size());
+    }
+
+    // ── Stats ───────────────────────────────────────────────────────────────
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("open", openCount());
+        stats.put("maxSessions", maxSessions);
+        stats.put("idleTimeoutSeconds", TimeUnit.NANOSECONDS.toSeconds(idleTimeoutNanos));
+        stats.put("evicted", (long) evicted.count());
+        stats.put("moved", (long) moved.count());
+        stats.put("patches", patchTimer.count());
+        stats.put("avgPatchMicros", patchTimer.count() == 0 ? 0 : (long) patchTimer.mean(TimeUnit.MICROSECONDS));
+        RuleBase rules = ruleSets.acquire(null);
+        try {
+            stats.put("reactivity", rules.getReactivity().getReport());
+        } finally {
+            rules.release();
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        janitor.shutdownNow();
+        List<ApplicantSession> open;
+        synchronized (sessions) {
+            open = new ArrayList<>(sessions.values());
+            sessions.clear();
+        }
+        open.forEach(ApplicantSessionService::close);
+    }
+}
@@ -0,0 +1,126 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ValidationRule;
+import com.droolstest.service.ApplicantColumns.Field;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The five rules of applicant-validation.drl as passes over ApplicantColumns.
+ *
+ * Rules 1, 3 and 5 only test for present fields, so they are ANDs and ORs
+ * of presence bitmaps, 64 rows per operation. Rules 2 and 4 also compare
+ * age, credit score and income; those comparisons run as a branch-free
+ * loop over the 64 values of a word, packed into a bitmap, and then meet
+ * the presence bits like the rest. A missing value fails its comparison,
+ * as it does in Drools.
+ *
+ * The result is one byte per row: the {@link ValidationRule#getBit()} of
+ * each rule that passed, plus {@link #UNREADABLE} for a row that could not
+ * be read. The rows are split into ranges of whole words that fork-join
+ * evaluates in parallel; each range writes only its own rows.
+ *
+ * These are the bundled rules, restated. BulkValidationService checks
+ * them against Drools before every run.
+ */
+final class BulkRuleEvaluator {
+
+    /** Flag of a row that could not be read. */
+    static final int UNREADABLE = 0x80;
+
+    /** Words per fork-join leaf: 65,536 rows. */
+    private static final int LEAF_WORDS = 1024;
+
+    private static final int MIN_AGE = 18;
+    private static final int MIN_CREDIT_SCORE_EXCLUSIVE = 600;
+    private static final long MIN_INCOME_CENTS_EXCLUSIVE = 25_000_00L;
+
+    private BulkRuleEvaluator() {}
+
+    static byte[] evaluate(ApplicantColumns columns, ForkJoinPool pool) {
+        byte[] flags = new byte[columns.size()];
+        pool.invoke(new Range(columns, flags, 0, columns.words()));
+        return flags;
+    }
+
+    private static final class Range extends RecursiveAction {
+        private final ApplicantColumns columns;
+        private final byte[] flags;
+        private final int fromWord;
+        private final int toWord;
+
+        Range(ApplicantColumns columns, byte[] flags, int fromWord, int toWord) {
+            this.columns = columns;
+            this.flags = flags;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Override
+        protected void compute() {
+            if (toWord - fromWord <= LEAF_WORDS) {
+                evaluateWords(columns, flags, fromWord, toWord);
+                return;
+            }
+            int mid = (fromWord + toWord) >>> 1;
+            invokeAll(new Range(columns, flags, fromWord, mid), new Range(columns, flags, mid, toWord));
+        }
+    }
+
+    private static void evaluateWords(ApplicantColumns c, byte[] flags, int fromWord, int toWord) {
+        long[] firstName = c.present(Field.FIRST_NAME);
+        long[] lastName = c.present(Field.LAST_NAME);
+        long[] dateOfBirth = c.present(Field.DATE_OF_BIRTH);
+        long[] ssn = c.present(Field.SOCIAL_SECURITY_NUMBER);
+        long[] income = c.present(Field.ANNUAL_INCOME);
+        long[] employmentStatus = c.present(Field.EMPLOYMENT_STATUS);
+        long[] employerName = c.present(Field.EMPLOYER_NAME);
+        long[] street = c.present(Field.STREET_ADDRESS);
+        long[] city = c.present(Field.CITY);
+        long[] state = c.present(Field.STATE);
+        long[] zip = c.present(Field.ZIP_CODE);
+        long[] age = c.present(Field.AGE);
+        long[] creditScore = c.present(Field.CREDIT_SCORE);
+        long[] driversLicense = c.present(Field.DRIVERS_LICENSE_NUMBER);
+        long[] passport = c.present(Field.PASSPORT_NUMBER);
+        long[] stateId = c.present(Field.STATE_ID_NUMBER);
+        long[] unreadable = c.unreadable();
+        int[] ages = c.age();
+        int[] creditScores = c.creditScore();
+        long[] incomeCents = c.incomeCents();
+        int size = c.size();
+
+        for (int w = fromWord; w < toWord; w++) {
+            int base = w << 6;
+            int rows = Math.min(64, size - base);
+
+            long incomePositive = 0;
+            long eligible = 0;
+            for (int j = 0; j < rows; j++) {
+                int row = base + j;
+                long cents = incomeCents[row];
+                incomePositive |= (cents > 0 ? 1L : 0L) << j;
+                eligible |= (ages[row] >= MIN_AGE & creditScores[row] > MIN_CREDIT_SCORE_EXCLUSIVE
+                        & cents > MIN_INCOME_CENTS_EXCLUSIVE ? 1L : 0L) << j;
+            }
+
+            long dataIsValid = firstName[w] & lastName[w] & dateOfBirth[w] & ssn[w];
+            long incomeIsVerified = income[w] & incomePositive & employmentStatus[w] & employerName[w];
+            long addressIsComplete = street[w] & city[w] & state[w] & zip[w];
+            long isEligible = age[w] & creditScore[w] & income[w] & eligible;
+            long identityIsConfirmed = driversLicense[w] | passport[w] | stateId[w];
+            long bad = unreadable[w];
+
+            for (int j = 0; j < rows; j++) {
+                flags[base + j] = (byte) (
+                        (int) (dataIsValid >>> j & 1) << ValidationRule.DATA_IS_VALID.ordinal()
+                        | (int) (incomeIsVerified >>> j & 1) << ValidationRule.INCOME_IS_VERIFIED.ordinal()
+                        | (int) (addressIsComplete >>> j & 1) << ValidationRule.ADDRESS_IS_COMPLETE.ordinal()
+                        | (int) (isEligible >>> j & 1) << ValidationRule.IS_ELIGIBLE.ordinal()
+                        | (int) (identityIsConfirmed >>> j & 1) << ValidationRule.IDENTITY_IS_CONFIRMED.ordinal()
+                        | (int) (bad >>> j & 1) * UNREADABLE);
+            }
+        }
+    }
+}
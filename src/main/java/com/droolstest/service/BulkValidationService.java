@@ -0,0 +1,320 @@
+package com.droolstest.service;
+
+import com.droolstest.dto.BulkValidationRequest;
+import com.droolstest.rules.ApplicantFact;
+import com.droolstest.rules.ValidationRule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.kie.api.definition.KiePackage;
+import org.kie.api.definition.rule.Rule;
+import org.kie.api.runtime.KieSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Validates a whole applicant file at once (POST /api/admin/bulk).
+ *
+ * For re-validating stored applicants by the million, where one
+ * ApplicantFact and one rule session per row cost too much time and heap.
+ * The file is read into ApplicantColumns (about 40 bytes a row) and the
+ * five rules are evaluated by BulkRuleEvaluator, column by column, on a
+ * fork-join pool of drools.bulk.parallelism threads. Results go to a
+ * result file:
+ *
+ *   "DRBR"   4 bytes, magic
+ *   version  int, 1
+ *   rows     long
+ *   flags    one byte per row, in input order: bit i set when the rule
+ *            with ValidationRule ordinal i passed, 0x80 when the row
+ *            could not be read
+ *
+ * BulkRuleEvaluator restates the bundled rules rather than running the
+ * loaded ones, so before every run the loaded default rule set must
+ * consist of exactly those five rules and agree with the evaluator on the
+ * applicants of test-cases.json plus a set of synthetic ones; otherwise
+ * the run is refused. After it, a seeded sample of verifyRows input lines
+ * is bound to ApplicantFact as a request would be and run through Drools,
+ * and every sampled row's flags must match.
+ *
+ * Files are read from and written to drools.bulk.dir only. One bulk run
+ * at a time.
+ */
+@Service
+public class BulkValidationService {
+
+    static final byte[] MAGIC = {'D', 'R', 'B', 'R'};
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = MAGIC.length + Integer.BYTES + Long.BYTES;
+
+    private static final int SYNTHETIC_CHECKS = 2000;
+    private static final int MAX_REPORTED_MISMATCHES = 10;
+    private static final long SAMPLE_SEED = 42;
+
+    private final RuleBaseManager ruleBaseManager;
+    private final ObjectMapper objectMapper;
+    private final Path baseDir;
+    private final ForkJoinPool pool;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastReport;
+
+    public BulkValidationService(RuleBaseManager ruleBaseManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${drools.bulk.dir:}") String dir,
+                                 @Value("${drools.bulk.parallelism:0}") int parallelism) throws IOException {
+        this.ruleBaseManager = ruleBaseManager;
+        this.objectMapper = objectMapper;
+        // Unlike drools.jobs.dir this holds the caller's files, so it is never cleared
+        this.baseDir = (dir == null || dir.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "drools-bulk")
+                : Paths.get(dir)).toAbsolutePath().normalize();
+        Files.createDirectories(baseDir);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                p -> {
+                    ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                    t.setName("bulk-validation-" + t.getPoolIndex());
+                    t.setDaemon(true);
+                    return t;
+                }, null, false);
+    }
+
+    /** The report of the last finished bulk run, or null. */
+    public Map<String, Object> getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Validate the request's input file and write its result file.
+     *
+     * @throws IllegalArgumentException if a path is missing, outside drools.bulk.dir or unreadable
+     * @throws IllegalStateException    if a bulk run is already going, or the loaded rules
+     *                                  are not the ones the bulk engine evaluates
+     */
+    public Map<String, Object> run(BulkValidationRequest request) throws IOException {
+        if (request.getInput() == null || request.getInput().isBlank()) {
+            throw new IllegalArgumentException("input is required: a file name under " + baseDir);
+        }
+        Path input = resolve(request.getInput());
+        Path output = resolve(request.getOutput() == null || request.getOutput().isBlank()
+                ? request.getInput() + ".results" : request.getOutput());
+        if (!Files.isRegularFile(input)) {
+            throw new IllegalArgumentException("No such file: " + input);
+        }
+        if (output.equals(input)) {
+            throw new IllegalArgumentException("output must not be the input file");
+        }
+        if (request.getVerifyRows() < 0) {
+            throw new IllegalArgumentException("verifyRows must not be negative");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A bulk run is already going");
+        }
+        RuleBase rules = ruleBaseManager.acquire();
+        try {
+            Map<String, Object> report = execute(rules, input, output, request.getVerifyRows());
+            lastReport = report;
+            return report;
+        } finally {
+            rules.release();
+            running.set(false);
+        }
+    }
+
+    private Path resolve(String name) {
+        Path path = baseDir.resolve(name).normalize();
+        if (!path.startsWith(baseDir)) {
+            throw new IllegalArgumentException("Path outside drools.bulk.dir: " + name);
+        }
+        return path;
+    }
+
+    private Map<String, Object> execute(RuleBase rules, Path input, Path output, int verifyRows) throws IOException {
+        long start = System.nanoTime();
+        Map<String, Object> precheck = precheck(rules);
+
+        ApplicantColumnsReader reader = new ApplicantColumnsReader(objectMapper.getFactory(), input,
+                verifyRows, SAMPLE_SEED);
+        ApplicantColumns columns = reader.read(input);
+        long loaded = System.nanoTime();
+
+        byte[] flags = BulkRuleEvaluator.evaluate(columns, pool);
+        long evaluated = System.nanoTime();
+
+        write(output, flags, columns.size());
+        long written = System.nanoTime();
+
+        Map<String, Object> verification = verifySample(rules, reader, flags);
+        long verified = System.nanoTime();
+
+        int rows = columns.size();
+        long[] passed = new long[ValidationRule.COUNT];
+        long unreadable = 0;
+        long fullyValid = 0;
+        for (byte f : flags) {
+            int bits = f & 0xFF;
+            if ((bits & BulkRuleEvaluator.UNREADABLE) != 0) {
+                unreadable++;
+                continue;
+            }
+            for (int r = 0; r < ValidationRule.COUNT; r++) {
+                passed[r] += bits >>> r & 1;
+            }
+            if ((bits & ValidationRule.ALL_MASK) == ValidationRule.ALL_MASK) {
+                fullyValid++;
+            }
+        }
+        Map<String, Object> byRule = new LinkedHashMap<>();
+        for (ValidationRule rule : ValidationRule.values()) {
+            byRule.put(rule.getKey(), passed[rule.ordinal()]);
+        }
+
+        long evaluateNanos = evaluated - loaded;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("ruleSetVersion", rules.getVersion());
+        report.put("input", input.toString());
+        report.put("format", reader.format());
+        report.put("rows", rows);
+        report.put("unreadable", unreadable);
+        report.put("fullyValid", fullyValid);
+        report.put("passedByRule", byRule);
+        report.put("output", output.toString());
+        report.put("outputBytes", HEADER_BYTES + (long) rows);
+        report.put("parallelism", pool.getParallelism());
+        report.put("columnBytes", columns.footprintBytes());
+        report.put("loadMs", millis(loaded - start));
+        report.put("evaluateMs", millis(evaluateNanos));
+        report.put("writeMs", millis(written - evaluated));
+        report.put("verifyMs", millis(verified - written));
+        report.put("totalMs", millis(verified - start));
+        report.put("evaluateRowsPerSecond", evaluateNanos == 0 ? null : Math.round(rows * 1e9 / evaluateNanos));
+        report.put("rowsPerSecond", Math.round(rows * 1e9 / Math.max(1, verified - start)));
+        report.put("precheck", precheck);
+        report.put("verification", verification);
+        System.out.printf("Bulk validation of %s: %d rows (%d unreadable) in %d ms, rules evaluated in %.1f ms%n",
+                input.getFileName(), rows, unreadable, millis(verified - start), evaluateNanos / 1e6);
+        return report;
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    private static void write(Path output, byte[] flags, int rows) throws IOException {
+        Files.createDirectories(output.getParent());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).put(MAGIC).putInt(FORMAT_VERSION).putLong(rows).flip();
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer body = ByteBuffer.wrap(flags, 0, rows);
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[] {header, body});
+            }
+        }
+    }
+
+    // ── Checking against Drools ─────────────────────────────────────────────
+
+    /**
+     * Refuse to run unless the loaded rules are the five the evaluator
+     * restates, and both agree on a known set of applicants.
+     */
+    private Map<String, Object> precheck(RuleBase rules) {
+        Set<ValidationRule> found = EnumSet.noneOf(ValidationRule.class);
+        for (KiePackage kiePackage : rules.getKieBase().getKiePackages()) {
+            for (Rule rule : kiePackage.getRules()) {
+                ValidationRule known = ValidationRule.forRuleName(rule.getName());
+                if (known == null) {
+                    throw new IllegalStateException("Rule set " + rules.getVersion() + " has rule \""
+                            + rule.getName() + "\", which the bulk engine does not evaluate");
+                }
+                found.add(known);
+            }
+        }
+        if (found.size() != ValidationRule.COUNT) {
+            Set<ValidationRule> missing = EnumSet.allOf(ValidationRule.class);
+            missing.removeAll(found);
+            throw new IllegalStateException("Rule set " + rules.getVersion() + " lacks rules " + missing);
+        }
+
+        List<ApplicantFact> applicants = new ArrayList<>(NativeRuleVerifier.sampleApplicants());
+        applicants.addAll(ApplicantGenerator.generate(SYNTHETIC_CHECKS, 50, SAMPLE_SEED));
+        byte[] flags = BulkRuleEvaluator.evaluate(ApplicantColumns.of(applicants), pool);
+        for (int i = 0; i < applicants.size(); i++) {
+            int expected = droolsMask(rules, applicants.get(i).copyInput());
+            if (expected != flags[i]) {
+                throw new IllegalStateException("Rule set " + rules.getVersion() + " and the bulk engine disagree on "
+                        + "check applicant " + i + ": Drools passed " + Integer.toBinaryString(expected)
+                        + ", bulk " + Integer.toBinaryString(flags[i]));
+            }
+        }
+        return Map.of("rules", found.size(), "applicants", applicants.size(), "passed", true);
+    }
+
+    private Map<String, Object> verifySample(RuleBase rules, ApplicantColumnsReader reader, byte[] flags) {
+        List<Map<String, Object>> examples = new ArrayList<>();
+        int mismatches = 0;
+        for (ApplicantColumnsReader.SampledRow sampled : reader.sample()) {
+            int expected;
+            try {
+                ApplicantFact fact = objectMapper.convertValue(reader.applicantNode(sampled, objectMapper),
+                        ApplicantFact.class);
+                expected = fact == null ? BulkRuleEvaluator.UNREADABLE : droolsMask(rules, fact);
+            } catch (IOException | IllegalArgumentException e) {
+                expected = BulkRuleEvaluator.UNREADABLE;
+            }
+            int actual = flags[sampled.row()] & 0xFF;
+            if (expected != actual) {
+                mismatches++;
+                if (examples.size() < MAX_REPORTED_MISMATCHES) {
+                    Map<String, Object> example = new LinkedHashMap<>();
+                    example.put("row", sampled.row());
+                    example.put("drools", expected);
+                    example.put("bulk", actual);
+                    example.put("line", sampled.line());
+                    examples.add(example);
+                }
+            }
+        }
+        Map<String, Object> verification = new LinkedHashMap<>();
+        verification.put("passed", mismatches == 0);
+        verification.put("sampledRows", reader.sample().size());
+        verification.put("mismatches", mismatches);
+        verification.put("mismatchExamples", examples);
+        return verification;
+    }
+
+    /** The rules {@code fact} passes in Drools, as ValidationRule bits. */
+    private static int droolsMask(RuleBase rules, ApplicantFact fact) {
+        KieSession session = rules.getKieBase().newKieSession();
+        try {
+            session.insert(fact);
+            session.fireAllRules();
+        } finally {
+            session.dispose();
+        }
+        return fact.passedMask();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,31 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ValidationRule;
+import org.kie.api.runtime.rule.AgendaFilter;
+import org.kie.api.runtime.rule.Match;
+
+/**
+ * Agenda filter for decision-only evaluation of one fact.
+ *
+ * A match of one of the five known rules is all a decision needs, so the
+ * filter records the rule's bit and vetoes the consequence: no flag setters,
+ * no ValidationResult, no message. Rules it does not know (e.g. from an
+ * uploaded DRL) fire as usual, so whatever they record still counts.
+ */
+class DecisionAgendaFilter implements AgendaFilter {
+
+    private int matchedMask;
+
+    @Override
+    public boolean accept(Match match) {
+        ValidationRule rule = ValidationRule.forRuleName(match.getRule().getName());
+        if (rule == null) {
+            return true;
+        }
+        matchedMask |= rule.getBit();
+        return false;
+    }
+
+    /** Bits of the known rules whose conditions matched. */
+    int matchedMask() { return matchedMask; }
+}
@@ -0,0 +1,239 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ValidationRule;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One file of the validation history: a header and a fixed number of
+ * 32-byte record slots, mapped into memory whole.
+ *
+ *   header (32 bytes)  "DRHL", format version (int), slots (int), first sequence (long)
+ *   record (32 bytes)  timestamp millis    long   0 while the slot is unwritten
+ *                      input fingerprint   long   ApplicantFact.inputFingerprint()
+ *                      rule set version    int    RuleBase.getVersionNumber()
+ *                      rule set checksum   int    RuleBase.getChecksum(), a CRC32
+ *                      rule set id         short  line of rulesets.txt; 0 is the default rule set
+ *                      passed              byte   ValidationRule bits of the rules that passed
+ *                      flags               byte   FULLY_VALID, DECISION, OTHER_KEYS
+ *                      missing             byte   ValidationRule bits the rule set does not record
+ *                      reserved            3 bytes 0
+ *
+ * A rule set that records results under keys outside ValidationRule has
+ * OTHER_KEYS set; whether those passed is only in FULLY_VALID.
+ * The file is created at full size, so unwritten slots read as zeros.
+ * Writers fill a slot's other fields first and publish it by storing the
+ * timestamp with release semantics; readers load the timestamp with
+ * acquire semantics and skip a slot that is still zero, so they never see
+ * half a record, and no lock is taken on either side.
+ *
+ * Once a segment is settled (a newer one exists and every slot has been
+ * written) its records no longer change, and a summary of it is computed
+ * on first use: its time span and
+ * how many records have each outcome (passed and missing bits). Queries skip sealed segments
+ * outside their time range or without a matching outcome, and take counts
+ * from the summary instead of scanning when they can.
+ */
+final class HistorySegment {
+
+    static final int RECORD_BYTES = 32;
+    static final int FORMAT_VERSION = 1;
+    private static final int MAGIC = 0x4452484C; // "DRHL"
+
+    static final int FULLY_VALID = 0x01;
+    static final int DECISION = 0x02;
+    static final int OTHER_KEYS = 0x04;
+
+    /** Distinct outcomes: every combination of passed and missing bits. */
+    static final int OUTCOMES = 1 << (2 * ValidationRule.COUNT);
+
+    private static final int TIMESTAMP = 0;
+    private static final int FINGERPRINT = 8;
+    private static final int VERSION = 16;
+    private static final int CHECKSUM = 20;
+    private static final int RULE_SET = 24;
+    private static final int PASSED = 26;
+    private static final int FLAGS = 27;
+    private static final int MISSING = 28;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    /** Time span and outcome counts of a sealed segment. */
+    static final class Summary {
+        final long records;
+        final long minTimestamp;
+        final long maxTimestamp;
+        /** Records per outcome, indexed by {@link #outcome}. */
+        final long[] byOutcome;
+
+        Summary(long records, long minTimestamp, long maxTimestamp, long[] byOutcome) {
+            this.records = records;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+            this.byOutcome = byOutcome;
+        }
+    }
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final long firstSequence;
+    private final int slots;
+    /** Slots written, or given up on, since the segment was created or opened. */
+    private final LongAdder written = new LongAdder();
+    private volatile Summary summary;
+
+    private HistorySegment(Path file, MappedByteBuffer buffer, long firstSequence, int slots) {
+        this.file = file;
+        this.buffer = buffer;
+        this.firstSequence = firstSequence;
+        this.slots = slots;
+    }
+
+    static HistorySegment create(Path file, long firstSequence, int slots) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    (long) RECORD_BYTES * (slots + 1));
+            buffer.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putInt(8, slots).putLong(12, firstSequence);
+            return new HistorySegment(file, buffer, firstSequence, slots);
+        }
+    }
+
+    static HistorySegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < RECORD_BYTES) {
+                throw new IOException("Not a history segment: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int slots = buffer.getInt(8);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION
+                    || channel.size() != (long) RECORD_BYTES * (slots + 1)) {
+                throw new IOException("Not a version " + FORMAT_VERSION + " history segment: " + file);
+            }
+            return new HistorySegment(file, buffer, buffer.getLong(12), slots);
+        }
+    }
+
+    Path file() { return file; }
+    long firstSequence() { return firstSequence; }
+    /** The sequence after this segment's last slot. */
+    long endSequence() { return firstSequence + slots; }
+    long bytes() { return (long) RECORD_BYTES * (slots + 1); }
+
+    boolean contains(long sequence) {
+        return sequence >= firstSequence && sequence < firstSequence + slots;
+    }
+
+    // ── Writing ─────────────────────────────────────────────────────────────
+
+    void write(long sequence, long timestamp, long fingerprint, int version, int checksum,
+               int ruleSetId, int passed, int missing, int flags) {
+        int at = offset(sequence);
+        buffer.putLong(at + FINGERPRINT, fingerprint);
+        buffer.putInt(at + VERSION, version);
+        buffer.putInt(at + CHECKSUM, checksum);
+        buffer.putShort(at + RULE_SET, (short) ruleSetId);
+        buffer.put(at + PASSED, (byte) passed);
+        buffer.put(at + FLAGS, (byte) flags);
+        buffer.put(at + MISSING, (byte) missing);
+        // Publish: a reader that sees the timestamp sees the fields above
+        LONGS.setRelease(buffer, at + TIMESTAMP, Math.max(1, timestamp));
+        written.increment();
+    }
+
+    /**
+     * Whether every slot has been written, so the records can no longer
+     * change. A writer may still be filling the last slots of a segment
+     * just after the next one was started.
+     */
+    boolean settled() {
+        return written.sum() >= slots;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    // ── Reading ─────────────────────────────────────────────────────────────
+
+    /** The slot's timestamp, or 0 if it has not been written. */
+    long timestamp(long sequence) {
+        return (long) LONGS.getAcquire(buffer, offset(sequence) + TIMESTAMP);
+    }
+
+    long fingerprint(long sequence) { return buffer.getLong(offset(sequence) + FINGERPRINT); }
+    int version(long sequence) { return buffer.getInt(offset(sequence) + VERSION); }
+    int checksum(long sequence) { return buffer.getInt(offset(sequence) + CHECKSUM); }
+    int ruleSetId(long sequence) { return buffer.getShort(offset(sequence) + RULE_SET) & 0xFFFF; }
+    int passed(long sequence) { return buffer.get(offset(sequence) + PASSED) & 0xFF; }
+    int flags(long sequence) { return buffer.get(offset(sequence) + FLAGS) & 0xFF; }
+    int missing(long sequence) { return buffer.get(offset(sequence) + MISSING) & 0xFF; }
+
+    /** Passed and missing bits in one index, 0 to OUTCOMES - 1. */
+    static int outcome(int passed, int missing) {
+        return (passed & ValidationRule.ALL_MASK) | (missing & ValidationRule.ALL_MASK) << ValidationRule.COUNT;
+    }
+
+    private int offset(long sequence) {
+        return (int) (sequence - firstSequence + 1) * RECORD_BYTES;
+    }
+
+    /**
+     * After a restart: count every slot before {@code sequence} as written.
+     * Slots a crash left empty stay empty for good.
+     */
+    void resumeAt(long sequence) {
+        written.add(sequence - firstSequence - written.sum());
+    }
+
+    /** The sequence after the last written slot, for picking up after a restart. */
+    long writtenEnd() {
+        for (long s = endSequence() - 1; s >= firstSequence; s--) {
+            if (timestamp(s) != 0) {
+                return s + 1;
+            }
+        }
+        return firstSequence;
+    }
+
+    /** The summary of this segment; only call once it is {@link #settled()}. */
+    Summary summary() {
+        Summary s = summary;
+        if (s == null) {
+            synchronized (this) {
+                s = summary;
+                if (s == null) {
+                    s = summarize();
+                    summary = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    private Summary summarize() {
+        long records = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long[] byOutcome = new long[OUTCOMES];
+        for (long s = firstSequence; s < endSequence(); s++) {
+            long ts = timestamp(s);
+            if (ts == 0) {
+                continue;
+            }
+            records++;
+            min = Math.min(min, ts);
+            max = Math.max(max, ts);
+            byOutcome[outcome(passed(s), missing(s))]++;
+        }
+        return new Summary(records, min, max, byOutcome);
+    }
+}
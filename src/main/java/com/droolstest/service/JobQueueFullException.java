@@ -0,0 +1,17 @@
+package com.droolstest.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a validation job is submitted while every job worker is busy
+ * and the job queue is full. Surfaces to HTTP clients as 429 so they can
+ * back off and resubmit.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class JobQueueFullException extends RuntimeException {
+
+    public JobQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,140 @@
+package com.droolstest.service;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Disk-backed result log of one job.
+ *
+ *   results.ndjson - one TestCaseResult JSON document per line
+ *   results.idx    - the byte offset of every line, as 8-byte longs
+ *
+ * The index makes any page a direct seek: record i starts at the offset
+ * stored at byte 8 * i. Pages can be read while the job is still writing,
+ * up to the number of records the job has reported as flushed.
+ */
+public class JobResultStore implements Closeable {
+
+    static final String RESULTS_FILE = "results.ndjson";
+    static final String INDEX_FILE = "results.idx";
+
+    private final Path results;
+    private final Path index;
+
+    private OutputStream resultsOut;
+    private DataOutputStream indexOut;
+    private long offset;
+
+    public JobResultStore(Path dir) {
+        this.results = dir.resolve(RESULTS_FILE);
+        this.index = dir.resolve(INDEX_FILE);
+    }
+
+    // ── Writing (job worker thread) ─────────────────────────────────────────
+
+    void openForWrite() throws IOException {
+        resultsOut = new BufferedOutputStream(Files.newOutputStream(results), 64 * 1024);
+        indexOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index), 8 * 1024));
+        offset = 0;
+    }
+
+    void append(byte[] json) throws IOException {
+        indexOut.writeLong(offset);
+        resultsOut.write(json);
+        resultsOut.write('\n');
+        offset += json.length + 1;
+    }
+
+    /** Make everything appended so far visible to readers. */
+    void flush() throws IOException {
+        resultsOut.flush();
+        indexOut.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (resultsOut != null) resultsOut.close();
+        } finally {
+            if (indexOut != null) indexOut.close();
+        }
+    }
+
+    // ── Reading (request threads) ───────────────────────────────────────────
+
+    /**
+     * Records [from, from + count) as raw JSON, limited to the first
+     * {@code available} records.
+     */
+    public List<String> read(int from, int count, int available) throws IOException {
+        int to = Math.min(from + count, available);
+        if (from >= to) {
+            return List.of();
+        }
+        int n = to - from;
+        // The next record's offset is where this page ends; the last flushed record ends at its newline
+        boolean hasNext = to < available;
+        try (FileChannel idx = FileChannel.open(index, StandardOpenOption.READ);
+             FileChannel data = FileChannel.open(results, StandardOpenOption.READ)) {
+            ByteBuffer idxBuf = ByteBuffer.allocate(8 * (hasNext ? n + 1 : n));
+            readFully(idx, idxBuf, 8L * from);
+            idxBuf.flip();
+            long[] offsets = new long[n + 1];
+            for (int i = 0; i < n; i++) {
+                offsets[i] = idxBuf.getLong();
+            }
+            offsets[n] = hasNext ? idxBuf.getLong() : endOfRecord(data, offsets[n - 1]);
+
+            ByteBuffer dataBuf = ByteBuffer.allocate((int) (offsets[n] - offsets[0]));
+            readFully(data, dataBuf, offsets[0]);
+            byte[] bytes = dataBuf.array();
+
+            List<String> records = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                int start = (int) (offsets[i] - offsets[0]);
+                int end = (int) (offsets[i + 1] - offsets[0]) - 1; // drop the newline
+                records.add(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+            }
+            return records;
+        }
+    }
+
+    private static long endOfRecord(FileChannel data, long start) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8 * 1024);
+        long pos = start;
+        while (true) {
+            buf.clear();
+            int n = data.read(buf, pos);
+            if (n < 0) {
+                throw new IOException("Result record at offset " + start + " is truncated");
+            }
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += n;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, position);
+            if (n < 0) {
+                throw new IOException("Unexpected end of " + channel);
+            }
+            position += n;
+        }
+    }
+}
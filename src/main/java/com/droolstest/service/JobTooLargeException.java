@@ -0,0 +1,16 @@
+package com.droolstest.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a submitted job body is larger than drools.jobs.max-body-bytes.
+ * Surfaces to HTTP clients as 413; nothing of the body is kept.
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class JobTooLargeException extends RuntimeException {
+
+    public JobTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,132 @@
+package com.droolstest.service;
+
+import org.kie.api.KieBase;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionsPool;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of reusable KieSessions.
+ *
+ * Sessions come from a Drools {@link KieSessionsPool}: calling dispose() on a
+ * pooled session resets its working memory and agenda and hands it back to
+ * the pool instead of destroying it. The Drools pool grows without limit, so
+ * a semaphore caps how many sessions can be checked out at once; callers
+ * wait up to {@code maxWaitMillis} for a free slot.
+ *
+ * Resetting a pooled session also drops its event listeners, so the
+ * listeners are attached again on every checkout.
+ */
+public class KieSessionPool {
+
+    private final KieSessionsPool pool;
+    private final Semaphore permits;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final List<AgendaEventListener> listeners;
+
+    // ── Metrics ─────────────────────────────────────────────────────────────
+    // Updated on every checkout, so striped rather than one shared counter
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public KieSessionPool(KieBase kieBase, int maxSize, long maxWaitMillis,
+                          List<AgendaEventListener> listeners) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Session pool size must be at least 1, got " + maxSize);
+        }
+        this.pool = kieBase.newKieSessionsPool(maxSize);
+        this.permits = new Semaphore(maxSize);
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.listeners = List.copyOf(listeners);
+    }
+
+    /**
+     * Check out a session. The caller must hand it back with {@link #release}.
+     *
+     * @throws SessionPoolExhaustedException if no session frees up in time
+     */
+    public KieSession acquire() {
+        long start = System.nanoTime();
+        boolean granted;
+        try {
+            granted = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SessionPoolExhaustedException("Interrupted while waiting for a KieSession");
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        if (waited > maxWaitNanos.get()) {
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+
+        if (!granted) {
+            timeouts.increment();
+            throw new SessionPoolExhaustedException(
+                    "No KieSession available within " + maxWaitMillis + " ms (pool size " + maxSize + ")");
+        }
+
+        try {
+            KieSession session = pool.newKieSession();
+            listeners.forEach(session::addEventListener);
+            acquired.increment();
+            return session;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a session to the pool. dispose() on a pooled session resets it
+     * rather than destroying it.
+     */
+    public void release(KieSession session) {
+        try {
+            session.dispose();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Dispose every pooled session. The pool cannot be used afterwards.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // ── Stats ───────────────────────────────────────────────────────────────
+
+    public int getMaxSize() { return maxSize; }
+    public int getInUse() { return maxSize - permits.availablePermits(); }
+    public int getWaiting() { return permits.getQueueLength(); }
+    public long getAcquired() { return acquired.sum(); }
+    public long getTimeouts() { return timeouts.sum(); }
+
+    public Map<String, Object> getStats() {
+        long count = acquired.sum() + timeouts.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxSize", maxSize);
+        stats.put("inUse", getInUse());
+        stats.put("waiting", getWaiting());
+        stats.put("acquired", acquired.sum());
+        stats.put("timeouts", timeouts.sum());
+        stats.put("avgWaitMicros", count == 0 ? 0 : totalWaitNanos.sum() / count / 1_000);
+        stats.put("maxWaitMicros", maxWaitNanos.get() / 1_000);
+        return stats;
+    }
+}
@@ -0,0 +1,563 @@
+package com.droolstest.service;
+
+import com.droolstest.dto.LoadTestRequest;
+import com.droolstest.rules.ApplicantFact;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Drives ValidationService in-process and reports throughput, latency
+ * percentiles, GC and allocation (POST /api/admin/loadtest).
+ *
+ * Payloads are synthetic applicants with a chosen share of valid ones
+ * (see ApplicantGenerator), or the applicants of test-cases.json; workers
+ * cycle through them, validating a fresh copy each time.
+ *
+ * Without a target rate, each worker calls the service back to back
+ * (closed loop), so the result is the throughput at that concurrency.
+ * With one, operations are scheduled at fixed intervals across the
+ * workers (open loop), and latency is measured from the scheduled start:
+ * when the service falls behind, the queueing delay shows up in the
+ * percentiles instead of silently lowering the request rate.
+ *
+ * Latencies go into one HdrHistogram per worker (3 significant digits,
+ * up to a minute), merged at the end. Operations during the warmup are
+ * not recorded. GC counts and times are deltas of the JVM's collectors
+ * over the measured period; allocation is what the worker threads
+ * allocated during it. Contention is how often, and for how long, the
+ * workers blocked on a monitor or waited (a lock, a semaphore, a park)
+ * while measured. One load test runs at a time.
+ *
+ * Load test validations run as Unrecorded, as the startup warmup's do, so
+ * synthetic traffic stays out of the validation meters, the rule profiler
+ * and the validation history. The result cache is cleared after each run.
+ *
+ * A scaling run (POST /api/admin/loadtest/scaling) repeats the closed-loop
+ * test at 1, 2, 4 ... threads up to the requested concurrency, after one
+ * pass at the top thread count that only warms up the JIT, and reports
+ * how throughput grows against the first step: per thread, per core in
+ * use, and as a share of linear speedup up to the core count. Thread
+ * contention monitoring is switched on for the run, so the blocked and
+ * waited times show where threads queue on each other.
+ */
+@Service
+public class LoadTestService {
+
+    public static final String SOURCE_SYNTHETIC = "synthetic";
+    public static final String SOURCE_TEST_CASES = "test-cases";
+    public static final String OP_VALIDATE = "validate";
+    public static final String OP_DECIDE = "decide";
+
+    private static final int SYNTHETIC_PAYLOADS = 4096;
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final ValidationService validationService;
+    private final ValidationResultCache resultCache;
+    private final int maxSeconds;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastReport;
+    private volatile Map<String, Object> lastScalingReport;
+
+    public LoadTestService(ValidationService validationService,
+                           ValidationResultCache resultCache,
+                           @Value("${drools.loadtest.max-seconds:300}") int maxSeconds) {
+        this.validationService = validationService;
+        this.resultCache = resultCache;
+        this.maxSeconds = maxSeconds;
+    }
+
+    /** The report of the last finished load test, or null. */
+    public Map<String, Object> getLastReport() {
+        return lastReport;
+    }
+
+    /** The report of the last finished scaling run, or null. */
+    public Map<String, Object> getLastScalingReport() {
+        return lastScalingReport;
+    }
+
+    /**
+     * Run a load test on the calling thread and return its report.
+     *
+     * @throws IllegalArgumentException if the request is invalid
+     * @throws IllegalStateException    if a load test is already running
+     */
+    public Map<String, Object> run(LoadTestRequest request) throws InterruptedException {
+        int concurrency = request.getConcurrency() > 0 ? request.getConcurrency()
+                : Runtime.getRuntime().availableProcessors();
+        check(request, concurrency);
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A load test is already running");
+        }
+        try {
+            Map<String, Object> report = report(request, concurrency, execute(request, concurrency));
+            lastReport = report;
+            return report;
+        } finally {
+            resultCache.clear();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Run the closed-loop load test at 1, 2, 4 ... threads, up to
+     * {@code concurrency} (one per core if 0), plus the core count itself,
+     * each with the request's warmup and duration, after a pass of the same
+     * length whose results are thrown away. Returns the report of all steps.
+     *
+     * @throws IllegalArgumentException if the request is invalid
+     * @throws IllegalStateException    if a load test is already running
+     */
+    public Map<String, Object> runScaling(LoadTestRequest request) throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = request.getConcurrency() > 0 ? request.getConcurrency() : cores;
+        TreeSet<Integer> steps = new TreeSet<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            steps.add(threads);
+        }
+        if (cores < maxThreads) {
+            steps.add(cores);
+        }
+        steps.add(maxThreads);
+
+        check(request, maxThreads);
+        if (request.getTargetRate() != 0) {
+            throw new IllegalArgumentException("A scaling run is closed loop; targetRate must be 0");
+        }
+        long seconds = (long) (steps.size() + 1) * (request.getWarmupSeconds() + request.getDurationSeconds());
+        if (seconds > maxSeconds) {
+            throw new IllegalArgumentException("A scaling run of " + steps.size() + " steps would take " + seconds
+                    + " s, more than " + maxSeconds + " (drools.loadtest.max-seconds); shorten the warmup or duration");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A load test is already running");
+        }
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        boolean monitoring = threadBean.isThreadContentionMonitoringSupported()
+                && !threadBean.isThreadContentionMonitoringEnabled();
+        try {
+            if (monitoring) {
+                threadBean.setThreadContentionMonitoringEnabled(true);
+            }
+            // One pass at the most threads first, its results thrown away, so that the first step does not pay for JIT
+            execute(request, maxThreads);
+            List<Map<String, Object>> rows = new ArrayList<>();
+            double baseline = 0;
+            double efficiencyAtCores = 0;
+            Map<String, Object> peak = null;
+            for (int threads : steps) {
+                Totals totals = new Totals(execute(request, threads).results);
+                double throughput = totals.operations / (request.getDurationSeconds() * 1.0);
+                if (baseline == 0) baseline = throughput;
+                int coresUsed = Math.min(threads, cores);
+                double speedup = baseline == 0 ? 0 : throughput / baseline;
+
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("threads", threads);
+                row.put("operations", totals.operations);
+                row.put("errors", totals.errors);
+                row.put("throughputPerSecond", round(throughput));
+                row.put("throughputPerThread", round(throughput / threads));
+                row.put("throughputPerCore", round(throughput / coresUsed));
+                row.put("speedup", round2(speedup));
+                // Linear up to the core count is ideal; past it, more threads only share the same cores
+                row.put("efficiency", round2(speedup / coresUsed));
+                row.put("p50Micros", micros(totals.latency.getValueAtPercentile(50)));
+                row.put("p99Micros", micros(totals.latency.getValueAtPercentile(99)));
+                row.put("contentionPerOperation", totals.contentionPerOperation());
+                rows.add(row);
+                if (peak == null || throughput > ((Number) peak.get("throughputPerSecond")).doubleValue()) {
+                    peak = row;
+                }
+                if (threads == Math.min(cores, maxThreads)) {
+                    efficiencyAtCores = speedup / coresUsed;
+                }
+                if (totals.firstError != null) {
+                    row.put("firstError", totals.firstError);
+                }
+            }
+
+            Map<String, Object> config = new LinkedHashMap<>();
+            config.put("source", request.getSource());
+            config.put("operation", request.getOperation());
+            config.put("ruleSet", request.getRuleSet());
+            config.put("maxThreads", maxThreads);
+            config.put("warmupSeconds", request.getWarmupSeconds());
+            config.put("durationSeconds", request.getDurationSeconds());
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("finishedAt", Instant.now().toString());
+            report.put("config", config);
+            report.put("cores", cores);
+            Map<String, Object> engine = validationService.getEngineStats();
+            report.put("sessionMode", engine.get("sessionMode"));
+            report.put("engineMode", engine.get("engineMode"));
+            report.put("sessionPool", engine.get("sessionPool"));
+            report.put("efficiencyAtCores", round2(efficiencyAtCores));
+            report.put("peakThreads", peak.get("threads"));
+            report.put("peakThroughputPerSecond", peak.get("throughputPerSecond"));
+            report.put("steps", rows);
+            lastScalingReport = report;
+            return report;
+        } finally {
+            if (monitoring) {
+                threadBean.setThreadContentionMonitoringEnabled(false);
+            }
+            resultCache.clear();
+            running.set(false);
+        }
+    }
+
+    private void check(LoadTestRequest request, int concurrency) {
+        if (!SOURCE_SYNTHETIC.equals(request.getSource()) && !SOURCE_TEST_CASES.equals(request.getSource())) {
+            throw new IllegalArgumentException("source must be " + SOURCE_SYNTHETIC + " or " + SOURCE_TEST_CASES);
+        }
+        if (!OP_VALIDATE.equals(request.getOperation()) && !OP_DECIDE.equals(request.getOperation())) {
+            throw new IllegalArgumentException("operation must be " + OP_VALIDATE + " or " + OP_DECIDE);
+        }
+        if (request.getValidPercent() < 0 || request.getValidPercent() > 100) {
+            throw new IllegalArgumentException("validPercent must be between 0 and 100");
+        }
+        if (concurrency > 1024 || request.getTargetRate() < 0) {
+            throw new IllegalArgumentException("concurrency must be at most 1024 and targetRate not negative");
+        }
+        if (request.getDurationSeconds() < 1 || request.getWarmupSeconds() < 0
+                || request.getWarmupSeconds() + request.getDurationSeconds() > maxSeconds) {
+            throw new IllegalArgumentException("durationSeconds must be at least 1, and warmup plus duration at most "
+                    + maxSeconds + " (drools.loadtest.max-seconds)");
+        }
+    }
+
+    // ── Running ─────────────────────────────────────────────────────────────
+
+    /** The worker results of one measured run, and the GC counters around it. */
+    private record Measurement(List<WorkerResult> results, long measuredNanos,
+                               Map<String, long[]> gcBefore, Map<String, long[]> gcAfter) {}
+
+    private Measurement execute(LoadTestRequest request, int concurrency) throws InterruptedException {
+        ApplicantFact[] payloads = payloads(request).toArray(new ApplicantFact[0]);
+        if (payloads.length == 0) {
+            throw new IllegalArgumentException("No applicants to send");
+        }
+        String ruleSet = request.getRuleSet();
+        Predicate<ApplicantFact> operation = OP_DECIDE.equals(request.getOperation())
+                ? fact -> validationService.decide(ruleSet, fact).isFullyValid()
+                : fact -> validationService.validate(ruleSet, fact).isFullyValid();
+        // Fail fast on an unknown rule set, and compile it outside the measurement
+        Unrecorded.call(() -> operation.test(payloads[0].copyInput()));
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(request.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(request.getDurationSeconds());
+        long interval = request.getTargetRate() > 0 ? 1_000_000_000L / request.getTargetRate() : 0;
+        AtomicLong tickets = new AtomicLong();
+
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "loadtest-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<WorkerResult>> futures = new ArrayList<>(concurrency);
+        Map<String, long[]> gcBefore;
+        List<WorkerResult> results = new ArrayList<>(concurrency);
+        try {
+            for (int w = 0; w < concurrency; w++) {
+                int offset = (int) ((long) w * payloads.length / concurrency);
+                futures.add(workers.submit(Unrecorded.of(() -> work(operation, payloads, offset, start,
+                        measureFrom, end, interval, tickets))));
+            }
+            sleepUntil(measureFrom);
+            gcBefore = gcSnapshot();
+            for (Future<WorkerResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load test worker failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+        Map<String, long[]> gcAfter = gcSnapshot();
+        return new Measurement(results, end - measureFrom, gcBefore, gcAfter);
+    }
+
+    private List<ApplicantFact> payloads(LoadTestRequest request) {
+        if (SOURCE_TEST_CASES.equals(request.getSource())) {
+            return NativeRuleVerifier.sampleApplicants();
+        }
+        return ApplicantGenerator.generate(SYNTHETIC_PAYLOADS, request.getValidPercent(), request.getSeed());
+    }
+
+    /** What one worker measured. */
+    private static final class WorkerResult {
+        final Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long operations;
+        long fullyValid;
+        long errors;
+        String firstError;
+        long allocatedBytes = -1;
+        /** Blocked and waited counts and milliseconds over the measured period; times -1 if not monitored. */
+        long blockedCount;
+        long blockedMillis = -1;
+        long waitedCount;
+        long waitedMillis = -1;
+    }
+
+    private WorkerResult work(Predicate<ApplicantFact> operation, ApplicantFact[] payloads, int offset,
+                              long start, long measureFrom, long end, long interval, AtomicLong tickets)
+            throws InterruptedException {
+        WorkerResult result = new WorkerResult();
+        long allocatedAtStart = -1;
+        ThreadInfo contentionAtStart = null;
+        boolean measuring = false;
+        int next = offset;
+        while (true) {
+            long scheduled;
+            if (interval > 0) {
+                scheduled = start + tickets.getAndIncrement() * interval;
+                if (scheduled >= end) break;
+                sleepUntil(scheduled);
+            } else {
+                scheduled = System.nanoTime();
+                if (scheduled >= end) break;
+            }
+            if (!measuring && scheduled >= measureFrom) {
+                measuring = true;
+                allocatedAtStart = allocatedBytes();
+                contentionAtStart = threadInfo();
+            }
+
+            ApplicantFact fact = payloads[next].copyInput();
+            next = next + 1 == payloads.length ? 0 : next + 1;
+            boolean valid = false;
+            Throwable error = null;
+            try {
+                valid = operation.test(fact);
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            long latency = System.nanoTime() - scheduled;
+
+            if (measuring) {
+                if (error == null) {
+                    result.latency.recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                    result.operations++;
+                    if (valid) result.fullyValid++;
+                } else {
+                    result.errors++;
+                    if (result.firstError == null) result.firstError = String.valueOf(error);
+                }
+            }
+        }
+        if (measuring && allocatedAtStart >= 0) {
+            result.allocatedBytes = allocatedBytes() - allocatedAtStart;
+        }
+        ThreadInfo contentionAtEnd = threadInfo();
+        if (contentionAtStart != null && contentionAtEnd != null) {
+            result.blockedCount = contentionAtEnd.getBlockedCount() - contentionAtStart.getBlockedCount();
+            result.waitedCount = contentionAtEnd.getWaitedCount() - contentionAtStart.getWaitedCount();
+            if (contentionAtStart.getBlockedTime() >= 0 && contentionAtEnd.getBlockedTime() >= 0) {
+                result.blockedMillis = contentionAtEnd.getBlockedTime() - contentionAtStart.getBlockedTime();
+                result.waitedMillis = contentionAtEnd.getWaitedTime() - contentionAtStart.getWaitedTime();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Park until {@code nanoTime}, spinning for the last stretch: parking
+     * overshoots by tens of microseconds, which would count as latency.
+     */
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        while (System.nanoTime() < nanoTime) {
+            Thread.onSpinWait();
+        }
+    }
+
+    // ── JVM statistics ──────────────────────────────────────────────────────
+
+    /** Bytes allocated so far by the calling thread, or -1 if the JVM does not say. */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemoryEnabled()) {
+            return hotspot.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /** Contention counters of the calling thread. */
+    private static ThreadInfo threadInfo() {
+        return ManagementFactory.getThreadMXBean().getThreadInfo(Thread.currentThread().getId());
+    }
+
+    /** Collector name to {collection count, collection time in ms}. */
+    private static Map<String, long[]> gcSnapshot() {
+        Map<String, long[]> snapshot = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            snapshot.put(gc.getName(), new long[]{gc.getCollectionCount(), gc.getCollectionTime()});
+        }
+        return snapshot;
+    }
+
+    // ── Reporting ───────────────────────────────────────────────────────────
+
+    /** The worker results added up. */
+    private static final class Totals {
+        final Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long operations;
+        long fullyValid;
+        long errors;
+        long allocated;
+        String firstError;
+        long blockedCount;
+        long blockedMillis;
+        long waitedCount;
+        long waitedMillis;
+
+        Totals(List<WorkerResult> results) {
+            for (WorkerResult r : results) {
+                latency.add(r.latency);
+                operations += r.operations;
+                fullyValid += r.fullyValid;
+                errors += r.errors;
+                allocated = allocated < 0 || r.allocatedBytes < 0 ? -1 : allocated + r.allocatedBytes;
+                if (firstError == null) firstError = r.firstError;
+                blockedCount += r.blockedCount;
+                waitedCount += r.waitedCount;
+                blockedMillis = blockedMillis < 0 || r.blockedMillis < 0 ? -1 : blockedMillis + r.blockedMillis;
+                waitedMillis = waitedMillis < 0 || r.waitedMillis < 0 ? -1 : waitedMillis + r.waitedMillis;
+            }
+        }
+
+        Map<String, Object> contention() {
+            Map<String, Object> contention = new LinkedHashMap<>();
+            contention.put("blocked", blockedCount);
+            contention.put("blockedMs", blockedMillis);
+            contention.put("waited", waitedCount);
+            contention.put("waitedMs", waitedMillis);
+            return contention;
+        }
+
+        Map<String, Object> contentionPerOperation() {
+            long ops = Math.max(1, operations);
+            Map<String, Object> contention = new LinkedHashMap<>();
+            contention.put("blocked", round3((double) blockedCount / ops));
+            contention.put("blockedMicros", blockedMillis < 0 ? null : round3(blockedMillis * 1e3 / ops));
+            contention.put("waited", round3((double) waitedCount / ops));
+            contention.put("waitedMicros", waitedMillis < 0 ? null : round3(waitedMillis * 1e3 / ops));
+            return contention;
+        }
+    }
+
+    private Map<String, Object> report(LoadTestRequest request, int concurrency, Measurement measurement) {
+        Totals totals = new Totals(measurement.results());
+        Histogram latency = totals.latency;
+        long operations = totals.operations;
+        long allocated = totals.allocated;
+        double seconds = measurement.measuredNanos() / 1e9;
+        Map<String, long[]> gcBefore = measurement.gcBefore();
+        Map<String, long[]> gcAfter = measurement.gcAfter();
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("source", request.getSource());
+        if (SOURCE_SYNTHETIC.equals(request.getSource())) {
+            config.put("validPercent", request.getValidPercent());
+            config.put("seed", request.getSeed());
+        }
+        config.put("operation", request.getOperation());
+        config.put("ruleSet", request.getRuleSet());
+        config.put("concurrency", concurrency);
+        config.put("targetRate", request.getTargetRate());
+        config.put("warmupSeconds", request.getWarmupSeconds());
+        config.put("durationSeconds", request.getDurationSeconds());
+
+        Map<String, Object> latencyMicros = new LinkedHashMap<>();
+        latencyMicros.put("mean", round(latency.getMean() / 1e3));
+        latencyMicros.put("p50", micros(latency.getValueAtPercentile(50)));
+        latencyMicros.put("p90", micros(latency.getValueAtPercentile(90)));
+        latencyMicros.put("p99", micros(latency.getValueAtPercentile(99)));
+        latencyMicros.put("p999", micros(latency.getValueAtPercentile(99.9)));
+        latencyMicros.put("max", micros(latency.getMaxValue()));
+
+        Map<String, Object> collectors = new LinkedHashMap<>();
+        long collections = 0;
+        long gcMillis = 0;
+        for (Map.Entry<String, long[]> after : gcAfter.entrySet()) {
+            long[] before = gcBefore.getOrDefault(after.getKey(), new long[2]);
+            long count = after.getValue()[0] - before[0];
+            long millis = after.getValue()[1] - before[1];
+            collections += count;
+            gcMillis += millis;
+            collectors.put(after.getKey(), Map.of("collections", count, "timeMs", millis));
+        }
+        Map<String, Object> gc = new LinkedHashMap<>();
+        gc.put("collections", collections);
+        gc.put("timeMs", gcMillis);
+        gc.put("collectors", collectors);
+
+        Map<String, Object> allocation = new LinkedHashMap<>();
+        allocation.put("bytes", allocated);
+        allocation.put("bytesPerOperation", allocated < 0 || operations == 0 ? null : allocated / operations);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("config", config);
+        report.put("operations", operations);
+        report.put("errors", totals.errors);
+        report.put("firstError", totals.firstError);
+        report.put("fullyValid", totals.fullyValid);
+        report.put("throughputPerSecond", round(operations / seconds));
+        report.put("latencyMicros", latencyMicros);
+        report.put("gc", gc);
+        report.put("allocation", allocation);
+        report.put("contention", totals.contention());
+        return report;
+    }
+
+    private static double micros(long nanos) {
+        return round(nanos / 1e3);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static double round3(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
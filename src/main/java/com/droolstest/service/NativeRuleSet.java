@@ -0,0 +1,139 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ApplicantFact;
+import org.kie.api.runtime.rule.AgendaFilter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The rules of one rule set version that NativeRuleCompiler could translate
+ * into plain Java, plus the names of those it could not.
+ *
+ * apply() evaluates every translated condition against the fact first and
+ * only then runs the consequences of the rules that matched, in salience
+ * and then DRL order. That is what Drools does for these rules: their
+ * consequences never call update(), so nothing is re-evaluated after a
+ * consequence runs. Rules left to Drools are run afterwards through
+ * {@link #fallbackFilter}, so they fire and nothing else does.
+ */
+public class NativeRuleSet {
+
+    /** One translated rule: its condition and its consequence. */
+    public static final class Rule {
+        private final String name;
+        private final Predicate<ApplicantFact> condition;
+        private final Consumer<ApplicantFact> consequence;
+
+        public Rule(String name, Predicate<ApplicantFact> condition, Consumer<ApplicantFact> consequence) {
+            this.name = name;
+            this.condition = condition;
+            this.consequence = consequence;
+        }
+
+        public String getName() { return name; }
+    }
+
+    private final Rule[] rules;
+    private final Map<String, String> fallback;
+    private volatile Map<String, Object> verification;
+    private volatile boolean verified;
+
+    /**
+     * @param rules    translated rules, in firing order
+     * @param fallback rule name to the reason it could not be translated
+     */
+    public NativeRuleSet(List<Rule> rules, Map<String, String> fallback) {
+        this.rules = rules.toArray(new Rule[0]);
+        this.fallback = Map.copyOf(fallback);
+    }
+
+    /**
+     * Run the translated rules against {@code fact}.
+     */
+    public void apply(ApplicantFact fact) {
+        int n = rules.length;
+        if (n <= 64) {
+            long matched = 0;
+            for (int i = 0; i < n; i++) {
+                if (rules[i].condition.test(fact)) matched |= 1L << i;
+            }
+            for (int i = 0; i < n; i++) {
+                if ((matched & (1L << i)) != 0) rules[i].consequence.accept(fact);
+            }
+        } else {
+            boolean[] matched = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                matched[i] = rules[i].condition.test(fact);
+            }
+            for (int i = 0; i < n; i++) {
+                if (matched[i]) rules[i].consequence.accept(fact);
+            }
+        }
+    }
+
+    /**
+     * apply(), recording each match and each consequence's duration in {@code trace}.
+     */
+    public void apply(ApplicantFact fact, RuleTrace trace) {
+        boolean[] matched = new boolean[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            matched[i] = rules[i].condition.test(fact);
+            if (matched[i]) trace.matched(fact, rules[i].name);
+        }
+        for (int i = 0; i < rules.length; i++) {
+            if (!matched[i]) continue;
+            long start = System.nanoTime();
+            rules[i].consequence.accept(fact);
+            trace.fired(fact, rules[i].name, start, System.nanoTime());
+        }
+    }
+
+    /** Whether the rules agreed with Drools on every applicant they were checked on. */
+    public boolean isVerified() {
+        return verified;
+    }
+
+    /** Whether some rules still have to run in Drools. */
+    public boolean hasFallbackRules() {
+        return !fallback.isEmpty();
+    }
+
+    /**
+     * An agenda filter that lets only the untranslated rules fire, and of
+     * those only the ones {@code delegate} (if any) accepts.
+     */
+    public AgendaFilter fallbackFilter(AgendaFilter delegate) {
+        Set<String> names = fallback.keySet();
+        return match -> names.contains(match.getRule().getName())
+                && (delegate == null || delegate.accept(match));
+    }
+
+    // ── Reporting ───────────────────────────────────────────────────────────
+
+    void setVerification(Map<String, Object> verification) {
+        this.verification = verification;
+        this.verified = Boolean.TRUE.equals(verification.get("passed"));
+    }
+
+    public int nativeRuleCount() { return rules.length; }
+    public int fallbackRuleCount() { return fallback.size(); }
+
+    public Map<String, Object> getReport() {
+        List<String> nativeRules = new ArrayList<>(rules.length);
+        for (Rule rule : rules) {
+            nativeRules.add(rule.getName());
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("active", verified);
+        report.put("nativeRules", nativeRules);
+        report.put("droolsFallbackRules", fallback);
+        report.put("verification", verification);
+        return report;
+    }
+}
@@ -0,0 +1,139 @@
+package com.droolstest.service;
+
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.rules.ApplicantFact;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.kie.api.runtime.KieSession;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Differential check of a NativeRuleSet against Drools.
+ *
+ * Every applicant is validated twice from a copy of its input: once by
+ * Drools alone, once by the native rules followed by the Drools fallback
+ * rules. The resulting facts must be identical, compared as JSON with the
+ * result timestamps left out and the validation results sorted by key
+ * (the fallback rules record theirs after the native ones).
+ *
+ * The sessions used here carry no event listeners, so checking does not
+ * show up in the per-rule metrics.
+ */
+public final class NativeRuleVerifier {
+
+    static final String SAMPLE_RESOURCE = "/test-cases.json";
+    private static final int MAX_REPORTED_MISMATCHES = 10;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private NativeRuleVerifier() {}
+
+    /**
+     * The applicants of the bundled test-cases.json, or none if it is missing.
+     */
+    public static List<ApplicantFact> sampleApplicants() {
+        try (InputStream in = NativeRuleVerifier.class.getResourceAsStream(SAMPLE_RESOURCE)) {
+            if (in == null) {
+                return List.of();
+            }
+            return applicants(MAPPER.readValue(in, BatchValidationRequest.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + SAMPLE_RESOURCE, e);
+        }
+    }
+
+    public static List<ApplicantFact> applicants(BatchValidationRequest request) {
+        List<ApplicantFact> applicants = new ArrayList<>();
+        for (BatchValidationRequest.TestCase tc : request.getTestCases()) {
+            if (tc.getInput() != null && tc.getInput().getApplicant() != null) {
+                applicants.add(tc.getInput().getApplicant());
+            }
+        }
+        return applicants;
+    }
+
+    /**
+     * Run {@code applicants} through both engines and report any differences.
+     * The report's "passed" is true when every applicant came out the same.
+     */
+    public static Map<String, Object> verify(RuleBase rules, NativeRuleSet nativeRules,
+                                             List<ApplicantFact> applicants) {
+        long start = System.nanoTime();
+        List<Map<String, Object>> mismatches = new ArrayList<>();
+        int mismatchCount = 0;
+
+        for (int i = 0; i < applicants.size(); i++) {
+            ApplicantFact expected = applicants.get(i).copyInput();
+            KieSession session = rules.getKieBase().newKieSession();
+            try {
+                session.insert(expected);
+                session.fireAllRules();
+            } finally {
+                session.dispose();
+            }
+
+            ApplicantFact actual = applicants.get(i).copyInput();
+            nativeRules.apply(actual);
+            if (nativeRules.hasFallbackRules()) {
+                session = rules.getKieBase().newKieSession();
+                try {
+                    session.insert(actual);
+                    session.fireAllRules(nativeRules.fallbackFilter(null));
+                } finally {
+                    session.dispose();
+                }
+            }
+
+            JsonNode droolsOutcome = outcome(expected);
+            JsonNode nativeOutcome = outcome(actual);
+            if (!droolsOutcome.equals(nativeOutcome)) {
+                mismatchCount++;
+                if (mismatches.size() < MAX_REPORTED_MISMATCHES) {
+                    Map<String, Object> mismatch = new LinkedHashMap<>();
+                    mismatch.put("index", i);
+                    mismatch.put("drools", droolsOutcome);
+                    mismatch.put("native", nativeOutcome);
+                    mismatches.add(mismatch);
+                }
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("passed", mismatchCount == 0);
+        report.put("applicants", applicants.size());
+        report.put("mismatches", mismatchCount);
+        report.put("mismatchExamples", mismatches);
+        report.put("verifiedAt", Instant.now().toString());
+        report.put("durationMs", (System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    /** The fact as JSON, without timestamps and with results in key order. */
+    private static JsonNode outcome(ApplicantFact fact) {
+        ObjectNode tree = MAPPER.valueToTree(fact);
+        JsonNode results = tree.get("validationResults");
+        if (results instanceof ArrayNode array) {
+            List<JsonNode> sorted = new ArrayList<>();
+            for (JsonNode result : array) {
+                ((ObjectNode) result).remove("timestamp");
+                sorted.add(result);
+            }
+            sorted.sort(Comparator.comparing((JsonNode r) -> r.path("fieldName").asText())
+                    .thenComparing(r -> r.toString()));
+            array.removeAll();
+            array.addAll(sorted);
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,77 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ApplicantFact;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Splits a batch across the batch executor.
+ *
+ * With drools.batch.parallel.enabled, a batch is cut into at most
+ * drools.batch.max-parallelism contiguous chunks, each evaluated on the
+ * batch executor, and the results are reassembled in input order.
+ * Otherwise, or for a batch too small to split, it is evaluated whole on
+ * the calling thread. Chunks run as Unrecorded when the caller does.
+ */
+@Component
+public class ParallelBatch {
+
+    private final ExecutorService executor;
+    private final boolean enabled;
+    private final int maxParallelism;
+
+    public ParallelBatch(@Qualifier("batchExecutor") ExecutorService executor,
+                         @Value("${drools.batch.parallel.enabled:false}") boolean enabled,
+                         @Value("${drools.batch.max-parallelism:4}") int maxParallelism) {
+        this.executor = executor;
+        this.enabled = enabled;
+        this.maxParallelism = Math.max(1, maxParallelism);
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public int getMaxParallelism() { return maxParallelism; }
+
+    /**
+     * {@code evaluate} applied to chunks of {@code facts}, its results
+     * concatenated in the order of the facts.
+     */
+    <R> List<R> map(List<ApplicantFact> facts, Function<List<ApplicantFact>, List<R>> evaluate) {
+        int chunks = Math.min(maxParallelism, facts.size());
+        if (!enabled || chunks < 2) {
+            return evaluate.apply(facts);
+        }
+
+        int chunkSize = (facts.size() + chunks - 1) / chunks;
+        List<Future<List<R>>> futures = new ArrayList<>(chunks);
+        for (int from = 0; from < facts.size(); from += chunkSize) {
+            List<ApplicantFact> chunk = facts.subList(from, Math.min(from + chunkSize, facts.size()));
+            futures.add(executor.submit(Unrecorded.propagate(() -> evaluate.apply(chunk))));
+        }
+
+        List<R> results = new ArrayList<>(facts.size());
+        try {
+            for (Future<List<R>> future : futures) {
+                results.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during parallel batch evaluation", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Parallel batch evaluation failed", e.getCause());
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,152 @@
+package com.droolstest.service;
+
+import com.droolstest.config.ResultKeyAnalyzer;
+import com.droolstest.config.RuleReactivityAnalyzer;
+import com.droolstest.rules.ResultKeys;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.StatelessKieSession;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One compiled, versioned rule set and the sessions that run it.
+ *
+ * Reference counted: RuleBaseManager holds one reference while the rule set
+ * is active, and every validation holds one for its duration. When a reload
+ * swaps in a new RuleBase, the old one stays usable until its last
+ * in-flight validation releases it, and is only then disposed.
+ */
+public class RuleBase {
+
+    private final String ruleSet;
+    private final int version;
+    private final String checksum;
+    private final String source;
+    private final Instant loadedAt = Instant.now();
+    private final Map<String, String> sources;
+
+    private final KieContainer kieContainer;
+    private final KieBase kieBase;
+    private final KieSessionPool sessionPool;
+    private final StatelessKieSession statelessSession;
+    private final List<AgendaEventListener> listeners;
+
+    /** Translated rules for drools.engine.mode=native; null when not in use or not verified. */
+    private volatile NativeRuleSet nativeRules;
+    /** Properties each rule reacts to; worked out on first use by a stateful session. */
+    private volatile RuleReactivity reactivity;
+    /** Result keys the rules record; worked out on first validation. */
+    private volatile ResultKeys resultKeys;
+
+    private final AtomicInteger refs = new AtomicInteger(1);
+
+    RuleBase(String ruleSet, int version, String checksum, String source, Map<String, String> sources,
+             KieContainer kieContainer, int poolMaxSize, long poolMaxWaitMillis,
+             List<AgendaEventListener> listeners) {
+        this.ruleSet = ruleSet;
+        this.version = version;
+        this.checksum = checksum;
+        this.source = source;
+        this.sources = Map.copyOf(sources);
+        this.kieContainer = kieContainer;
+        this.kieBase = kieContainer.getKieBase();
+        this.listeners = List.copyOf(listeners);
+        this.sessionPool = new KieSessionPool(kieBase, poolMaxSize, poolMaxWaitMillis, this.listeners);
+        // A StatelessKieSession is thread-safe and reusable; each execute() gets its own working memory
+        this.statelessSession = kieBase.newStatelessKieSession();
+        this.listeners.forEach(statelessSession::addEventListener);
+    }
+
+    /**
+     * A new, unpooled session with the event listeners attached. The caller disposes it.
+     *
+     * Made from the cached KieBase: KieContainer.newKieSession() looks up
+     * the default session model and its KieBase on every call, and keeps the
+     * new session in the container's own map.
+     */
+    public KieSession newKieSession() {
+        KieSession session = kieBase.newKieSession();
+        listeners.forEach(session::addEventListener);
+        return session;
+    }
+
+    // ── Reference counting ──────────────────────────────────────────────────
+
+    /**
+     * Take a reference. Fails once the rule set has been disposed, which
+     * tells the caller to look up the newly active one instead.
+     */
+    boolean retain() {
+        while (true) {
+            int current = refs.get();
+            if (current == 0) return false;
+            if (refs.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    /**
+     * Drop a reference; the last one disposes the sessions and container.
+     */
+    public void release() {
+        if (refs.decrementAndGet() == 0) {
+            sessionPool.shutdown();
+            kieContainer.dispose();
+            KieServices.Factory.get().getRepository().removeKieModule(kieContainer.getReleaseId());
+            System.out.println("Disposed rule set " + getVersion());
+        }
+    }
+
+    // ── Getters ─────────────────────────────────────────────────────────────
+
+    /**
+     * Version label reported on every response, e.g. "3-9f1c2a4b", or
+     * "auto/3-9f1c2a4b" for a named rule set of the RuleSetRegistry.
+     */
+    public String getVersion() {
+        return isDefaultRuleSet() ? version + "-" + checksum : ruleSet + "/" + version + "-" + checksum;
+    }
+    public String getRuleSet() { return ruleSet; }
+    public boolean isDefaultRuleSet() { return RuleSetRegistry.DEFAULT.equals(ruleSet); }
+    public int getVersionNumber() { return version; }
+    public String getChecksum() { return checksum; }
+    public String getSource() { return source; }
+    public Instant getLoadedAt() { return loadedAt; }
+    public Map<String, String> getSources() { return sources; }
+
+    public KieContainer getKieContainer() { return kieContainer; }
+    public KieBase getKieBase() { return kieBase; }
+    public KieSessionPool getSessionPool() { return sessionPool; }
+    public StatelessKieSession getStatelessSession() { return statelessSession; }
+
+    public NativeRuleSet getNativeRules() { return nativeRules; }
+    void setNativeRules(NativeRuleSet nativeRules) { this.nativeRules = nativeRules; }
+
+    /**
+     * The result keys the rule set's consequences record, which decide
+     * totalRules, fullyValid and the keys listed in a response.
+     */
+    public ResultKeys getResultKeys() {
+        ResultKeys k = resultKeys;
+        if (k == null) {
+            k = ResultKeyAnalyzer.analyze(sources);
+            resultKeys = k;
+        }
+        return k;
+    }
+
+    public RuleReactivity getReactivity() {
+        RuleReactivity r = reactivity;
+        if (r == null) {
+            r = RuleReactivityAnalyzer.analyze(sources);
+            reactivity = r;
+        }
+        return r;
+    }
+}
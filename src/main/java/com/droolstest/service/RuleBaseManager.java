@@ -0,0 +1,252 @@
+package com.droolstest.service;
+
+import com.droolstest.config.NativeRuleCompiler;
+import com.droolstest.config.RuleCompiler;
+import org.kie.api.KieServices;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.runtime.KieContainer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * Owns the active RuleBase and swaps in new rule sets without stalling requests.
+ *
+ * Reloads compile on a single background thread, one at a time. Only a
+ * successful build is swapped in, with a single atomic reference update;
+ * a compilation failure is recorded and the working rule set stays active.
+ * Validations pin the RuleBase they started on (see {@link #acquire()}),
+ * so in-flight work always finishes on the version it began with.
+ *
+ * With native rules enabled, every rule set is also translated by
+ * NativeRuleCompiler before it is swapped in, and the translation is checked
+ * against Drools on the bundled test cases. Only a translation that agrees
+ * on every one is used; otherwise that version runs entirely in Drools.
+ */
+public class RuleBaseManager {
+
+    private final int poolMaxSize;
+    private final long poolMaxWaitMillis;
+    private final List<AgendaEventListener> listeners;
+    private final boolean nativeRules;
+    private final String ruleSet;
+
+    private final AtomicReference<RuleBase> active = new AtomicReference<>();
+    private final AtomicInteger versions = new AtomicInteger();
+    private final ExecutorService compiler = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "rule-reload");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile Instant lastReloadAt;
+    private volatile String lastReloadError;
+
+    /**
+     * @param listeners attached to every session of every rule set version
+     */
+    public RuleBaseManager(int poolMaxSize, long poolMaxWaitMillis, List<AgendaEventListener> listeners) {
+        this(poolMaxSize, poolMaxWaitMillis, listeners, false);
+    }
+
+    /**
+     * @param listeners   attached to every session of every rule set version
+     * @param nativeRules translate and verify every rule set for the native engine mode
+     */
+    public RuleBaseManager(int poolMaxSize, long poolMaxWaitMillis, List<AgendaEventListener> listeners,
+                           boolean nativeRules) {
+        this(poolMaxSize, poolMaxWaitMillis, listeners, nativeRules, RuleSetRegistry.DEFAULT);
+    }
+
+    /**
+     * @param ruleSet name of the rule set this manager serves, see RuleSetRegistry
+     */
+    public RuleBaseManager(int poolMaxSize, long poolMaxWaitMillis, List<AgendaEventListener> listeners,
+                           boolean nativeRules, String ruleSet) {
+        this.ruleSet = ruleSet;
+        this.poolMaxSize = poolMaxSize;
+        this.poolMaxWaitMillis = poolMaxWaitMillis;
+        this.listeners = List.copyOf(listeners);
+        this.nativeRules = nativeRules;
+    }
+
+    /**
+     * Take a reference to the active rule set. The caller must
+     * {@link RuleBase#release()} it when the validation is done.
+     */
+    public RuleBase acquire() {
+        RuleBase rules = tryAcquire();
+        if (rules == null) {
+            throw new IllegalStateException("No rule set loaded");
+        }
+        return rules;
+    }
+
+    /**
+     * Like {@link #acquire()}, but null once the manager has been shut down.
+     */
+    RuleBase tryAcquire() {
+        while (true) {
+            RuleBase current = active.get();
+            if (current == null) {
+                return null;
+            }
+            if (current.retain()) {
+                return current;
+            }
+            // Swapped out and disposed between get() and retain(); pick up the new one
+        }
+    }
+
+    /**
+     * The active rule set, for reporting only; not pinned against disposal.
+     */
+    public RuleBase getActive() {
+        return active.get();
+    }
+
+    /**
+     * Make an already-built container the active rule set.
+     */
+    public RuleBase install(KieContainer container, Map<String, String> sources, String source) {
+        RuleBase ruleBase = new RuleBase(ruleSet, versions.incrementAndGet(), checksum(sources), source,
+                sources, container, poolMaxSize, poolMaxWaitMillis, listeners);
+        if (nativeRules) {
+            attachNativeRules(ruleBase);
+        }
+        RuleBase previous = active.getAndSet(ruleBase);
+        if (previous != null) {
+            previous.release();
+        }
+        System.out.println("Active rule set " + ruleBase.getVersion() + " (" + source + ")");
+        return ruleBase;
+    }
+
+    /**
+     * Translate the rule set into Java and verify the translation against
+     * Drools. The result is kept on the RuleBase for reporting either way.
+     */
+    private void attachNativeRules(RuleBase ruleBase) {
+        long start = System.nanoTime();
+        NativeRuleSet translated;
+        try {
+            translated = NativeRuleCompiler.compile(ruleBase.getSources());
+        } catch (RuntimeException e) {
+            System.out.println("Native rules for " + ruleBase.getVersion()
+                    + " unavailable, running all rules in Drools: " + e.getMessage());
+            return;
+        }
+        Map<String, Object> verification = NativeRuleVerifier.verify(ruleBase, translated,
+                NativeRuleVerifier.sampleApplicants());
+        translated.setVerification(verification);
+        ruleBase.setNativeRules(translated);
+        if (translated.isVerified()) {
+            System.out.printf("Native rules for %s: %d translated, %d left to Drools, "
+                            + "matched Drools on %s applicants (%d ms)%n",
+                    ruleBase.getVersion(), translated.nativeRuleCount(), translated.fallbackRuleCount(),
+                    verification.get("applicants"), (System.nanoTime() - start) / 1_000_000);
+        } else {
+            System.out.println("Native rules for " + ruleBase.getVersion() + " differ from Drools on "
+                    + verification.get("mismatches") + " of " + verification.get("applicants")
+                    + " applicants; running all rules in Drools");
+        }
+    }
+
+    /**
+     * Compile {@code sources} in the background and swap them in on success.
+     * The future completes exceptionally with a RuleCompilationException if
+     * the DRL does not compile; the current rule set then stays active.
+     */
+    public CompletableFuture<RuleBase> reload(Map<String, String> sources, String source) {
+        Map<String, String> snapshot = new TreeMap<>(sources);
+        return CompletableFuture.supplyAsync(() -> {
+            lastReloadAt = Instant.now();
+            try {
+                int next = versions.get() + 1;
+                ReleaseId releaseId = KieServices.Factory.get()
+                        .newReleaseId("com.droolstest", releaseArtifact(ruleSet), "1.0." + next);
+                KieContainer container = RuleCompiler.compile(snapshot, releaseId);
+                lastReloadError = null;
+                return install(container, snapshot, source);
+            } catch (RuntimeException e) {
+                lastReloadError = e.getMessage();
+                System.out.println("Rule reload from " + source + " failed, keeping "
+                        + active.get().getVersion() + ":\n" + e.getMessage());
+                throw e;
+            }
+        }, compiler);
+    }
+
+    /**
+     * Add or replace one DRL file in the active rule set and reload.
+     */
+    public CompletableFuture<RuleBase> upload(String fileName, String drl) {
+        Map<String, String> sources = new TreeMap<>(active.get().getSources());
+        sources.put(fileName, drl);
+        return reload(sources, "upload " + fileName);
+    }
+
+    /**
+     * Replace the rule set with the .drl files in {@code dir} and reload.
+     */
+    public CompletableFuture<RuleBase> reloadDirectory(Path dir) {
+        try {
+            return reload(RuleCompiler.loadDirectoryRules(dir), "directory " + dir);
+        } catch (IOException e) {
+            lastReloadError = "Cannot read " + dir + ": " + e.getMessage();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public String getRuleSet() {
+        return ruleSet;
+    }
+
+    /** Maven artifact id of this rule set's KieModules; one per rule set, so their release ids never clash. */
+    static String releaseArtifact(String ruleSet) {
+        return RuleSetRegistry.DEFAULT.equals(ruleSet) ? "rules" : "rules-" + ruleSet;
+    }
+
+    public Map<String, Object> getStatus() {
+        RuleBase current = active.get();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("ruleSet", ruleSet);
+        status.put("version", current.getVersion());
+        status.put("source", current.getSource());
+        status.put("loadedAt", current.getLoadedAt().toString());
+        status.put("files", current.getSources().keySet());
+        status.put("lastReloadAt", lastReloadAt == null ? null : lastReloadAt.toString());
+        status.put("lastReloadError", lastReloadError);
+        return status;
+    }
+
+    public void shutdown() {
+        compiler.shutdownNow();
+        RuleBase current = active.getAndSet(null);
+        if (current != null) {
+            current.release();
+        }
+    }
+
+    static String checksum(Map<String, String> sources) {
+        CRC32 crc = new CRC32();
+        sources.forEach((name, drl) -> {
+            crc.update(name.getBytes(StandardCharsets.UTF_8));
+            crc.update(drl.getBytes(StandardCharsets.UTF_8));
+        });
+        return String.format("%08x", crc.getValue());
+    }
+}
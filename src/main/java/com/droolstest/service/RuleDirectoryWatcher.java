@@ -0,0 +1,114 @@
+package com.droolstest.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches drools.rules.watch-dir and reloads the rule set when a .drl file
+ * in it is created, changed or deleted. Disabled when the property is empty.
+ *
+ * Editors and copy tools often produce several events per save, so changes
+ * are debounced: the reload starts once the directory has been quiet for
+ * DEBOUNCE_MILLIS. The reload itself compiles in the background and only
+ * replaces the active rule set if the new DRL compiles.
+ */
+@Component
+public class RuleDirectoryWatcher {
+
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final RuleBaseManager ruleBaseManager;
+    private final String watchDir;
+
+    private WatchService watchService;
+    private Thread thread;
+
+    public RuleDirectoryWatcher(RuleBaseManager ruleBaseManager,
+                                @Value("${drools.rules.watch-dir:}") String watchDir) {
+        this.ruleBaseManager = ruleBaseManager;
+        this.watchDir = watchDir;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (watchDir == null || watchDir.isBlank()) {
+            return;
+        }
+        Path dir = Paths.get(watchDir).toAbsolutePath();
+        if (!Files.isDirectory(dir)) {
+            throw new IllegalStateException("drools.rules.watch-dir is not a directory: " + dir);
+        }
+
+        watchService = dir.getFileSystem().newWatchService();
+        dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+        // Rules already in the directory take over from the packaged ones
+        if (hasDrlFiles(dir)) {
+            ruleBaseManager.reloadDirectory(dir);
+        }
+
+        thread = new Thread(() -> watch(dir), "rule-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        System.out.println("Watching " + dir + " for DRL changes");
+    }
+
+    private void watch(Path dir) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean drlChanged = drainDrlEvents(key);
+
+                // Debounce: keep absorbing events until the directory goes quiet
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    drlChanged |= drainDrlEvents(next);
+                }
+
+                if (drlChanged) {
+                    ruleBaseManager.reloadDirectory(dir);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private boolean drainDrlEvents(WatchKey key) {
+        boolean drlChanged = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || (context instanceof Path p && p.toString().endsWith(".drl"))) {
+                drlChanged = true;
+            }
+        }
+        key.reset();
+        return drlChanged;
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private static boolean hasDrlFiles(Path dir) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.drl")) {
+            return files.iterator().hasNext();
+        }
+    }
+}
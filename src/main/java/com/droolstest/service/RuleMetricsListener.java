@@ -0,0 +1,83 @@
+package com.droolstest.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.event.rule.MatchCreatedEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-rule Micrometer metrics, tagged with the rule name from the DRL:
+ *
+ *   drools.rule.matches - activations created (the rule's conditions matched)
+ *   drools.rule.fired   - timer over the rule's consequence; its count is
+ *                         the number of firings
+ *
+ * One instance is attached to every session. Matches fire on the thread
+ * that inserts the fact and consequences on the thread calling
+ * fireAllRules(), so the consequence start time is kept per thread.
+ *
+ * Nothing is recorded for validations marked Unrecorded, such as the
+ * startup warmup's.
+ *
+ * Meters are looked up with a plain get() first: computeIfAbsent() can lock
+ * the map bin even when the meter already exists, and these run for every
+ * match and firing on every request thread.
+ */
+@Component
+public class RuleMetricsListener extends DefaultAgendaEventListener {
+
+    private final MeterRegistry registry;
+    private final Map<String, Counter> matches = new ConcurrentHashMap<>();
+    private final Map<String, Timer> fired = new ConcurrentHashMap<>();
+    private final ThreadLocal<long[]> consequenceStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    public RuleMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void matchCreated(MatchCreatedEvent event) {
+        if (Unrecorded.isActive()) {
+            return;
+        }
+        String rule = event.getMatch().getRule().getName();
+        Counter counter = matches.get(rule);
+        if (counter == null) {
+            counter = matches.computeIfAbsent(rule, r -> Counter.builder("drools.rule.matches")
+                    .description("Rule activations created")
+                    .tag("rule", r)
+                    .register(registry));
+        }
+        counter.increment();
+    }
+
+    @Override
+    public void beforeMatchFired(BeforeMatchFiredEvent event) {
+        consequenceStart.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    public void afterMatchFired(AfterMatchFiredEvent event) {
+        if (Unrecorded.isActive()) {
+            return;
+        }
+        long elapsed = System.nanoTime() - consequenceStart.get()[0];
+        String rule = event.getMatch().getRule().getName();
+        Timer timer = fired.get(rule);
+        if (timer == null) {
+            timer = fired.computeIfAbsent(rule, r -> Timer.builder("drools.rule.fired")
+                    .description("Rule consequence execution time; count is the number of firings")
+                    .tag("rule", r)
+                    .register(registry));
+        }
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,184 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ApplicantFact;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Always-on sampled rule profiling.
+ *
+ * A drools.trace.sample-rate share of the applicants of /api/validate and
+ * /api/validate/batch requests are traced as if they had asked for
+ * ?trace=true, at most MAX_SAMPLED_PER_BATCH of one batch; their traces
+ * stay out of the response and are folded in here instead: per-rule totals
+ * since startup (or the last reset) and the last drools.trace.keep sampled
+ * requests, each with the timeline of its slowest applicant. Sampling
+ * draws one random number per request and one more per applicant sampled,
+ * or nothing at a rate of 0.
+ */
+@Component
+public class RuleProfiler {
+
+    private static final class RuleTotals {
+        final LongAdder matched = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+        final LongAdder fired = new LongAdder();
+        final LongAdder fireNanos = new LongAdder();
+        final AtomicLong maxFireNanos = new AtomicLong();
+    }
+
+    /** Most applicants of one batch that are traced, however large the batch. */
+    static final int MAX_SAMPLED_PER_BATCH = 16;
+
+    private final double sampleRate;
+    private final int keep;
+
+    private final Map<String, RuleTotals> rules = new ConcurrentHashMap<>();
+    private final Deque<Map<String, Object>> recent = new ArrayDeque<>();
+    private final AtomicLong sampled = new AtomicLong();
+    private final AtomicLong sampledApplicants = new AtomicLong();
+    private volatile Instant since = Instant.now();
+
+    public RuleProfiler(@Value("${drools.trace.sample-rate:0}") double sampleRate,
+                        @Value("${drools.trace.keep:50}") int keep) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("drools.trace.sample-rate must be between 0 and 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        this.keep = Math.max(0, keep);
+        if (sampleRate > 0) {
+            System.out.printf("Rule profiling samples %.2f%% of validations%n", sampleRate * 100);
+        }
+    }
+
+    /** Whether to trace the current single-applicant request. */
+    public boolean sample() {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * The applicants of a batch to trace: each is sampled on its own at the
+     * sample rate, up to MAX_SAMPLED_PER_BATCH of them. The gap to the next
+     * sampled applicant is drawn directly, so unsampled applicants cost
+     * nothing. Empty if none is sampled.
+     */
+    List<ApplicantFact> sample(List<ApplicantFact> facts) {
+        if (sampleRate == 0 || facts.isEmpty()) {
+            return List.of();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double logMiss = Math.log1p(-sampleRate);
+        List<ApplicantFact> sampled = new ArrayList<>();
+        for (long i = gap(random, logMiss); i < facts.size() && sampled.size() < MAX_SAMPLED_PER_BATCH;
+             i += 1 + gap(random, logMiss)) {
+            sampled.add(facts.get((int) i));
+        }
+        return sampled;
+    }
+
+    /** Applicants skipped before the next sampled one: geometric, with success rate sampleRate. */
+    private static long gap(ThreadLocalRandom random, double logMiss) {
+        // log1p(-1) is -Infinity at a rate of 1, which makes every gap 0
+        return (long) (Math.log(1 - random.nextDouble()) / logMiss);
+    }
+
+    /**
+     * Fold in the trace of a sampled request.
+     *
+     * @param endpoint "validate" or "batch"
+     */
+    void record(String endpoint, String ruleSetVersion, RuleTrace trace) {
+        sampled.incrementAndGet();
+        sampledApplicants.addAndGet(trace.factCount());
+        trace.ruleTotals().forEach((name, stats) -> {
+            RuleTotals totals = rules.computeIfAbsent(name, n -> new RuleTotals());
+            totals.matched.add(stats.matched);
+            totals.cancelled.add(stats.cancelled);
+            totals.fired.add(stats.fired);
+            totals.fireNanos.add(stats.fireNanos);
+            totals.maxFireNanos.accumulateAndGet(stats.maxFireNanos, Math::max);
+        });
+        if (keep == 0) {
+            return;
+        }
+
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("sampledAt", Instant.now().toString());
+        entry.put("endpoint", endpoint);
+        entry.put("ruleSetVersion", ruleSetVersion);
+        entry.put("applicants", trace.factCount());
+        entry.put("elapsedNanos", trace.elapsedNanos());
+        ApplicantFact slowest = trace.slowestFact();
+        if (slowest != null) {
+            entry.put("slowestApplicant", trace.report(slowest));
+        }
+        synchronized (recent) {
+            if (recent.size() == keep) {
+                recent.removeFirst();
+            }
+            recent.addLast(entry);
+        }
+    }
+
+    public long getSampled() {
+        return sampled.get();
+    }
+
+    /**
+     * Per-rule totals, by rule name, and the most recent sampled requests, newest first.
+     */
+    public Map<String, Object> getProfile() {
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("sampleRate", sampleRate);
+        profile.put("since", since.toString());
+        profile.put("sampledRequests", sampled.get());
+        profile.put("sampledApplicants", sampledApplicants.get());
+
+        Map<String, Object> byRule = new TreeMap<>();
+        rules.forEach((name, totals) -> {
+            long fired = totals.fired.sum();
+            Map<String, Object> rule = new LinkedHashMap<>();
+            rule.put("matched", totals.matched.sum());
+            rule.put("cancelled", totals.cancelled.sum());
+            rule.put("fired", fired);
+            rule.put("fireNanos", totals.fireNanos.sum());
+            rule.put("avgFireNanos", fired == 0 ? 0 : totals.fireNanos.sum() / fired);
+            rule.put("maxFireNanos", totals.maxFireNanos.get());
+            byRule.put(name, rule);
+        });
+        profile.put("rules", byRule);
+
+        List<Map<String, Object>> latest;
+        synchronized (recent) {
+            latest = new ArrayList<>(recent);
+        }
+        Collections.reverse(latest);
+        profile.put("recent", latest);
+        return profile;
+    }
+
+    /** Drop everything collected so far. */
+    public void reset() {
+        rules.clear();
+        synchronized (recent) {
+            recent.clear();
+        }
+        sampled.set(0);
+        sampledApplicants.set(0);
+        since = Instant.now();
+    }
+}
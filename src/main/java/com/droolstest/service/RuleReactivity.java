@@ -0,0 +1,80 @@
+package com.droolstest.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Which ApplicantFact properties each rule of a rule set reacts to, as
+ * worked out by RuleReactivityAnalyzer.
+ *
+ * Drools is property reactive: after update(handle, fact, properties...)
+ * it only re-evaluates the patterns that constrain one of those
+ * properties. A rule that reacts to none of them keeps its match, or lack
+ * of one, and does not fire again. Rules the analyzer could not pin down
+ * are listed with the reason; while there are any, every change has to be
+ * treated as touching every rule.
+ */
+public final class RuleReactivity {
+
+    private final Map<String, Set<String>> propertiesByRule;
+    private final Map<String, String> unresolved;
+
+    /**
+     * @param propertiesByRule rule name to the properties its conditions read
+     * @param unresolved       rule name to the reason its properties are unknown
+     */
+    public RuleReactivity(Map<String, Set<String>> propertiesByRule, Map<String, String> unresolved) {
+        this.propertiesByRule = Map.copyOf(propertiesByRule);
+        this.unresolved = Map.copyOf(unresolved);
+    }
+
+    /** Whether every rule's properties are known. */
+    public boolean isComplete() {
+        return unresolved.isEmpty();
+    }
+
+    /**
+     * The rules that re-evaluate when {@code properties} change, or null if
+     * that is not known because some rule could not be analyzed.
+     */
+    public List<String> rulesReactingTo(Collection<String> properties) {
+        if (!isComplete()) {
+            return null;
+        }
+        List<String> rules = new ArrayList<>();
+        propertiesByRule.forEach((rule, read) -> {
+            for (String property : properties) {
+                if (read.contains(property)) {
+                    rules.add(rule);
+                    return;
+                }
+            }
+        });
+        rules.sort(null);
+        return rules;
+    }
+
+    /** Every rule of the set, resolved or not, by name. */
+    public List<String> getRuleNames() {
+        List<String> names = new ArrayList<>(propertiesByRule.keySet());
+        names.addAll(unresolved.keySet());
+        names.sort(null);
+        return names;
+    }
+
+    public Map<String, Set<String>> getPropertiesByRule() { return propertiesByRule; }
+    public Map<String, String> getUnresolved() { return unresolved; }
+
+    public Map<String, Object> getReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("complete", isComplete());
+        report.put("rules", new TreeMap<>(propertiesByRule));
+        report.put("unresolved", new TreeMap<>(unresolved));
+        return report;
+    }
+}
@@ -0,0 +1,190 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ApplicantFact;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.drools.commands.runtime.rule.FireAllRulesCommand;
+import org.kie.api.KieServices;
+import org.kie.api.command.BatchExecutionCommand;
+import org.kie.api.command.KieCommands;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.AgendaFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Runs the rules of a RuleBase against facts in one working memory, the
+ * way drools.session.mode and drools.engine.mode say.
+ *
+ * Session modes:
+ *   pooled    - borrow a reusable session from the KieSessionPool (default)
+ *   per-call  - build a fresh session from the container and dispose it
+ *   stateless - insert every fact and fire once, as a single command batch
+ *               on the rule set's StatelessKieSession
+ *
+ * Engine modes:
+ *   drools - every rule runs in Drools (default)
+ *   native - rules NativeRuleCompiler could translate run as plain Java on
+ *            the calling thread, without a session; the rest still fire in
+ *            Drools, filtered down to just those rules. A rule set whose
+ *            translation did not match Drools runs entirely in Drools.
+ *
+ * The stateless session is shared and cannot take a listener per request,
+ * so a traced run uses a new stateful session instead.
+ */
+@Component
+public class RuleRunner {
+
+    public static final String MODE_POOLED = "pooled";
+    public static final String MODE_PER_CALL = "per-call";
+    public static final String MODE_STATELESS = "stateless";
+
+    public static final String ENGINE_DROOLS = "drools";
+    public static final String ENGINE_NATIVE = "native";
+
+    private final String sessionMode;
+    private final boolean nativeEngine;
+    private final KieCommands commands = KieServices.Factory.get().getCommands();
+
+    private final Timer sessionCreateTimer;
+    private final Timer sessionDisposeTimer;
+
+    public RuleRunner(RuleSetRegistry ruleSets,
+                      MeterRegistry meterRegistry,
+                      @Value("${drools.session.mode:pooled}") String sessionMode,
+                      @Value("${drools.engine.mode:drools}") String engineMode) {
+        if (!MODE_POOLED.equals(sessionMode) && !MODE_PER_CALL.equals(sessionMode)
+                && !MODE_STATELESS.equals(sessionMode)) {
+            throw new IllegalArgumentException("Unknown drools.session.mode: " + sessionMode
+                    + " (expected " + MODE_POOLED + ", " + MODE_PER_CALL + " or " + MODE_STATELESS + ")");
+        }
+        if (!ENGINE_DROOLS.equals(engineMode) && !ENGINE_NATIVE.equals(engineMode)) {
+            throw new IllegalArgumentException("Unknown drools.engine.mode: " + engineMode
+                    + " (expected " + ENGINE_DROOLS + " or " + ENGINE_NATIVE + ")");
+        }
+        this.sessionMode = sessionMode;
+        this.nativeEngine = ENGINE_NATIVE.equals(engineMode);
+
+        sessionCreateTimer = Timer.builder("drools.session.create")
+                .description("Time to obtain a KieSession, including waiting for the pool")
+                .tag("mode", sessionMode)
+                .register(meterRegistry);
+        sessionDisposeTimer = Timer.builder("drools.session.dispose")
+                .description("Time to dispose a KieSession or reset it for the pool")
+                .tag("mode", sessionMode)
+                .register(meterRegistry);
+        RuleBaseManager manager = ruleSets.getDefault();
+        Gauge.builder("drools.session.pool.in.use", manager, m -> poolStat(m, KieSessionPool::getInUse))
+                .description("KieSessions checked out of the active rule set's pool")
+                .register(meterRegistry);
+        Gauge.builder("drools.session.pool.waiting", manager, m -> poolStat(m, KieSessionPool::getWaiting))
+                .description("Requests waiting for a pooled KieSession")
+                .register(meterRegistry);
+    }
+
+    private static double poolStat(RuleBaseManager manager, ToIntFunction<KieSessionPool> stat) {
+        RuleBase active = manager.getActive();
+        return active == null ? Double.NaN : stat.applyAsInt(active.getSessionPool());
+    }
+
+    public String getSessionMode() { return sessionMode; }
+    public String getEngineMode() { return nativeEngine ? ENGINE_NATIVE : ENGINE_DROOLS; }
+
+    /** Whether rules of {@code rules} run as plain Java; false in drools engine mode. */
+    boolean runsNatively(RuleBase rules) {
+        NativeRuleSet nativeRules = rules.getNativeRules();
+        return nativeEngine && nativeRules != null && nativeRules.isVerified();
+    }
+
+    /**
+     * Insert {@code facts} into one working memory and fire once, through
+     * {@code filter} and with {@code trace} listening if not null. The rules
+     * only ever match one ApplicantFact each, so facts sharing a working
+     * memory cannot affect each other's results.
+     *
+     * In native engine mode the translated rules run first, and only the
+     * rules left to Drools fire in the session, if there are any.
+     */
+    void run(RuleBase rules, List<ApplicantFact> facts, AgendaFilter filter, RuleTrace trace) {
+        if (runsNatively(rules)) {
+            NativeRuleSet nativeRules = rules.getNativeRules();
+            for (ApplicantFact fact : facts) {
+                if (trace == null) {
+                    nativeRules.apply(fact);
+                } else {
+                    nativeRules.apply(fact, trace);
+                }
+            }
+            if (!nativeRules.hasFallbackRules()) {
+                return;
+            }
+            filter = nativeRules.fallbackFilter(filter);
+        }
+        boolean recorded = !Unrecorded.isActive();
+        if (MODE_STATELESS.equals(sessionMode) && trace == null) {
+            executeStateless(rules, facts, filter);
+        } else if (!MODE_POOLED.equals(sessionMode)) {
+            long start = System.nanoTime();
+            KieSession session = rules.newKieSession();
+            if (recorded) sessionCreateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            try {
+                fire(session, facts, filter, trace);
+            } finally {
+                start = System.nanoTime();
+                session.dispose();
+                if (recorded) sessionDisposeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        } else {
+            KieSessionPool pool = rules.getSessionPool();
+            long start = System.nanoTime();
+            KieSession session = pool.acquire();
+            if (recorded) sessionCreateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            try {
+                fire(session, facts, filter, trace);
+            } finally {
+                start = System.nanoTime();
+                pool.release(session);
+                if (recorded) sessionDisposeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void fire(KieSession session, List<ApplicantFact> facts, AgendaFilter filter, RuleTrace trace) {
+        if (trace != null) {
+            session.addEventListener((AgendaEventListener) trace);
+            session.addEventListener((RuleRuntimeEventListener) trace);
+        }
+        try {
+            for (ApplicantFact fact : facts) {
+                session.insert(fact);
+            }
+            if (filter == null) {
+                session.fireAllRules();
+            } else {
+                session.fireAllRules(filter);
+            }
+        } finally {
+            if (trace != null) {
+                session.removeEventListener((AgendaEventListener) trace);
+                session.removeEventListener((RuleRuntimeEventListener) trace);
+            }
+        }
+    }
+
+    /**
+     * Insert every fact and fire once, as a single BatchExecutionCommand.
+     */
+    private void executeStateless(RuleBase rules, List<ApplicantFact> facts, AgendaFilter filter) {
+        BatchExecutionCommand batch = commands.newBatchExecution(List.of(
+                commands.newInsertElements(facts),
+                filter == null ? commands.newFireAllRules() : new FireAllRulesCommand(filter)));
+        rules.getStatelessSession().execute(batch);
+    }
+}
@@ -0,0 +1,397 @@
+package com.droolstest.service;
+
+import com.droolstest.config.RuleCompiler;
+import org.kie.api.KieServices;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.runtime.KieContainer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Named rule sets, one per product line, next to the default one.
+ *
+ * Each subdirectory of drools.rulesets.dir is a rule set named after the
+ * directory and holding its .drl files. A rule set is compiled on its
+ * first request, on the requesting thread; requests that arrive for it
+ * while it compiles wait for that one compilation instead of starting
+ * their own. Every loaded rule set is a RuleBaseManager of its own, with
+ * its own session pool and versions.
+ *
+ * Loaded rule sets are evicted least recently used first, when more than
+ * drools.rulesets.max-loaded are loaded, or when a new one is loaded while
+ * the heap left after the last garbage collection is above
+ * drools.rulesets.max-heap-percent of the maximum. Eviction only drops the
+ * registry's reference: validations already running on the rule set finish
+ * on it, and the next request for it compiles it again. The default rule
+ * set is never evicted.
+ *
+ * A rule set that fails to compile is not retried on every request: the
+ * failure is kept with a stamp of the names, sizes and modification times
+ * of its files, and requests fail with it straight away, without reading
+ * any file, until the stamp changes.
+ */
+public class RuleSetRegistry {
+
+    public static final String DEFAULT = "default";
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]{0,63}");
+
+    private final RuleBaseManager defaultRules;
+    private final Path dir;
+    private final int maxLoaded;
+    private final int maxHeapPercent;
+
+    private final int poolMaxSize;
+    private final long poolMaxWaitMillis;
+    private final List<AgendaEventListener> listeners;
+    private final boolean nativeRules;
+
+    private final ConcurrentHashMap<String, CompletableFuture<LoadedRuleSet>> loaded = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, FailedCompilation> failures = new ConcurrentHashMap<>();
+    private final AtomicInteger loadSequence = new AtomicInteger();
+
+    private final LongAdder compilations = new LongAdder();
+    private final LongAdder compilationFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** A registry that serves only the default rule set. */
+    public RuleSetRegistry(RuleBaseManager defaultRules) {
+        this(defaultRules, null, 0, 100, 0, 0, List.of(), false);
+    }
+
+    /**
+     * @param dir            directory of named rule sets; null serves only the default one
+     * @param maxLoaded      most named rule sets kept compiled at once
+     * @param maxHeapPercent heap occupancy after GC above which loading one evicts another
+     * @param listeners      attached to every session of every named rule set
+     * @param nativeRules    translate named rule sets for the native engine mode
+     */
+    public RuleSetRegistry(RuleBaseManager defaultRules, Path dir, int maxLoaded, int maxHeapPercent,
+                           int poolMaxSize, long poolMaxWaitMillis, List<AgendaEventListener> listeners,
+                           boolean nativeRules) {
+        this.defaultRules = defaultRules;
+        this.dir = dir;
+        this.maxLoaded = Math.max(1, maxLoaded);
+        this.maxHeapPercent = maxHeapPercent;
+        this.poolMaxSize = poolMaxSize;
+        this.poolMaxWaitMillis = poolMaxWaitMillis;
+        this.listeners = List.copyOf(listeners);
+        this.nativeRules = nativeRules;
+    }
+
+    /** One compiled named rule set and its usage. */
+    private static final class LoadedRuleSet {
+        final String name;
+        final RuleBaseManager manager;
+        final Instant loadedAt = Instant.now();
+        final long compileMillis;
+        final LongAdder requests = new LongAdder();
+        volatile long lastUsedNanos = System.nanoTime();
+        volatile Instant lastUsedAt = loadedAt;
+
+        LoadedRuleSet(String name, RuleBaseManager manager, long compileMillis) {
+            this.name = name;
+            this.manager = manager;
+            this.compileMillis = compileMillis;
+        }
+
+        void touch() {
+            requests.increment();
+            lastUsedNanos = System.nanoTime();
+            lastUsedAt = Instant.now();
+        }
+    }
+
+    /** Why a rule set's files, as of {@code stamp}, did not compile. */
+    private record FailedCompilation(String stamp, String checksum, RuntimeException error, Instant failedAt) {}
+
+    public RuleBaseManager getDefault() {
+        return defaultRules;
+    }
+
+    /**
+     * Take a reference to the active version of rule set {@code name}
+     * (null or "default" for the default rule set), compiling it first if
+     * it is not loaded. The caller must {@link RuleBase#release()} it.
+     *
+     * @throws UnknownRuleSetException if there is no such rule set
+     * @throws com.droolstest.config.RuleCompilationException if its DRL does not compile
+     */
+    public RuleBase acquire(String name) {
+        if (name == null || DEFAULT.equals(name)) {
+            return defaultRules.acquire();
+        }
+        while (true) {
+            LoadedRuleSet ruleSet = load(name);
+            ruleSet.touch();
+            RuleBase rules = ruleSet.manager.tryAcquire();
+            if (rules != null) {
+                return rules;
+            }
+            // Evicted between load() and tryAcquire(); load it again
+        }
+    }
+
+    private LoadedRuleSet load(String name) {
+        CompletableFuture<LoadedRuleSet> future = loaded.get(name);
+        if (future == null) {
+            Path ruleSetDir = ruleSetDir(name);
+            // Taken before the files are read, so a change while reading shows next time
+            String stamp = stamp(name, ruleSetDir);
+            FailedCompilation failed = failures.get(name);
+            if (failed != null && failed.stamp().equals(stamp)) {
+                throw failed.error();
+            }
+            CompletableFuture<LoadedRuleSet> created = new CompletableFuture<>();
+            future = loaded.putIfAbsent(name, created);
+            if (future == null) {
+                future = created;
+                Map<String, String> sources = null;
+                try {
+                    sources = sources(name, ruleSetDir);
+                    created.complete(compile(name, sources));
+                    failures.remove(name);
+                } catch (RuntimeException e) {
+                    if (sources != null) {
+                        failures.put(name, new FailedCompilation(stamp, RuleBaseManager.checksum(sources),
+                                e, Instant.now()));
+                    }
+                    loaded.remove(name, created);
+                    created.completeExceptionally(e);
+                }
+                evictFor(name);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    private Path ruleSetDir(String name) {
+        if (dir == null || !NAME.matcher(name).matches() || !Files.isDirectory(dir.resolve(name))) {
+            throw new UnknownRuleSetException("Unknown rule set: " + name);
+        }
+        return dir.resolve(name);
+    }
+
+    /**
+     * Names, sizes and modification times of the rule set's .drl files, in
+     * name order. Taking it reads no file content.
+     */
+    private static String stamp(String name, Path ruleSetDir) {
+        Map<String, String> files = new TreeMap<>();
+        try (DirectoryStream<Path> drls = Files.newDirectoryStream(ruleSetDir, "*.drl")) {
+            for (Path drl : drls) {
+                BasicFileAttributes attributes = Files.readAttributes(drl, BasicFileAttributes.class);
+                files.put(drl.getFileName().toString(),
+                        attributes.size() + "@" + attributes.lastModifiedTime().toMillis());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read rule set " + name, e);
+        }
+        return files.toString();
+    }
+
+    private static Map<String, String> sources(String name, Path ruleSetDir) {
+        Map<String, String> sources;
+        try {
+            sources = RuleCompiler.loadDirectoryRules(ruleSetDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read rule set " + name, e);
+        }
+        if (sources.isEmpty()) {
+            throw new UnknownRuleSetException("Rule set " + name + " has no .drl files");
+        }
+        return sources;
+    }
+
+    private LoadedRuleSet compile(String name, Map<String, String> sources) {
+        long start = System.nanoTime();
+        try {
+            ReleaseId releaseId = KieServices.Factory.get().newReleaseId("com.droolstest",
+                    RuleBaseManager.releaseArtifact(name), "0." + loadSequence.incrementAndGet() + ".0");
+            KieContainer container = RuleCompiler.compile(sources, releaseId);
+            RuleBaseManager manager = new RuleBaseManager(poolMaxSize, poolMaxWaitMillis, listeners,
+                    nativeRules, name);
+            manager.install(container, sources, "rule set " + name);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            compilations.increment();
+            System.out.printf("Loaded rule set %s in %d ms%n", name, millis);
+            return new LoadedRuleSet(name, manager, millis);
+        } catch (RuntimeException e) {
+            compilationFailures.increment();
+            System.out.println("Rule set " + name + " failed to load:\n" + e.getMessage());
+            throw e;
+        }
+    }
+
+    // ── Eviction ────────────────────────────────────────────────────────────
+
+    /**
+     * Make room after loading {@code justLoaded}: evict down to maxLoaded,
+     * and one more if the heap is under pressure.
+     */
+    private void evictFor(String justLoaded) {
+        while (loadedCount() > maxLoaded) {
+            if (!evictLeastRecentlyUsed(justLoaded)) break;
+        }
+        int heapPercent = heapPercentAfterGc();
+        if (heapPercent > maxHeapPercent && evictLeastRecentlyUsed(justLoaded)) {
+            System.out.println("Heap at " + heapPercent + "% after GC; evicted a rule set");
+        }
+    }
+
+    private boolean evictLeastRecentlyUsed(String keep) {
+        LoadedRuleSet oldest = null;
+        for (CompletableFuture<LoadedRuleSet> future : loaded.values()) {
+            LoadedRuleSet candidate = future.getNow(null);
+            if (candidate != null && !candidate.name.equals(keep)
+                    && (oldest == null || candidate.lastUsedNanos < oldest.lastUsedNanos)) {
+                oldest = candidate;
+            }
+        }
+        return oldest != null && evict(oldest.name);
+    }
+
+    /**
+     * Unload rule set {@code name}. Running validations finish on it.
+     */
+    public boolean evict(String name) {
+        CompletableFuture<LoadedRuleSet> future = loaded.get(name);
+        LoadedRuleSet ruleSet = future == null ? null : future.getNow(null);
+        if (ruleSet == null || !loaded.remove(name, future)) {
+            return false;
+        }
+        ruleSet.manager.shutdown();
+        evictions.increment();
+        System.out.println("Evicted rule set " + name);
+        return true;
+    }
+
+    /**
+     * Heap in use right after the most recent collection, as a percentage
+     * of the maximum heap; 0 when the JVM does not report it.
+     */
+    private static int heapPercentAfterGc() {
+        long used = 0;
+        long max = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) continue;
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (afterGc == null || afterGc.getMax() <= 0) continue;
+            used += afterGc.getUsed();
+            max += afterGc.getMax();
+        }
+        return max == 0 ? 0 : (int) (100 * used / max);
+    }
+
+    // ── Reporting ───────────────────────────────────────────────────────────
+
+    public int loadedCount() {
+        int n = 0;
+        for (CompletableFuture<LoadedRuleSet> future : loaded.values()) {
+            if (future.getNow(null) != null) n++;
+        }
+        return n;
+    }
+
+    public long getCompilations() { return compilations.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+
+    /** Rule set names available in drools.rulesets.dir, plus "default". */
+    public List<String> available() {
+        TreeSet<String> names = new TreeSet<>();
+        names.add(DEFAULT);
+        if (dir != null && Files.isDirectory(dir)) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir, Files::isDirectory)) {
+                for (Path entry : entries) {
+                    String name = entry.getFileName().toString();
+                    if (NAME.matcher(name).matches()) names.add(name);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot list " + dir, e);
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    public Map<String, Object> getStatus() {
+        List<Map<String, Object>> ruleSets = new ArrayList<>();
+        for (CompletableFuture<LoadedRuleSet> future : loaded.values()) {
+            LoadedRuleSet ruleSet = future.getNow(null);
+            if (ruleSet == null) continue;
+            RuleBase active = ruleSet.manager.getActive();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", ruleSet.name);
+            entry.put("version", active == null ? null : active.getVersion());
+            entry.put("loadedAt", ruleSet.loadedAt.toString());
+            entry.put("compileMs", ruleSet.compileMillis);
+            entry.put("lastUsedAt", ruleSet.lastUsedAt.toString());
+            entry.put("requests", ruleSet.requests.sum());
+            ruleSets.add(entry);
+        }
+        ruleSets.sort((a, b) -> ((String) a.get("name")).compareTo((String) b.get("name")));
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("dir", dir == null ? null : dir.toString());
+        status.put("available", available());
+        status.put("defaultVersion", defaultRules.getActive().getVersion());
+        status.put("loaded", ruleSets);
+        status.put("maxLoaded", maxLoaded);
+        status.put("maxHeapPercent", maxHeapPercent);
+        status.put("heapPercentAfterGc", heapPercentAfterGc());
+        status.put("compilations", compilations.sum());
+        status.put("compilationFailures", compilationFailures.sum());
+        status.put("failed", failedStatus());
+        status.put("evictions", evictions.sum());
+        return status;
+    }
+
+    /** Rule sets whose last compilation failed, with the error, until their files change. */
+    private List<Map<String, Object>> failedStatus() {
+        List<Map<String, Object>> failed = new ArrayList<>();
+        new TreeMap<>(failures).forEach((name, failure) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", name);
+            entry.put("checksum", failure.checksum());
+            entry.put("failedAt", failure.failedAt().toString());
+            entry.put("error", failure.error().getMessage());
+            failed.add(entry);
+        });
+        return failed;
+    }
+
+    public void shutdown() {
+        for (String name : new ArrayList<>(loaded.keySet())) {
+            evict(name);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ApplicantFact;
+import org.kie.api.definition.rule.Rule;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.event.rule.MatchCancelledEvent;
+import org.kie.api.event.rule.MatchCreatedEvent;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.rule.Match;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timeline of what the rules did to a set of facts during one request.
+ *
+ * Attached to the request's sessions as both agenda and working-memory
+ * listener, it records each fact's insertion, the rules that matched it,
+ * any activation cancelled before firing, each firing with the time its
+ * consequence took, and any update or delete. The native engine mode
+ * records its matches and firings through matched() and fired().
+ *
+ * The traced facts are fixed when the trace is created. Each fact belongs
+ * to a single session, and so to a single thread, so the chunks of a
+ * parallel batch can share one trace. Times are nanoseconds from the
+ * trace's creation.
+ */
+public class RuleTrace extends DefaultAgendaEventListener implements RuleRuntimeEventListener {
+
+    static final String INSERTED = "inserted";
+    static final String MATCHED = "matched";
+    static final String CANCELLED = "cancelled";
+    static final String FIRED = "fired";
+    static final String UPDATED = "updated";
+    static final String DELETED = "deleted";
+
+    private record Event(long atNanos, String type, String rule, long durationNanos) {}
+
+    /** Counts for one rule: matched, cancelled, fired, total and longest consequence time. */
+    static final class RuleStats {
+        long matched;
+        long cancelled;
+        long fired;
+        long fireNanos;
+        long maxFireNanos;
+    }
+
+    private static final class FactTrace {
+        final List<Event> events = new ArrayList<>();
+        final Map<String, RuleStats> rules = new LinkedHashMap<>();
+        boolean cacheHit;
+        long firingSince;
+        long finishedAt;
+
+        RuleStats rule(String name) {
+            return rules.computeIfAbsent(name, n -> new RuleStats());
+        }
+
+        long fireNanos() {
+            long total = 0;
+            for (RuleStats stats : rules.values()) total += stats.fireNanos;
+            return total;
+        }
+    }
+
+    private final long start = System.nanoTime();
+    private final Map<Object, FactTrace> facts;
+
+    public RuleTrace(List<ApplicantFact> facts) {
+        this.facts = new IdentityHashMap<>(facts.size() * 2);
+        for (ApplicantFact fact : facts) {
+            this.facts.put(fact, new FactTrace());
+        }
+    }
+
+    // ── Recording ───────────────────────────────────────────────────────────
+
+    /** The fact's outcome was replayed from the result cache; no rule ran. */
+    void cacheHit(ApplicantFact fact) {
+        FactTrace trace = facts.get(fact);
+        if (trace != null) trace.cacheHit = true;
+    }
+
+    /** Evaluation of the fact is over; later events are not expected. */
+    void finished(ApplicantFact fact) {
+        FactTrace trace = facts.get(fact);
+        if (trace != null) trace.finishedAt = System.nanoTime() - start;
+    }
+
+    void matched(ApplicantFact fact, String rule) {
+        FactTrace trace = facts.get(fact);
+        if (trace == null) return;
+        trace.events.add(new Event(System.nanoTime() - start, MATCHED, rule, 0));
+        trace.rule(rule).matched++;
+    }
+
+    void fired(ApplicantFact fact, String rule, long startedAt, long endedAt) {
+        FactTrace trace = facts.get(fact);
+        if (trace == null) return;
+        long duration = endedAt - startedAt;
+        trace.events.add(new Event(startedAt - start, FIRED, rule, duration));
+        RuleStats stats = trace.rule(rule);
+        stats.fired++;
+        stats.fireNanos += duration;
+        stats.maxFireNanos = Math.max(stats.maxFireNanos, duration);
+    }
+
+    private void record(Object fact, String type, String rule) {
+        FactTrace trace = facts.get(fact);
+        if (trace != null) trace.events.add(new Event(System.nanoTime() - start, type, rule, 0));
+    }
+
+    // ── AgendaEventListener ─────────────────────────────────────────────────
+
+    @Override
+    public void matchCreated(MatchCreatedEvent event) {
+        Match match = event.getMatch();
+        for (Object fact : match.getObjects()) {
+            if (fact instanceof ApplicantFact applicant) matched(applicant, match.getRule().getName());
+        }
+    }
+
+    @Override
+    public void matchCancelled(MatchCancelledEvent event) {
+        Match match = event.getMatch();
+        for (Object fact : match.getObjects()) {
+            FactTrace trace = facts.get(fact);
+            if (trace == null) continue;
+            record(fact, CANCELLED, match.getRule().getName());
+            trace.rule(match.getRule().getName()).cancelled++;
+        }
+    }
+
+    @Override
+    public void beforeMatchFired(BeforeMatchFiredEvent event) {
+        long now = System.nanoTime();
+        for (Object fact : event.getMatch().getObjects()) {
+            FactTrace trace = facts.get(fact);
+            if (trace != null) trace.firingSince = now;
+        }
+    }
+
+    @Override
+    public void afterMatchFired(AfterMatchFiredEvent event) {
+        long now = System.nanoTime();
+        Match match = event.getMatch();
+        for (Object fact : match.getObjects()) {
+            FactTrace trace = facts.get(fact);
+            if (trace != null) fired((ApplicantFact) fact, match.getRule().getName(), trace.firingSince, now);
+        }
+    }
+
+    // ── RuleRuntimeEventListener ────────────────────────────────────────────
+
+    @Override
+    public void objectInserted(ObjectInsertedEvent event) {
+        record(event.getObject(), INSERTED, ruleName(event.getRule()));
+    }
+
+    @Override
+    public void objectUpdated(ObjectUpdatedEvent event) {
+        record(event.getObject(), UPDATED, ruleName(event.getRule()));
+    }
+
+    @Override
+    public void objectDeleted(ObjectDeletedEvent event) {
+        record(event.getOldObject(), DELETED, ruleName(event.getRule()));
+    }
+
+    /** The rule whose consequence caused a working-memory change; null when it came from the caller. */
+    private static String ruleName(Rule rule) {
+        return rule == null ? null : rule.getName();
+    }
+
+    // ── Reporting ───────────────────────────────────────────────────────────
+
+    /**
+     * The trace of one fact: whether it was a cache hit, a per-rule summary
+     * in order of first event, and the event timeline.
+     */
+    public Map<String, Object> report(ApplicantFact fact) {
+        FactTrace trace = facts.get(fact);
+        if (trace == null) {
+            return null;
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("cacheHit", trace.cacheHit);
+        report.put("elapsedNanos", trace.finishedAt);
+        report.put("fireNanos", trace.fireNanos());
+
+        Map<String, Object> rules = new LinkedHashMap<>();
+        trace.rules.forEach((name, stats) -> {
+            Map<String, Object> rule = new LinkedHashMap<>();
+            rule.put("matched", stats.matched);
+            rule.put("cancelled", stats.cancelled);
+            rule.put("fired", stats.fired);
+            rule.put("fireNanos", stats.fireNanos);
+            rules.put(name, rule);
+        });
+        report.put("rules", rules);
+
+        List<Map<String, Object>> timeline = new ArrayList<>(trace.events.size());
+        for (Event e : trace.events) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("atNanos", e.atNanos());
+            entry.put("event", e.type());
+            if (e.rule() != null) entry.put("rule", e.rule());
+            if (FIRED.equals(e.type())) entry.put("durationNanos", e.durationNanos());
+            timeline.add(entry);
+        }
+        report.put("timeline", timeline);
+        return report;
+    }
+
+    /** Per-rule counts summed over every traced fact. */
+    Map<String, RuleStats> ruleTotals() {
+        Map<String, RuleStats> totals = new LinkedHashMap<>();
+        for (FactTrace trace : facts.values()) {
+            trace.rules.forEach((name, stats) -> {
+                RuleStats total = totals.computeIfAbsent(name, n -> new RuleStats());
+                total.matched += stats.matched;
+                total.cancelled += stats.cancelled;
+                total.fired += stats.fired;
+                total.fireNanos += stats.fireNanos;
+                total.maxFireNanos = Math.max(total.maxFireNanos, stats.maxFireNanos);
+            });
+        }
+        return totals;
+    }
+
+    /** The traced fact whose consequences took longest in total, or null if there are none. */
+    ApplicantFact slowestFact() {
+        ApplicantFact slowest = null;
+        long most = -1;
+        for (Map.Entry<Object, FactTrace> e : facts.entrySet()) {
+            long fireNanos = e.getValue().fireNanos();
+            if (fireNanos > most) {
+                most = fireNanos;
+                slowest = (ApplicantFact) e.getKey();
+            }
+        }
+        return slowest;
+    }
+
+    /** Whether any of {@code facts} is traced. */
+    boolean tracesAny(List<ApplicantFact> facts) {
+        for (ApplicantFact fact : facts) {
+            if (this.facts.containsKey(fact)) return true;
+        }
+        return false;
+    }
+
+    int factCount() {
+        return facts.size();
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,16 @@
+package com.droolstest.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when no pooled KieSession becomes available within the configured
+ * wait time. Surfaces to HTTP clients as 503 so they can back off and retry.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SessionPoolExhaustedException extends RuntimeException {
+
+    public SessionPoolExhaustedException(String message) {
+        super(message);
+    }
+}
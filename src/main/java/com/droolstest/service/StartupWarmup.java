@@ -0,0 +1,223 @@
+package com.droolstest.service;
+
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.rules.ApplicantFact;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the rule network and the JIT before the app reports ready.
+ *
+ * An ApplicationRunner, so it runs once the context is up and the web
+ * server is listening, and Spring Boot only moves readiness
+ * (/actuator/health/readiness) to ACCEPTING_TRAFFIC after it returns.
+ * Requests that arrive in the meantime are served, just not yet at full
+ * speed.
+ *
+ * Off unless drools.warmup.enabled is set, so that dev and test runs are
+ * ready at once; deployments turn it on in their configuration.
+ *
+ * The warmup validates applicants through ValidationService on the default
+ * rule set, in rounds of ROUND_SIZE: the applicants of test-cases.json,
+ * which between them take every rule down both branches, topped up with
+ * synthetic ones generated fresh each round so that with the result cache
+ * enabled most still reach the rules. Each round also runs the test cases
+ * as one batch and one decision, and writes the responses as JSON. Drools
+ * compiles a DRL constraint from MVEL to bytecode after
+ * drools.jittingThreshold (20) evaluations, and C2 compiles a hot method
+ * after about ten thousand invocations; so at least
+ * drools.warmup.min-validations validations run, and after that the warmup
+ * stops once the median latency of two rounds in a row is within 10% of
+ * the round before, or after drools.warmup.max-seconds. The result cache
+ * is cleared afterwards.
+ *
+ * Warmup validations run as Unrecorded: they are left out of the
+ * drools.validation*, drools.session.* and drools.rule.* meters, the rule
+ * profiler and the validation history, which only see real traffic.
+ *
+ * With drools.warmup.exit the application shuts down once the warmup is
+ * over: a training run for the class data sharing archive of the cds
+ * build profile, which thereby covers the classes of a real validation,
+ * not just those of startup.
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final int ROUND_SIZE = 1000;
+    private static final int STABLE_ROUNDS = 2;
+    private static final double STABLE_RATIO = 0.10;
+    private static final int VALID_PERCENT = 70;
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final ValidationService validationService;
+    private final ValidationResultCache resultCache;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int minValidations;
+    private final int maxSeconds;
+    private final boolean exitAfter;
+    private final ApplicationContext context;
+
+    private volatile String state = "pending";
+    private volatile Map<String, Object> report;
+
+    public StartupWarmup(ValidationService validationService,
+                         ValidationResultCache resultCache,
+                         ObjectMapper objectMapper,
+                         @Value("${drools.warmup.enabled:false}") boolean enabled,
+                         @Value("${drools.warmup.min-validations:20000}") int minValidations,
+                         @Value("${drools.warmup.max-seconds:30}") int maxSeconds,
+                         @Value("${drools.warmup.exit:false}") boolean exitAfter,
+                         ApplicationContext context) {
+        this.validationService = validationService;
+        this.resultCache = resultCache;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.minValidations = Math.max(0, minValidations);
+        this.maxSeconds = Math.max(1, maxSeconds);
+        this.exitAfter = exitAfter;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            state = "running";
+            try {
+                report = Unrecorded.call(this::warmUp);
+                state = "done";
+            } catch (RuntimeException e) {
+                // A broken warmup should not keep the app out of service; the requests will warm it instead
+                state = "failed";
+                report = Map.of("error", String.valueOf(e.getMessage()));
+                System.out.println("Warmup failed, continuing cold: " + e);
+            }
+        } else {
+            state = "disabled";
+        }
+        if (exitAfter) {
+            System.out.println("Exiting after warmup (drools.warmup.exit=true)");
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private Map<String, Object> warmUp() {
+        List<ApplicantFact> testCases = NativeRuleVerifier.sampleApplicants();
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean jitTimed = jit != null && jit.isCompilationTimeMonitoringSupported();
+        long jitBefore = jitTimed ? jit.getTotalCompilationTime() : 0;
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(maxSeconds);
+        List<Map<String, Object>> rounds = new ArrayList<>();
+        long validations = 0;
+        int stable = 0;
+        double previousP50 = Double.NaN;
+        boolean converged = false;
+
+        for (int round = 0; System.nanoTime() < deadline; round++) {
+            List<ApplicantFact> applicants = new ArrayList<>(ROUND_SIZE);
+            testCases.forEach(f -> applicants.add(f.copyInput()));
+            applicants.addAll(ApplicantGenerator.generate(Math.max(0, ROUND_SIZE - testCases.size()),
+                    VALID_PERCENT, round));
+
+            Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+            for (ApplicantFact applicant : applicants) {
+                long t0 = System.nanoTime();
+                ValidationResponse response = validationService.validate(applicant);
+                latency.recordValue(Math.min(System.nanoTime() - t0, HIGHEST_TRACKABLE_NANOS));
+                write(response);
+            }
+            validations += applicants.size();
+            if (!testCases.isEmpty()) {
+                List<ApplicantFact> batch = new ArrayList<>(testCases.size());
+                testCases.forEach(f -> batch.add(f.copyInput()));
+                write(validationService.validateAll(batch));
+                validationService.decide(testCases.get(round % testCases.size()).copyInput());
+            }
+
+            double p50 = latency.getValueAtPercentile(50);
+            rounds.add(roundStats(round, latency));
+            stable = !Double.isNaN(previousP50) && Math.abs(p50 - previousP50) <= STABLE_RATIO * previousP50
+                    ? stable + 1 : 0;
+            previousP50 = p50;
+            if (validations >= minValidations && stable >= STABLE_ROUNDS) {
+                converged = true;
+                break;
+            }
+        }
+        resultCache.clear();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        Map<String, Object> first = rounds.get(0);
+        Map<String, Object> last = rounds.get(rounds.size() - 1);
+        System.out.printf("Warmup done in %d ms: %d validations, p50 %s -> %s us, p99 %s -> %s us%s%n",
+                elapsedMillis, validations, first.get("p50"), last.get("p50"), first.get("p99"), last.get("p99"),
+                converged ? "" : " (not converged)");
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("finishedAt", Instant.now().toString());
+        result.put("durationMs", elapsedMillis);
+        result.put("validations", validations);
+        result.put("rounds", rounds.size());
+        result.put("converged", converged);
+        result.put("jitCompileMs", jitTimed ? jit.getTotalCompilationTime() - jitBefore : null);
+        result.put("firstRound", first);
+        result.put("lastRound", last);
+        return result;
+    }
+
+    private static Map<String, Object> roundStats(int round, Histogram latency) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("round", round);
+        stats.put("p50", micros(latency.getValueAtPercentile(50)));
+        stats.put("p99", micros(latency.getValueAtPercentile(99)));
+        stats.put("max", micros(latency.getMaxValue()));
+        return stats;
+    }
+
+    private static double micros(long nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+
+    /** Serialize as a request would, to warm Jackson's serializers for the response types. */
+    private void write(Object response) {
+        try {
+            objectMapper.writeValue(OutputStream.nullOutputStream(), response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Warmup state (disabled, pending, running, done or failed) and, once
+     * done, its duration, validation count, JIT time and the latency of the
+     * first and last rounds.
+     */
+    public Map<String, Object> getReport() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        Map<String, Object> done = report;
+        if (done != null) {
+            status.putAll(done);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,178 @@
+package com.droolstest.service;
+
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.dto.BatchValidationResponse;
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.rules.ApplicantFact;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs newline-delimited (NDJSON) batch test cases as a stream.
+ *
+ * Test cases are pulled one at a time off a Jackson streaming parser,
+ * evaluated in small chunks and written back as one TestCaseResult per line.
+ * Only the current chunk is ever held in memory, so heap use does not grow
+ * with the size of the input. The last line is a summary trailer:
+ *
+ *   {"summary":{"totalTests":34,"passed":34,"failed":0}}
+ *
+ * The reactive stream endpoint (ReactiveValidationHandler) reads and writes
+ * on its own, but evaluates the same chunks with evaluateChunk() and keeps
+ * count with a Tally, so both report the same results and errors.
+ */
+@Service
+public class StreamingBatchService {
+
+    /** Test cases evaluated together, so stateless/parallel modes still batch. */
+    public static final int CHUNK_SIZE = 64;
+
+    private final ValidationService validationService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+
+    public StreamingBatchService(ValidationService validationService, ObjectMapper objectMapper) {
+        this.validationService = validationService;
+        this.objectMapper = objectMapper;
+        // One JSON document per line: never pretty-print, whatever spring.jackson says
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Counts of one streamed batch, for its summary trailer. Not thread-safe:
+     * a stream updates it from one thread, or one signal, at a time.
+     */
+    public static final class Tally {
+        private int received;
+        private int total;
+        private int passed;
+        private String error;
+
+        /**
+         * Count a test case read off the stream. Returns false, and records
+         * the error, if it has no applicant to validate.
+         */
+        public boolean accept(BatchValidationRequest.TestCase tc) {
+            received++;
+            if (tc.getInput() == null || tc.getInput().getApplicant() == null) {
+                error = "Test case " + received + " has no input.applicant";
+                return false;
+            }
+            return true;
+        }
+
+        /** The stream cannot be resynchronised after malformed JSON; record why it stopped. */
+        public void malformed(JsonProcessingException e) {
+            error = "Malformed test case after " + received + " records: " + e.getOriginalMessage();
+        }
+
+        public void failed(String message) {
+            error = message;
+        }
+
+        public void count(BatchValidationResponse.TestCaseResult result) {
+            total++;
+            if (result.isTestPassed()) passed++;
+        }
+
+        public Map<String, Object> summary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("totalTests", total);
+            summary.put("passed", passed);
+            summary.put("failed", total - passed);
+            if (error != null) {
+                summary.put("error", error);
+            }
+            return summary;
+        }
+    }
+
+    /**
+     * Read test cases from {@code in} until end of input, writing one result
+     * line per test case and a summary trailer to {@code out}.
+     */
+    public void validateStream(InputStream in, OutputStream out) throws IOException {
+        Tally tally = new Tally();
+        List<BatchValidationRequest.TestCase> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             MappingIterator<BatchValidationRequest.TestCase> testCases =
+                     objectMapper.readerFor(BatchValidationRequest.TestCase.class).readValues(parser)) {
+            while (true) {
+                BatchValidationRequest.TestCase tc;
+                try {
+                    if (!testCases.hasNextValue()) break;
+                    tc = testCases.nextValue();
+                } catch (JsonProcessingException e) {
+                    // Report what ran and stop
+                    tally.malformed(e);
+                    break;
+                }
+                if (!tally.accept(tc)) {
+                    break;
+                }
+
+                chunk.add(tc);
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, tally, out);
+                    chunk.clear();
+                }
+            }
+        }
+        writeChunk(chunk, tally, out);
+
+        writeLine(Map.of("summary", tally.summary()), out);
+        out.flush();
+    }
+
+    /**
+     * Evaluate a chunk of test cases together on rule set {@code ruleSet}
+     * (null for the default). Results are in the order of the test cases.
+     */
+    public List<BatchValidationResponse.TestCaseResult> evaluateChunk(String ruleSet,
+                                                                     List<BatchValidationRequest.TestCase> chunk) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        List<ApplicantFact> facts = new ArrayList<>(chunk.size());
+        for (BatchValidationRequest.TestCase tc : chunk) {
+            facts.add(tc.getInput().getApplicant());
+        }
+        List<ValidationResponse> responses = validationService.validateAll(ruleSet, facts);
+
+        List<BatchValidationResponse.TestCaseResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(validationService.toTestCaseResult(chunk.get(i), responses.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Evaluate, count and write a chunk of test cases.
+     */
+    private void writeChunk(List<BatchValidationRequest.TestCase> chunk, Tally tally,
+                            OutputStream out) throws IOException {
+        for (BatchValidationResponse.TestCaseResult tcr : evaluateChunk(null, chunk)) {
+            tally.count(tcr);
+            writeLine(tcr, out);
+        }
+        out.flush();
+    }
+
+    private void writeLine(Object value, OutputStream out) throws IOException {
+        out.write(lineWriter.writeValueAsBytes(value));
+        out.write('\n');
+    }
+}
@@ -0,0 +1,16 @@
+package com.droolstest.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request names a rule set that RuleSetRegistry does not
+ * have. Surfaces to HTTP clients as 404.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class UnknownRuleSetException extends RuntimeException {
+
+    public UnknownRuleSetException(String message) {
+        super(message);
+    }
+}
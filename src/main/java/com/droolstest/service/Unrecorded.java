@@ -0,0 +1,54 @@
+package com.droolstest.service;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Marks validations on the current thread as not being real traffic, as
+ * the startup warmup's and the load tests' are: they run the rules as
+ * usual, but are left out of the drools.validation*, drools.session.* and
+ * drools.rule.* meters, the rule profiler and the validation history.
+ */
+final class Unrecorded {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private Unrecorded() {}
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    /** Run {@code work} on this thread with recording off. */
+    static <T> T call(Supplier<T> work) {
+        if (isActive()) {
+            return work.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    /**
+     * {@code task}, recorded or not as the calling thread is, for handing
+     * to another thread.
+     */
+    static <T> Callable<T> propagate(Callable<T> task) {
+        return isActive() ? of(task) : task;
+    }
+
+    /** {@code task}, run with recording off on whichever thread calls it. */
+    static <T> Callable<T> of(Callable<T> task) {
+        return () -> {
+            ACTIVE.set(Boolean.TRUE);
+            try {
+                return task.call();
+            } finally {
+                ACTIVE.remove();
+            }
+        };
+    }
+}
@@ -0,0 +1,479 @@
+package com.droolstest.service;
+
+import com.droolstest.dto.HistoryQuery;
+import com.droolstest.rules.ResultKeys;
+import com.droolstest.rules.ValidationRule;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Append-only log of validation outcomes, queried by outcome and time
+ * without running any rules (/api/history).
+ *
+ * With drools.history.enabled, every applicant validated through
+ * ValidationService (validate, batch, streaming batch, jobs) and every
+ * decision leaves one fixed-width record: when, the applicant's input
+ * fingerprint, the rule set and version, and which rules passed (see
+ * HistorySegment for the layout). Only the five ValidationRule keys have
+ * a bit of their own: for a rule set that records results under other
+ * keys, those only show in fullyValid. The startup warmup's validations
+ * are not recorded. Records go into segment files of
+ * drools.history.segment-records slots under drools.history.dir, each
+ * memory-mapped whole; at most drools.history.max-segments are kept, the
+ * oldest deleted first. The log survives restarts and carries on where
+ * it left off.
+ *
+ * Appending claims the next sequence number from one atomic counter and
+ * writes straight into the mapped segment; only starting a new segment
+ * takes a lock. The operating system writes the pages back in its own
+ * time (and at shutdown), so records survive the application crashing
+ * but not the machine.
+ *
+ * Rule set names are stored as a short id, the line number in
+ * rulesets.txt in the same directory.
+ */
+@Component
+public class ValidationHistory {
+
+    static final String RULE_SETS_FILE = "rulesets.txt";
+    private static final String SEGMENT_PREFIX = "history-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_LIMIT = 10_000;
+    private static final int MAX_SEGMENT_RECORDS = Integer.MAX_VALUE / HistorySegment.RECORD_BYTES - 1;
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentRecords;
+    private final int maxSegments;
+
+    private final AtomicLong nextSequence = new AtomicLong();
+    private long startSequence;
+    private final LongAdder dropped = new LongAdder();
+    /** Oldest first; replaced whole when a segment is added or deleted. */
+    private volatile List<HistorySegment> segments = List.of();
+    private volatile HistorySegment active;
+
+    private final Map<String, Integer> ruleSetIds = new ConcurrentHashMap<>();
+    private final List<String> ruleSetNames = new CopyOnWriteArrayList<>();
+
+    public ValidationHistory(@Value("${drools.history.enabled:false}") boolean enabled,
+                             @Value("${drools.history.dir:}") String dir,
+                             @Value("${drools.history.segment-records:1048576}") int segmentRecords,
+                             @Value("${drools.history.max-segments:64}") int maxSegments) throws IOException {
+        if (segmentRecords < 1 || segmentRecords > MAX_SEGMENT_RECORDS) {
+            throw new IllegalArgumentException("drools.history.segment-records must be between 1 and "
+                    + MAX_SEGMENT_RECORDS + ": " + segmentRecords);
+        }
+        this.enabled = enabled;
+        this.segmentRecords = segmentRecords;
+        this.maxSegments = Math.max(1, maxSegments);
+        this.dir = (dir == null || dir.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "drools-history")
+                : Paths.get(dir)).toAbsolutePath();
+        if (enabled) {
+            open();
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(dir);
+        Path names = dir.resolve(RULE_SETS_FILE);
+        if (Files.exists(names)) {
+            for (String name : Files.readAllLines(names, StandardCharsets.UTF_8)) {
+                ruleSetIds.put(name, ruleSetNames.size());
+                ruleSetNames.add(name);
+            }
+        }
+        if (ruleSetNames.isEmpty()) {
+            appendRuleSetName(RuleSetRegistry.DEFAULT);
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        List<HistorySegment> opened = new ArrayList<>();
+        for (Path file : files) {
+            opened.add(HistorySegment.open(file));
+        }
+        for (int i = 0; i < opened.size(); i++) {
+            HistorySegment segment = opened.get(i);
+            boolean last = i == opened.size() - 1;
+            segment.resumeAt(last ? segment.writtenEnd() : segment.endSequence());
+        }
+        if (!opened.isEmpty()) {
+            HistorySegment last = opened.get(opened.size() - 1);
+            nextSequence.set(last.writtenEnd());
+            startSequence = last.writtenEnd();
+            active = last;
+        }
+        segments = List.copyOf(opened);
+        System.out.printf("Validation history: %d records in %d segments under %s%n",
+                records(), opened.size(), dir);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ── Appending ───────────────────────────────────────────────────────────
+
+    /** Record the outcome of a validation. */
+    void record(RuleBase rules, long fingerprint, int passedMask, boolean fullyValid) {
+        append(rules, fingerprint, passedMask, fullyValid ? HistorySegment.FULLY_VALID : 0);
+    }
+
+    /** Record a decision; its passed mask is the rules that matched. */
+    void recordDecision(RuleBase rules, long fingerprint, int passedMask, boolean fullyValid) {
+        append(rules, fingerprint, passedMask,
+                HistorySegment.DECISION | (fullyValid ? HistorySegment.FULLY_VALID : 0));
+    }
+
+    private void append(RuleBase rules, long fingerprint, int passedMask, int flags) {
+        long sequence = nextSequence.getAndIncrement();
+        HistorySegment segment = active;
+        if (segment == null || !segment.contains(sequence)) {
+            segment = segmentFor(sequence);
+            if (segment == null) {
+                dropped.increment();
+                return;
+            }
+        }
+        ResultKeys keys = rules.getResultKeys();
+        if (!keys.otherKeys().isEmpty()) {
+            flags |= HistorySegment.OTHER_KEYS;
+        }
+        segment.write(sequence, System.currentTimeMillis(), fingerprint, rules.getVersionNumber(),
+                Integer.parseUnsignedInt(rules.getChecksum(), 16), ruleSetId(rules.getRuleSet()),
+                passedMask & ValidationRule.ALL_MASK, ValidationRule.ALL_MASK & ~keys.knownMask(), flags);
+    }
+
+    /**
+     * The segment holding {@code sequence}, starting new ones as needed;
+     * null if it cannot be written (already deleted, or the disk failed).
+     */
+    private synchronized HistorySegment segmentFor(long sequence) {
+        List<HistorySegment> current = segments;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            if (current.get(i).contains(sequence)) {
+                return current.get(i);
+            }
+        }
+        long start = current.isEmpty() ? 0 : current.get(current.size() - 1).endSequence();
+        if (sequence < start) {
+            return null;
+        }
+        List<HistorySegment> next = new ArrayList<>(current);
+        HistorySegment segment = null;
+        try {
+            while (segment == null || !segment.contains(sequence)) {
+                segment = HistorySegment.create(dir.resolve(String.format("%s%016d%s",
+                        SEGMENT_PREFIX, start, SEGMENT_SUFFIX)), start, segmentRecords);
+                next.add(segment);
+                start = segment.endSequence();
+            }
+        } catch (IOException e) {
+            System.out.println("Validation history: cannot start a segment, dropping records: " + e);
+            return null;
+        }
+        while (next.size() > maxSegments) {
+            HistorySegment oldest = next.remove(0);
+            try {
+                // Readers still scanning it keep their mapping; the file itself goes now
+                Files.deleteIfExists(oldest.file());
+            } catch (IOException e) {
+                System.out.println("Validation history: cannot delete " + oldest.file() + ": " + e);
+            }
+        }
+        segments = List.copyOf(next);
+        active = segment;
+        return segment;
+    }
+
+    private int ruleSetId(String ruleSet) {
+        Integer id = ruleSetIds.get(ruleSet);
+        return id != null ? id : appendRuleSetName(ruleSet);
+    }
+
+    private synchronized int appendRuleSetName(String ruleSet) {
+        Integer id = ruleSetIds.get(ruleSet);
+        if (id != null) {
+            return id;
+        }
+        try {
+            Files.writeString(dir.resolve(RULE_SETS_FILE), ruleSet + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.out.println("Validation history: cannot record rule set name " + ruleSet + ": " + e);
+        }
+        ruleSetNames.add(ruleSet);
+        ruleSetIds.put(ruleSet, ruleSetNames.size() - 1);
+        return ruleSetNames.size() - 1;
+    }
+
+    // ── Querying ────────────────────────────────────────────────────────────
+
+    /**
+     * Records matching {@code query}, oldest first, and how many match in
+     * total.
+     *
+     * @throws IllegalArgumentException if a parameter does not parse
+     * @throws IllegalStateException    if the history is disabled
+     */
+    public Map<String, Object> query(HistoryQuery query) {
+        if (!enabled) {
+            throw new IllegalStateException("The validation history is disabled (drools.history.enabled=false)");
+        }
+        long from = query.getFrom() == null ? Long.MIN_VALUE : parseTime("from", query.getFrom());
+        long to = query.getTo() == null ? Long.MAX_VALUE : parseTime("to", query.getTo());
+        int passed = parseRules("passed", query.getPassed());
+        int failed = parseRules("failed", query.getFailed());
+        Long fingerprint = query.getInputHash() == null ? null : parseHash(query.getInputHash());
+        int limit = query.getLimit();
+        if (limit < 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 0 and " + MAX_LIMIT);
+        }
+        long first = query.getAfter() == null ? Long.MIN_VALUE : query.getAfter() + 1;
+        int ruleSetId = -1;
+        if (query.getRuleSet() != null) {
+            Integer id = ruleSetIds.get(query.getRuleSet());
+            ruleSetId = id == null ? Integer.MAX_VALUE : id;  // never recorded: matches nothing
+        }
+        Boolean fullyValid = query.getFullyValid();
+        boolean outcomeOnly = fingerprint == null && ruleSetId < 0 && fullyValid == null;
+
+        // A fully valid applicant passed every rule its rule set has, which lets the summaries rule segments out too
+        int[] outcomes = matchingOutcomes(passed, failed, Boolean.TRUE.equals(fullyValid));
+        List<Map<String, Object>> records = new ArrayList<>();
+        long matched = 0;
+        long scanned = 0;
+        int segmentsScanned = 0;
+        int segmentsSkipped = 0;
+        int segmentsCounted = 0;
+        Long next = null;
+        long end = nextSequence.get();
+
+        List<HistorySegment> snapshot = segments;
+        HistorySegment newest = snapshot.isEmpty() ? null : snapshot.get(snapshot.size() - 1);
+        for (HistorySegment segment : snapshot) {
+            if (segment.endSequence() <= first) {
+                segmentsSkipped++;
+                continue;
+            }
+            if (segment != newest && segment.settled()) {
+                HistorySegment.Summary summary = segment.summary();
+                long matching = 0;
+                for (int outcome : outcomes) {
+                    matching += summary.byOutcome[outcome];
+                }
+                if (matching == 0 || summary.maxTimestamp < from || summary.minTimestamp >= to) {
+                    segmentsSkipped++;
+                    continue;
+                }
+                boolean whole = summary.minTimestamp >= from && summary.maxTimestamp < to
+                        && segment.firstSequence() >= first;
+                if (outcomeOnly && whole && records.size() >= limit) {
+                    // Nothing more to return from here, only to count
+                    matched += matching;
+                    segmentsCounted++;
+                    if (next == null && limit > 0) {
+                        next = (Long) records.get(records.size() - 1).get("sequence");
+                    }
+                    continue;
+                }
+            }
+            segmentsScanned++;
+            long stop = Math.min(segment.endSequence(), end);
+            for (long s = Math.max(segment.firstSequence(), first); s < stop; s++) {
+                long timestamp = segment.timestamp(s);
+                if (timestamp == 0) {
+                    continue;
+                }
+                scanned++;
+                int mask = segment.passed(s);
+                if (timestamp < from || timestamp >= to
+                        || (mask & passed) != passed || ((mask | segment.missing(s)) & failed) != 0
+                        || (fullyValid != null && fullyValid != ((segment.flags(s) & HistorySegment.FULLY_VALID) != 0))
+                        || (ruleSetId >= 0 && segment.ruleSetId(s) != ruleSetId)
+                        || (fingerprint != null && segment.fingerprint(s) != fingerprint)) {
+                    continue;
+                }
+                matched++;
+                if (records.size() < limit) {
+                    records.add(record(segment, s, timestamp));
+                } else if (next == null && limit > 0) {
+                    next = (Long) records.get(records.size() - 1).get("sequence");
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("matched", matched);
+        result.put("returned", records.size());
+        result.put("next", next);
+        result.put("scannedRecords", scanned);
+        result.put("segmentsScanned", segmentsScanned);
+        result.put("segmentsSkipped", segmentsSkipped);
+        result.put("segmentsCountedFromIndex", segmentsCounted);
+        result.put("records", records);
+        return result;
+    }
+
+    /**
+     * Every outcome (see HistorySegment.outcome) whose rule set has and
+     * passed the {@code passed} rules, and has and failed the {@code failed}
+     * ones; with {@code allPassed}, also passed every rule it has.
+     */
+    private static int[] matchingOutcomes(int passed, int failed, boolean allPassed) {
+        return IntStream.range(0, HistorySegment.OUTCOMES)
+                .filter(outcome -> {
+                    int mask = outcome & ValidationRule.ALL_MASK;
+                    int missing = outcome >>> ValidationRule.COUNT;
+                    return (mask & missing) == 0
+                            && (mask & passed) == passed && ((mask | missing) & failed) == 0
+                            && (!allPassed || (mask | missing) == ValidationRule.ALL_MASK);
+                })
+                .toArray();
+    }
+
+    private Map<String, Object> record(HistorySegment segment, long s, long timestamp) {
+        int ruleSetId = segment.ruleSetId(s);
+        String ruleSet = ruleSetId < ruleSetNames.size() ? ruleSetNames.get(ruleSetId) : "#" + ruleSetId;
+        String version = segment.version(s) + "-" + String.format("%08x", segment.checksum(s));
+        int passed = segment.passed(s);
+        List<String> passedRules = new ArrayList<>();
+        for (ValidationRule rule : ValidationRule.values()) {
+            if ((passed & rule.getBit()) != 0) {
+                passedRules.add(rule.getKey());
+            }
+        }
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("sequence", s);
+        record.put("timestamp", Instant.ofEpochMilli(timestamp).toString());
+        record.put("inputHash", String.format("%016x", segment.fingerprint(s)));
+        record.put("ruleSetVersion", RuleSetRegistry.DEFAULT.equals(ruleSet) ? version : ruleSet + "/" + version);
+        record.put("passed", passedRules);
+        record.put("fullyValid", (segment.flags(s) & HistorySegment.FULLY_VALID) != 0);
+        record.put("decision", (segment.flags(s) & HistorySegment.DECISION) != 0);
+        int missing = segment.missing(s);
+        if (missing != 0) {
+            List<String> notInRuleSet = new ArrayList<>();
+            for (ValidationRule rule : ValidationRule.values()) {
+                if ((missing & rule.getBit()) != 0) {
+                    notInRuleSet.add(rule.getKey());
+                }
+            }
+            record.put("notInRuleSet", notInRuleSet);
+        }
+        if ((segment.flags(s) & HistorySegment.OTHER_KEYS) != 0) {
+            record.put("otherKeys", true);
+        }
+        return record;
+    }
+
+    /** An ISO-8601 instant, or a date meaning its start in UTC. */
+    private static long parseTime(String name, String value) {
+        try {
+            return value.length() == 10
+                    ? LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli()
+                    : Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO-8601 instant or date: " + value);
+        }
+    }
+
+    /** Comma-separated rules, each a rule number (1-5) or result key; as ValidationRule bits. */
+    private static int parseRules(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        int mask = 0;
+        for (String token : value.split(",")) {
+            String t = token.trim();
+            ValidationRule rule = ValidationRule.forKey(t);
+            if (rule == null && t.matches("[1-9]") && Integer.parseInt(t) <= ValidationRule.COUNT) {
+                rule = ValidationRule.byIndex(Integer.parseInt(t) - 1);
+            }
+            if (rule == null) {
+                throw new IllegalArgumentException(name + ": unknown rule " + t
+                        + " (expected 1-" + ValidationRule.COUNT + " or a result key such as applicantIsEligible)");
+            }
+            mask |= rule.getBit();
+        }
+        return mask;
+    }
+
+    private static long parseHash(String value) {
+        try {
+            return Long.parseUnsignedLong(value, 16);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("inputHash must be 16 hex digits: " + value);
+        }
+    }
+
+    // ── Status ──────────────────────────────────────────────────────────────
+
+    /** Records appended since startup, including any dropped. */
+    public long getAppended() {
+        return enabled ? nextSequence.get() - startSequence : 0;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private long records() {
+        List<HistorySegment> current = segments;
+        return current.isEmpty() ? 0 : nextSequence.get() - current.get(0).firstSequence();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        if (!enabled) {
+            return status;
+        }
+        List<HistorySegment> current = segments;
+        status.put("dir", dir.toString());
+        status.put("records", records());
+        status.put("firstSequence", current.isEmpty() ? 0 : current.get(0).firstSequence());
+        status.put("nextSequence", nextSequence.get());
+        status.put("segments", current.size());
+        status.put("segmentRecords", segmentRecords);
+        status.put("maxSegments", maxSegments);
+        status.put("bytes", current.stream().mapToLong(HistorySegment::bytes).sum());
+        status.put("dropped", dropped.sum());
+        status.put("ruleSets", List.copyOf(ruleSetNames));
+        return status;
+    }
+
+    @PreDestroy
+    public void flush() {
+        for (HistorySegment segment : segments) {
+            segment.force();
+        }
+    }
+}
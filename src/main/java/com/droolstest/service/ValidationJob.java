@@ -0,0 +1,127 @@
+package com.droolstest.service;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * One asynchronous batch validation job: its state and progress counters.
+ *
+ * Only this small record lives on the heap. The submitted test cases and
+ * the results are files in the job's directory (see JobResultStore).
+ */
+public class ValidationJob {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id;
+    private final Path dir;
+    private final Path input;
+    private final boolean ndjson;
+    private final Instant submittedAt = Instant.now();
+
+    private volatile State state = State.QUEUED;
+    private volatile Integer totalTests;
+    private volatile int processed;
+    private volatile int passed;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    ValidationJob(String id, Path dir, Path input, boolean ndjson) {
+        this.id = id;
+        this.dir = dir;
+        this.input = input;
+        this.ndjson = ndjson;
+    }
+
+    // ── State transitions (worker thread) ───────────────────────────────────
+    // Transitions lock the job, so a cancel() cannot be overwritten by the worker.
+
+    /**
+     * Move a queued job to RUNNING. False if it was cancelled before the
+     * worker got to it; the worker must then leave it alone.
+     */
+    synchronized boolean started() {
+        if (state != State.QUEUED) {
+            return false;
+        }
+        startedAt = Instant.now();
+        state = State.RUNNING;
+        return true;
+    }
+
+    void counted(int total) { totalTests = total; }
+
+    /** Called after a chunk's results are flushed to disk, so readers only see complete records. */
+    void progressed(int chunkSize, int chunkPassed) {
+        passed += chunkPassed;
+        processed += chunkSize;
+    }
+
+    synchronized void finished(State finalState, String error) {
+        if (state == State.CANCELLED) {
+            return;
+        }
+        this.error = error;
+        finishedAt = Instant.now();
+        state = finalState;
+    }
+
+    void setFuture(Future<?> future) { this.future = future; }
+
+    /**
+     * Stop the job; a running job stops at the next chunk boundary.
+     */
+    synchronized boolean cancel() {
+        if (isDone()) {
+            return false;
+        }
+        state = State.CANCELLED;
+        finishedAt = Instant.now();
+        Future<?> f = future;
+        if (f != null) {
+            f.cancel(false);
+        }
+        return true;
+    }
+
+    // ── Getters ─────────────────────────────────────────────────────────────
+
+    public String getId() { return id; }
+    public Path getDir() { return dir; }
+    public Path getInput() { return input; }
+    public boolean isNdjson() { return ndjson; }
+    public State getState() { return state; }
+    public int getProcessed() { return processed; }
+    public Instant getSubmittedAt() { return submittedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+
+    public boolean isDone() {
+        State s = state;
+        return s == State.COMPLETED || s == State.FAILED || s == State.CANCELLED;
+    }
+
+    public Map<String, Object> getStatus() {
+        Integer total = totalTests;
+        int done = processed;
+        int ok = passed;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", id);
+        status.put("state", state);
+        status.put("totalTests", total);
+        status.put("processed", done);
+        status.put("passed", ok);
+        status.put("failed", done - ok);
+        status.put("percentComplete", total == null || total == 0
+                ? (isDone() ? 100 : 0) : Math.round(done * 1000.0 / total) / 10.0);
+        status.put("submittedAt", submittedAt.toString());
+        status.put("startedAt", startedAt == null ? null : startedAt.toString());
+        status.put("finishedAt", finishedAt == null ? null : finishedAt.toString());
+        status.put("error", error);
+        return status;
+    }
+}
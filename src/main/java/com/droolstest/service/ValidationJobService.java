@@ -0,0 +1,398 @@
+package com.droolstest.service;
+
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.dto.BatchValidationResponse;
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.rules.ApplicantFact;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs large batches as background jobs, so no HTTP thread waits for them.
+ *
+ * Submitting spools the request body straight to the job's directory and
+ * returns; the body is only parsed by the worker, streaming, so neither
+ * queued nor running jobs hold their test cases on the heap. Results are
+ * appended to a JobResultStore on disk as each chunk completes, and can be
+ * paged through while the job is still running.
+ *
+ * Jobs run on drools.jobs.workers threads. At most drools.jobs.queue-capacity
+ * further jobs wait; beyond that, submissions are rejected with
+ * JobQueueFullException (429) instead of queueing without bound. Bodies
+ * larger than drools.jobs.max-body-bytes are refused with
+ * JobTooLargeException (413). Finished jobs and their files are removed
+ * after drools.jobs.retention-minutes.
+ *
+ * Each job has a directory named after its UUID under drools.jobs.dir.
+ * Only such directories are removed at startup; anything else in
+ * drools.jobs.dir is left alone.
+ */
+@Service
+public class ValidationJobService {
+
+    private static final int SPOOL_BUFFER_BYTES = 64 * 1024;
+
+    private final ValidationService validationService;
+    private final ObjectReader testCaseReader;
+    private final ObjectWriter lineWriter;
+    private final ObjectMapper objectMapper;
+
+    private final Path baseDir;
+    private final int chunkSize;
+    private final long maxBodyBytes;
+    private final Duration retention;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService janitor;
+    private final Map<String, ValidationJob> jobs = new ConcurrentHashMap<>();
+
+    public ValidationJobService(ValidationService validationService,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${drools.jobs.dir:}") String dir,
+                                @Value("${drools.jobs.workers:2}") int workerCount,
+                                @Value("${drools.jobs.queue-capacity:16}") int queueCapacity,
+                                @Value("${drools.jobs.chunk-size:256}") int chunkSize,
+                                @Value("${drools.jobs.retention-minutes:60}") long retentionMinutes,
+                                @Value("${drools.jobs.max-body-bytes:268435456}") long maxBodyBytes) throws IOException {
+        this.validationService = validationService;
+        this.objectMapper = objectMapper;
+        this.testCaseReader = objectMapper.readerFor(BatchValidationRequest.TestCase.class);
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxBodyBytes = maxBodyBytes;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        this.baseDir = (dir == null || dir.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "drools-jobs")
+                : Paths.get(dir)).toAbsolutePath();
+        Files.createDirectories(baseDir);
+        removeLeftoverJobs();
+
+        AtomicInteger threadId = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "validation-job-" + threadId.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.janitor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "validation-job-janitor");
+            t.setDaemon(true);
+            return t;
+        });
+        janitor.scheduleWithFixedDelay(this::removeExpired, 1, 1, TimeUnit.MINUTES);
+
+        Gauge.builder("drools.jobs.queued", workers, w -> w.getQueue().size())
+                .description("Validation jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("drools.jobs.running", workers, ThreadPoolExecutor::getActiveCount)
+                .description("Validation jobs being processed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accept a batch and queue it.
+     *
+     * @param body   {"testCases": [...]} JSON, or one test case per line when {@code ndjson}
+     * @throws JobQueueFullException if every worker is busy and the queue is full
+     * @throws JobTooLargeException if the body is larger than drools.jobs.max-body-bytes
+     */
+    public ValidationJob submit(InputStream body, boolean ndjson) throws IOException {
+        if (workers.getQueue().remainingCapacity() == 0) {
+            throw new JobQueueFullException(queueFullMessage());
+        }
+        String id = UUID.randomUUID().toString();
+        Path jobDir = Files.createDirectory(baseDir.resolve(id));
+        Path input = jobDir.resolve(ndjson ? "input.ndjson" : "input.json");
+        try {
+            spool(body, input);
+        } catch (IOException | RuntimeException e) {
+            FileSystemUtils.deleteRecursively(jobDir);
+            throw e;
+        }
+
+        ValidationJob job = new ValidationJob(id, jobDir, input, ndjson);
+        jobs.put(id, job);
+        try {
+            job.setFuture(workers.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            FileSystemUtils.deleteRecursively(jobDir);
+            throw new JobQueueFullException(queueFullMessage());
+        }
+        return job;
+    }
+
+    /** Copy {@code body} to {@code input}, stopping as soon as it exceeds maxBodyBytes. */
+    private void spool(InputStream body, Path input) throws IOException {
+        byte[] buffer = new byte[SPOOL_BUFFER_BYTES];
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(input)) {
+            int n;
+            while ((n = body.read(buffer)) != -1) {
+                written += n;
+                if (written > maxBodyBytes) {
+                    throw new JobTooLargeException("Job body exceeds " + maxBodyBytes
+                            + " bytes (drools.jobs.max-body-bytes)");
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+    }
+
+    public ValidationJob get(String id) {
+        return jobs.get(id);
+    }
+
+    /** Retained jobs, oldest first. */
+    public List<ValidationJob> list() {
+        List<ValidationJob> all = new ArrayList<>(jobs.values());
+        all.sort(Comparator.comparing(ValidationJob::getSubmittedAt));
+        return all;
+    }
+
+    /**
+     * One page of results, as raw TestCaseResult JSON, out of the first
+     * {@code available} (at most job.getProcessed(): results already flushed).
+     */
+    public List<String> results(ValidationJob job, int page, int size, int available) throws IOException {
+        long from = (long) page * size;
+        if (from >= available) {
+            return List.of();
+        }
+        return new JobResultStore(job.getDir()).read((int) from, size, available);
+    }
+
+    /**
+     * Cancel the job if it has not finished, and delete it with its files.
+     */
+    public boolean delete(String id) throws IOException {
+        ValidationJob job = jobs.remove(id);
+        if (job == null) {
+            return false;
+        }
+        // A running worker still has the files open; it removes them when it stops
+        boolean running;
+        synchronized (job) {
+            running = job.getState() == ValidationJob.State.RUNNING;
+            job.cancel();
+        }
+        if (!running) {
+            FileSystemUtils.deleteRecursively(job.getDir());
+        }
+        return true;
+    }
+
+    // ── Worker ──────────────────────────────────────────────────────────────
+
+    private void run(ValidationJob job) {
+        if (!job.started()) {
+            // Cancelled while queued
+            return;
+        }
+        try (JobResultStore store = new JobResultStore(job.getDir())) {
+            job.counted(count(job));
+            store.openForWrite();
+
+            List<BatchValidationRequest.TestCase> chunk = new ArrayList<>(chunkSize);
+            try (JsonParser parser = openTestCases(job)) {
+                int seen = 0;
+                BatchValidationRequest.TestCase tc;
+                while ((tc = next(parser)) != null) {
+                    seen++;
+                    if (tc.getInput() == null || tc.getInput().getApplicant() == null) {
+                        throw new IllegalArgumentException("Test case " + seen + " has no input.applicant");
+                    }
+                    chunk.add(tc);
+                    if (chunk.size() == chunkSize) {
+                        if (!writeChunk(job, chunk, store)) return;
+                        chunk.clear();
+                    }
+                }
+            }
+            if (!writeChunk(job, chunk, store)) return;
+            job.finished(ValidationJob.State.COMPLETED, null);
+        } catch (JsonProcessingException e) {
+            job.finished(ValidationJob.State.FAILED, "Malformed input after " + job.getProcessed()
+                    + " test cases: " + e.getOriginalMessage());
+        } catch (Exception e) {
+            job.finished(ValidationJob.State.FAILED, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(job.getInput());
+                if (!jobs.containsKey(job.getId())) {
+                    // Deleted while running
+                    FileSystemUtils.deleteRecursively(job.getDir());
+                }
+            } catch (IOException e) {
+                System.out.println("Could not clean up job " + job.getId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Evaluate and persist a chunk. Returns false if the job was cancelled.
+     */
+    private boolean writeChunk(ValidationJob job, List<BatchValidationRequest.TestCase> chunk,
+                               JobResultStore store) throws IOException {
+        if (job.getState() == ValidationJob.State.CANCELLED) {
+            return false;
+        }
+        if (chunk.isEmpty()) {
+            return true;
+        }
+        List<ApplicantFact> facts = new ArrayList<>(chunk.size());
+        for (BatchValidationRequest.TestCase tc : chunk) {
+            facts.add(tc.getInput().getApplicant());
+        }
+        List<ValidationResponse> responses = validationService.validateAll(facts);
+
+        int passed = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            BatchValidationResponse.TestCaseResult tcr =
+                    validationService.toTestCaseResult(chunk.get(i), responses.get(i));
+            if (tcr.isTestPassed()) passed++;
+            store.append(lineWriter.writeValueAsBytes(tcr));
+        }
+        store.flush();
+        job.progressed(chunk.size(), passed);
+        return true;
+    }
+
+    /** Quick pass over the input to size the job for progress reporting. */
+    private int count(ValidationJob job) throws IOException {
+        int total = 0;
+        try (JsonParser parser = openTestCases(job)) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * A parser positioned just before the first test case: inside the
+     * "testCases" array for JSON, at the start of input for NDJSON.
+     */
+    private JsonParser openTestCases(ValidationJob job) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(job.getInput().toFile());
+        if (job.isNdjson()) {
+            return parser;
+        }
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            parser.close();
+            throw new IllegalArgumentException("Expected a JSON object with a testCases array");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("testCases".equals(field) && value == JsonToken.START_ARRAY) {
+                return parser;
+            }
+            parser.skipChildren();
+        }
+        parser.close();
+        throw new IllegalArgumentException("No testCases array in the request");
+    }
+
+    /** The next test case, or null at the end of the array / input. */
+    private BatchValidationRequest.TestCase next(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Expected a test case object, found " + token);
+        }
+        return testCaseReader.readValue(parser);
+    }
+
+    // ── Housekeeping ────────────────────────────────────────────────────────
+
+    /**
+     * Delete job directories left by a previous run. Job state is in memory
+     * only, so their files can never be served again.
+     */
+    private void removeLeftoverJobs() throws IOException {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(baseDir, Files::isDirectory)) {
+            for (Path entry : entries) {
+                if (isJobId(entry.getFileName().toString())) {
+                    FileSystemUtils.deleteRecursively(entry);
+                }
+            }
+        }
+    }
+
+    private static boolean isJobId(String name) {
+        try {
+            return UUID.fromString(name).toString().equals(name);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void removeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        for (ValidationJob job : jobs.values()) {
+            Instant finished = job.getFinishedAt();
+            if (job.isDone() && finished != null && finished.isBefore(cutoff)) {
+                try {
+                    delete(job.getId());
+                } catch (IOException e) {
+                    System.out.println("Could not remove expired job " + job.getId() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private String queueFullMessage() {
+        return "Job queue is full (" + workers.getQueue().size() + " waiting, "
+                + workers.getActiveCount() + " running); retry later";
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "workers", workers.getMaximumPoolSize(),
+                "running", workers.getActiveCount(),
+                "queued", workers.getQueue().size(),
+                "queueCapacity", workers.getQueue().size() + workers.getQueue().remainingCapacity(),
+                "retainedJobs", jobs.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        janitor.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,214 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ApplicantFact;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of rule outcomes for repeated applicant payloads.
+ *
+ * Keyed by {@link ApplicantFact#inputFingerprint()}, so a resubmitted
+ * applicant skips the session and fireAllRules() and gets the recorded
+ * outcome replayed onto its fact. Each entry also keeps a copy of the
+ * input fields, so a fingerprint collision is a miss, never a wrong result.
+ *
+ * Entries are evicted least-recently-used beyond drools.cache.max-size and
+ * expire after drools.cache.ttl-seconds. Entries belong to the rule set
+ * version that produced them: the first lookup on a newer version clears
+ * the cache, and an older in-flight version neither reads nor writes it.
+ *
+ * The map is split into segments, each behind its own lock, so concurrent
+ * validations rarely contend on the same one.
+ */
+@Component
+public class ValidationResultCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final boolean enabled;
+    private final int maxSizePerSegment;
+    private final long ttlNanos;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /** Newest rule set version seen; entries of any other version are stale. */
+    private final AtomicInteger ruleSetVersion = new AtomicInteger();
+
+    // ── Metrics ─────────────────────────────────────────────────────────────
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ValidationResultCache(@Value("${drools.cache.enabled:false}") boolean enabled,
+                                 @Value("${drools.cache.max-size:10000}") int maxSize,
+                                 @Value("${drools.cache.ttl-seconds:300}") long ttlSeconds) {
+        if (enabled && maxSize < 1) {
+            throw new IllegalArgumentException("drools.cache.max-size must be at least 1, got " + maxSize);
+        }
+        this.enabled = enabled;
+        this.maxSizePerSegment = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxSizePerSegment);
+        }
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * Replay the cached outcome for {@code fact} onto it, if there is one
+     * for this rule set version.
+     *
+     * @return true on a hit; the fact then carries its results and flags
+     */
+    public boolean replay(int version, long fingerprint, ApplicantFact fact) {
+        if (!isCurrent(version)) {
+            misses.increment();
+            return false;
+        }
+        Segment segment = segmentFor(fingerprint);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.get(fingerprint);
+            if (entry != null && (entry.version != version || System.nanoTime() - entry.createdAt > ttlNanos)) {
+                segment.remove(fingerprint);
+                if (entry.version == version) expirations.increment();
+                entry = null;
+            }
+        }
+        if (entry == null || !entry.input.sameInputAs(fact)) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        entry.applyTo(fact);
+        return true;
+    }
+
+    /**
+     * Record the outcome of a fact that has just been through the rules.
+     *
+     * @param input the fact's input fields as captured before the rules ran
+     */
+    public void put(int version, long fingerprint, ApplicantFact input, ApplicantFact evaluated) {
+        if (version != ruleSetVersion.get()) {
+            return;
+        }
+        Entry entry = new Entry(version, System.nanoTime(), input, evaluated);
+        Segment segment = segmentFor(fingerprint);
+        synchronized (segment) {
+            segment.put(fingerprint, entry);
+        }
+    }
+
+    /**
+     * Drop every entry, e.g. after a rule change.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        invalidations.increment();
+    }
+
+    private boolean isCurrent(int version) {
+        int seen = ruleSetVersion.get();
+        if (version == seen) {
+            return true;
+        }
+        if (version > seen && ruleSetVersion.compareAndSet(seen, version)) {
+            // First request on a new rule set: every existing outcome is stale
+            clear();
+            return true;
+        }
+        return version == ruleSetVersion.get();
+    }
+
+    private Segment segmentFor(long fingerprint) {
+        return segments[(int) (fingerprint >>> 60) & (SEGMENTS - 1)];
+    }
+
+    // ── Stats ───────────────────────────────────────────────────────────────
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public Map<String, Object> getStats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", size());
+        stats.put("maxSize", maxSizePerSegment * SEGMENTS);
+        stats.put("ttlSeconds", TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    // ── Internals ───────────────────────────────────────────────────────────
+
+    /** Access-ordered map that drops its least recently used entry when full. */
+    private final class Segment extends LinkedHashMap<Long, Entry> {
+        private final int maxSize;
+
+        Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The outcome of one evaluation. {@code input} holds the input fields it
+     * was computed from, with the results and conclusion flags copied onto it.
+     */
+    private static final class Entry {
+        final int version;
+        final long createdAt;
+        final ApplicantFact input;
+
+        Entry(int version, long createdAt, ApplicantFact input, ApplicantFact evaluated) {
+            this.version = version;
+            this.createdAt = createdAt;
+            this.input = input;
+            input.copyResultsFrom(evaluated);
+        }
+
+        void applyTo(ApplicantFact fact) {
+            fact.copyResultsFrom(input);
+        }
+    }
+}
@@ -2,39 +2,393 @@ package com.droolstest.service;
 
 import com.droolstest.dto.*;
 import com.droolstest.rules.ApplicantFact;
-import org.kie.api.runtime.KieContainer;
-import org.kie.api.runtime.KieSession;
+import com.droolstest.rules.ValidationRule;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Service that creates a stateless KieSession per request,
- * inserts the fact, fires all rules, and returns the results.
+ * Validates applicants against a rule set: one at a time, in batches with
+ * expected-result assertions, or as a bare fullyValid decision.
+ *
+ * Each call pins the RuleBase it starts on (see RuleSetRegistry; null runs
+ * the default rule set), so a rule reload never changes the rules under an
+ * in-flight validation, and every response reports the version it ran on.
+ * Rule count and verdict follow that rule set's result keys.
+ *
+ * How the rules run is left to collaborators: RuleRunner for the session
+ * and engine modes, ParallelBatch for splitting batches across threads,
+ * ValidationResultCache for repeated applicants (default rule set only),
+ * and RuleTrace and RuleProfiler for traced and sampled requests. Of a
+ * batch, drools.batch.facts-per-session facts share one working memory; 0
+ * means one each, or the whole batch in stateless mode.
+ *
+ * Outcomes go to the ValidationHistory. Validations run as Unrecorded are
+ * left out of the meters, the profiler and the history.
  */
 @Service
 public class ValidationService {
 
-    private static final int TOTAL_RULES = 5;
+    private final RuleSetRegistry ruleSets;
+    private final RuleBaseManager ruleBaseManager;
+    private final RuleRunner runner;
+    private final ParallelBatch parallelBatch;
+    private final int factsPerSession;
 
-    private final KieContainer kieContainer;
+    /** Latency of the first recorded validate() call; after a warmup, of the first real request. */
+    private final AtomicLong firstValidationNanos = new AtomicLong();
 
-    public ValidationService(KieContainer kieContainer) {
-        this.kieContainer = kieContainer;
+    private final ValidationResultCache resultCache;
+    private final RuleProfiler profiler;
+    private final ValidationHistory history;
+
+    // ── Metrics ─────────────────────────────────────────────────────────────
+
+    private final Timer validationTimer;
+    private final Timer decisionTimer;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    public ValidationService(RuleSetRegistry ruleSets,
+                             RuleRunner runner,
+                             ParallelBatch parallelBatch,
+                             ValidationResultCache resultCache,
+                             RuleProfiler profiler,
+                             ValidationHistory history,
+                             MeterRegistry meterRegistry,
+                             @Value("${drools.batch.facts-per-session:0}") int factsPerSession) {
+        this.ruleSets = ruleSets;
+        this.ruleBaseManager = ruleSets.getDefault();
+        this.runner = runner;
+        this.parallelBatch = parallelBatch;
+        this.resultCache = resultCache;
+        this.profiler = profiler;
+        this.history = history;
+        this.factsPerSession = Math.max(0, factsPerSession);
+
+        String sessionMode = runner.getSessionMode();
+        validationTimer = Timer.builder("drools.validation")
+                .description("Single applicant validation latency")
+                .tag("mode", sessionMode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        decisionTimer = Timer.builder("drools.validation.decision")
+                .description("Decision-only (fullyValid) validation latency")
+                .tag("mode", sessionMode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        batchTimer = Timer.builder("drools.validation.batch")
+                .description("Batch validation latency")
+                .tag("mode", sessionMode)
+                .tag("parallel", String.valueOf(parallelBatch.isEnabled()))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        batchSize = DistributionSummary.builder("drools.validation.batch.size")
+                .description("Applicants per batch")
+                .tag("mode", sessionMode)
+                .register(meterRegistry);
+
+        Gauge.builder("drools.rulesets.loaded", ruleSets, RuleSetRegistry::loadedCount)
+                .description("Named rule sets currently compiled")
+                .register(meterRegistry);
+        FunctionCounter.builder("drools.rulesets.compilations", ruleSets, RuleSetRegistry::getCompilations)
+                .description("Named rule sets compiled on first use")
+                .register(meterRegistry);
+        FunctionCounter.builder("drools.rulesets.evictions", ruleSets, RuleSetRegistry::getEvictions)
+                .description("Named rule sets evicted from the registry")
+                .register(meterRegistry);
+        FunctionCounter.builder("drools.cache.hits", resultCache, ValidationResultCache::getHits)
+                .description("Result cache hits")
+                .register(meterRegistry);
+        FunctionCounter.builder("drools.cache.misses", resultCache, ValidationResultCache::getMisses)
+                .description("Result cache misses")
+                .register(meterRegistry);
+        Gauge.builder("drools.cache.size", resultCache, ValidationResultCache::size)
+                .description("Cached outcomes")
+                .register(meterRegistry);
+        FunctionCounter.builder("drools.trace.sampled", profiler, RuleProfiler::getSampled)
+                .description("Requests traced by the sampling profiler")
+                .register(meterRegistry);
+        FunctionCounter.builder("drools.history.records", history, ValidationHistory::getAppended)
+                .description("Outcomes appended to the validation history")
+                .register(meterRegistry);
+        FunctionCounter.builder("drools.history.dropped", history, ValidationHistory::getDropped)
+                .description("Outcomes the validation history could not store")
+                .register(meterRegistry);
     }
 
     /**
      * Run all Drools rules against a single ApplicantFact.
      */
     public ValidationResponse validate(ApplicantFact fact) {
-        KieSession session = kieContainer.newKieSession();
+        return validate(null, fact);
+    }
+
+    /**
+     * Run rule set {@code ruleSet} (null for the default) against a single ApplicantFact.
+     */
+    public ValidationResponse validate(String ruleSet, ApplicantFact fact) {
+        return validate(ruleSet, fact, false);
+    }
+
+    /**
+     * validate(), with the rule trace on the response if {@code trace}.
+     */
+    public ValidationResponse validate(String ruleSet, ApplicantFact fact, boolean trace) {
+        long start = System.nanoTime();
+        boolean sampled = !trace && !Unrecorded.isActive() && profiler.sample();
+        RuleTrace ruleTrace = trace || sampled ? new RuleTrace(List.of(fact)) : null;
+        RuleBase rules = ruleSets.acquire(ruleSet);
+        try {
+            ValidationResponse response = evaluate(rules, fact, ruleTrace);
+            if (ruleTrace != null) {
+                if (trace) response.setTrace(ruleTrace.report(fact));
+                if (sampled) profiler.record("validate", rules.getVersion(), ruleTrace);
+            }
+            long elapsed = System.nanoTime() - start;
+            if (!Unrecorded.isActive()) {
+                validationTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                if (firstValidationNanos.get() == 0 && firstValidationNanos.compareAndSet(0, elapsed)) {
+                    System.out.printf("First validation took %.2f ms%n", elapsed / 1e6);
+                }
+            }
+            return response;
+        } finally {
+            rules.release();
+        }
+    }
+
+    /**
+     * Whether the applicant passes every rule, without running the rules'
+     * consequences or building a ValidationResponse.
+     *
+     * Matching costs the same as validate(): a rule fails by never matching,
+     * which Drools only knows once evaluation is done, so there is nothing
+     * to halt on early. The five rules only ever record a pass, so a known
+     * rule that matched counts as passed without its consequence running;
+     * skipping those consequences and the response is all this saves. A
+     * rule set with result keys of its own runs its consequences.
+     */
+    public DecisionResponse decide(ApplicantFact fact) {
+        return decide(null, fact);
+    }
+
+    public DecisionResponse decide(String ruleSet, ApplicantFact fact) {
+        long start = System.nanoTime();
+        RuleBase rules = ruleSets.acquire(ruleSet);
+        try {
+            boolean fullyValid;
+            int passed;
+            fact.evaluatedWith(rules.getResultKeys());
+            if (cacheable(rules)
+                    && resultCache.replay(rules.getVersionNumber(), fact.inputFingerprint(), fact)) {
+                fullyValid = fact.isFullyValid();
+                passed = fact.passedMask();
+            } else if (!rules.getResultKeys().isBuiltIn()) {
+                // Other result keys: whether a match means a pass is up to the consequence, so run it
+                runner.run(rules, List.of(fact), null, null);
+                fullyValid = fact.isFullyValid();
+                passed = fact.passedMask();
+            } else {
+                // Decisions hold no results, so they are never cached
+                DecisionAgendaFilter filter = new DecisionAgendaFilter();
+                runner.run(rules, List.of(fact), filter, null);
+                passed = filter.matchedMask() | fact.passedMask();
+                fullyValid = passed == ValidationRule.ALL_MASK && extraResultsPassed(fact);
+            }
+            if (history.isEnabled() && !Unrecorded.isActive()) {
+                history.recordDecision(rules, fact.inputFingerprint(), passed, fullyValid);
+            }
+            return new DecisionResponse(fullyValid, rules.getVersion());
+        } finally {
+            rules.release();
+            if (!Unrecorded.isActive()) decisionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static boolean extraResultsPassed(ApplicantFact fact) {
+        for (ApplicantFact.ValidationResult r : fact.extraResults()) {
+            if (!r.isPassed()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Run all Drools rules against several facts, in parallel chunks when
+     * enabled. Responses are returned in the order of the input facts, and
+     * the whole batch runs on the same rule set version.
+     */
+    public List<ValidationResponse> validateAll(List<ApplicantFact> facts) {
+        return validateAll((String) null, facts);
+    }
+
+    public List<ValidationResponse> validateAll(String ruleSet, List<ApplicantFact> facts) {
+        return validateAll(ruleSet, facts, null);
+    }
+
+    private List<ValidationResponse> validateAll(String ruleSet, List<ApplicantFact> facts, RuleTrace trace) {
+        long start = System.nanoTime();
+        RuleBase rules = ruleSets.acquire(ruleSet);
         try {
-            session.insert(fact);
-            int rulesFired = session.fireAllRules();
-            System.out.println("Rules fired: " + rulesFired);
-            return ValidationResponse.fromFact(fact, TOTAL_RULES);
+            return parallelBatch.map(facts, chunk -> validateSequential(rules, chunk, trace));
         } finally {
-            session.dispose();
+            rules.release();
+            if (!Unrecorded.isActive()) {
+                batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                batchSize.record(facts.size());
+            }
+        }
+    }
+
+    /**
+     * Evaluate facts on the calling thread, drools.batch.facts-per-session
+     * to a working memory. Cache hits are answered up front and never reach
+     * the rules.
+     */
+    private List<ValidationResponse> validateSequential(RuleBase rules, List<ApplicantFact> facts,
+                                                        RuleTrace trace) {
+        List<ApplicantFact> pending = facts;
+        long[] fingerprints = null;
+        ApplicantFact[] inputs = null;
+        boolean cached = cacheable(rules);
+        if (cached) {
+            pending = new ArrayList<>(facts.size());
+            fingerprints = new long[facts.size()];
+            inputs = new ApplicantFact[facts.size()];
+            for (ApplicantFact fact : facts) {
+                long fingerprint = fact.inputFingerprint();
+                if (!resultCache.replay(rules.getVersionNumber(), fingerprint, fact)) {
+                    fingerprints[pending.size()] = fingerprint;
+                    inputs[pending.size()] = fact.copyInput();
+                    pending.add(fact);
+                } else if (trace != null) {
+                    trace.cacheHit(fact);
+                    trace.finished(fact);
+                }
+            }
+        }
+
+        int perSession = factsPerSession > 0 ? factsPerSession
+                : RuleRunner.MODE_STATELESS.equals(runner.getSessionMode()) ? pending.size() : 1;
+        for (int from = 0; from < pending.size(); from += perSession) {
+            List<ApplicantFact> chunk = pending.subList(from, Math.min(from + perSession, pending.size()));
+            // Only sessions holding a traced applicant need the listener
+            RuleTrace chunkTrace = trace != null && trace.tracesAny(chunk) ? trace : null;
+            runner.run(rules, chunk, null, chunkTrace);
+            if (chunkTrace != null) {
+                chunk.forEach(chunkTrace::finished);
+            }
+        }
+
+        if (cached) {
+            for (int i = 0; i < pending.size(); i++) {
+                resultCache.put(rules.getVersionNumber(), fingerprints[i], inputs[i], pending.get(i));
+            }
+        }
+
+        List<ValidationResponse> responses = new ArrayList<>(facts.size());
+        for (ApplicantFact fact : facts) {
+            responses.add(toResponse(rules, fact));
+        }
+        return responses;
+    }
+
+    /** Whether the result cache serves {@code rules}; it only keeps the default rule set's outcomes. */
+    private boolean cacheable(RuleBase rules) {
+        return resultCache.isEnabled() && rules.isDefaultRuleSet();
+    }
+
+    private ValidationResponse evaluate(RuleBase rules, ApplicantFact fact, RuleTrace trace) {
+        if (!cacheable(rules)) {
+            runner.run(rules, List.of(fact), null, trace);
+        } else {
+            long fingerprint = fact.inputFingerprint();
+            if (!resultCache.replay(rules.getVersionNumber(), fingerprint, fact)) {
+                ApplicantFact input = fact.copyInput();
+                runner.run(rules, List.of(fact), null, trace);
+                resultCache.put(rules.getVersionNumber(), fingerprint, input, fact);
+            } else if (trace != null) {
+                trace.cacheHit(fact);
+            }
+        }
+        if (trace != null) {
+            trace.finished(fact);
+        }
+        return toResponse(rules, fact);
+    }
+
+    private ValidationResponse toResponse(RuleBase rules, ApplicantFact fact) {
+        fact.evaluatedWith(rules.getResultKeys());
+        ValidationResponse response = ValidationResponse.fromFact(fact);
+        response.setRuleSetVersion(rules.getVersion());
+        if (history.isEnabled() && !Unrecorded.isActive()) {
+            history.record(rules, fact.inputFingerprint(), fact.passedMask(), response.isFullyValid());
+        }
+        return response;
+    }
+
+    /**
+     * Session mode, rule set and pool statistics, for comparing modes.
+     */
+    public Map<String, Object> getEngineStats() {
+        RuleBase rules = ruleBaseManager.getActive();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessionMode", runner.getSessionMode());
+        stats.put("engineMode", runner.getEngineMode());
+        stats.put("nativeRulesActive", runner.runsNatively(rules));
+        stats.put("parallelBatch", parallelBatch.isEnabled());
+        stats.put("maxParallelism", parallelBatch.getMaxParallelism());
+        stats.put("factsPerSession", factsPerSession);
+        stats.put("firstValidationMicros", firstValidationNanos.get() / 1_000);
+        stats.put("ruleSetVersion", rules.getVersion());
+        stats.put("sessionPool", rules.getSessionPool().getStats());
+        stats.put("resultCache", resultCache.getStats());
+        return stats;
+    }
+
+    /**
+     * What NativeRuleCompiler made of the active rule set: translated rules,
+     * rules left to Drools and why, and the verification against Drools.
+     */
+    public Map<String, Object> getNativeRulesReport() {
+        RuleBase rules = ruleBaseManager.getActive();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("engineMode", runner.getEngineMode());
+        report.put("ruleSetVersion", rules.getVersion());
+        NativeRuleSet nativeRules = rules.getNativeRules();
+        if (nativeRules != null) {
+            report.putAll(nativeRules.getReport());
+        }
+        return report;
+    }
+
+    /**
+     * Check the active rule set's translation against Drools on
+     * {@code applicants}. Reports only; whether the native rules are used
+     * is decided when the rule set is installed.
+     */
+    public Map<String, Object> verifyNativeRules(List<ApplicantFact> applicants) {
+        RuleBase rules = ruleBaseManager.acquire();
+        try {
+            NativeRuleSet nativeRules = rules.getNativeRules();
+            if (nativeRules == null) {
+                throw new IllegalStateException("No native rules for rule set " + rules.getVersion()
+                        + " (drools.engine.mode=" + runner.getEngineMode() + ")");
+            }
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("ruleSetVersion", rules.getVersion());
+            report.putAll(NativeRuleVerifier.verify(rules, nativeRules, applicants));
+            return report;
+        } finally {
+            rules.release();
         }
     }
 
@@ -42,46 +396,47 @@ public class ValidationService {
      * Run batch test cases with expected-result assertions.
      */
     public BatchValidationResponse validateBatch(BatchValidationRequest request) {
+        return validateBatch(null, request);
+    }
+
+    public BatchValidationResponse validateBatch(String ruleSet, BatchValidationRequest request) {
+        return validateBatch(ruleSet, request, false);
+    }
+
+    /**
+     * validateBatch(), with each applicant's rule trace on its ValidationResponse if {@code trace}.
+     */
+    public BatchValidationResponse validateBatch(String ruleSet, BatchValidationRequest request, boolean trace) {
+        List<BatchValidationRequest.TestCase> testCases = request.getTestCases();
+        List<ApplicantFact> facts = new ArrayList<>(testCases.size());
+        for (BatchValidationRequest.TestCase tc : testCases) {
+            facts.add(tc.getInput().getApplicant());
+        }
+        // Sampled per applicant, so a large batch does not trace every applicant
+        List<ApplicantFact> sampledFacts = trace || Unrecorded.isActive() ? List.of() : profiler.sample(facts);
+        boolean sampled = !sampledFacts.isEmpty();
+        RuleTrace ruleTrace = trace ? new RuleTrace(facts) : sampled ? new RuleTrace(sampledFacts) : null;
+        List<ValidationResponse> responses = validateAll(ruleSet, facts, ruleTrace);
+        if (ruleTrace != null) {
+            if (trace) {
+                for (int i = 0; i < facts.size(); i++) {
+                    responses.get(i).setTrace(ruleTrace.report(facts.get(i)));
+                }
+            }
+            if (sampled && !responses.isEmpty()) {
+                profiler.record("batch", responses.get(0).getRuleSetVersion(), ruleTrace);
+            }
+        }
+
         List<BatchValidationResponse.TestCaseResult> results = new ArrayList<>();
         int passed = 0;
         int failed = 0;
 
-        for (BatchValidationRequest.TestCase tc : request.getTestCases()) {
-            ApplicantFact fact = tc.getInput().getApplicant();
-            ValidationResponse vr = validate(fact);
-
-            // Compare against expected
-            List<BatchValidationResponse.AssertionResult> assertions = new ArrayList<>();
-            boolean allMatch = true;
-
-            if (tc.getExpected() != null) {
-                BatchValidationRequest.ExpectedResults exp = tc.getExpected();
-                Map<String, Boolean> actual = vr.getRuleResults();
-
-                allMatch &= assertField(assertions, "fullyValid",
-                        exp.getFullyValid(), vr.isFullyValid());
-                allMatch &= assertField(assertions, "applicantDataIsValid",
-                        exp.getApplicantDataIsValid(), actual.getOrDefault("applicantDataIsValid", false));
-                allMatch &= assertField(assertions, "applicantIncomeIsVerified",
-                        exp.getApplicantIncomeIsVerified(), actual.getOrDefault("applicantIncomeIsVerified", false));
-                allMatch &= assertField(assertions, "applicantAddressIsComplete",
-                        exp.getApplicantAddressIsComplete(), actual.getOrDefault("applicantAddressIsComplete", false));
-                allMatch &= assertField(assertions, "applicantIsEligible",
-                        exp.getApplicantIsEligible(), actual.getOrDefault("applicantIsEligible", false));
-                allMatch &= assertField(assertions, "applicantIdentityIsConfirmed",
-                        exp.getApplicantIdentityIsConfirmed(), actual.getOrDefault("applicantIdentityIsConfirmed", false));
-            }
-
-            BatchValidationResponse.TestCaseResult tcr = new BatchValidationResponse.TestCaseResult();
-            tcr.setTestName(tc.getTestName());
-            tcr.setDescription(tc.getDescription());
-            tcr.setTestPassed(allMatch);
-            tcr.setActualRuleResults(vr.getRuleResults());
-            tcr.setAssertions(assertions);
-            tcr.setValidationResponse(vr);
+        for (int i = 0; i < testCases.size(); i++) {
+            BatchValidationResponse.TestCaseResult tcr = toTestCaseResult(testCases.get(i), responses.get(i));
             results.add(tcr);
 
-            if (allMatch) passed++;
+            if (tcr.isTestPassed()) passed++;
             else failed++;
         }
 
@@ -93,6 +448,42 @@ public class ValidationService {
         return resp;
     }
 
+    /**
+     * Compare one test case's actual results against its expected values.
+     */
+    public BatchValidationResponse.TestCaseResult toTestCaseResult(BatchValidationRequest.TestCase tc,
+                                                                  ValidationResponse vr) {
+        List<BatchValidationResponse.AssertionResult> assertions = new ArrayList<>();
+        boolean allMatch = true;
+
+        if (tc.getExpected() != null) {
+            BatchValidationRequest.ExpectedResults exp = tc.getExpected();
+            Map<String, Boolean> actual = vr.getRuleResults();
+
+            allMatch &= assertField(assertions, "fullyValid",
+                    exp.getFullyValid(), vr.isFullyValid());
+            allMatch &= assertField(assertions, "applicantDataIsValid",
+                    exp.getApplicantDataIsValid(), actual.getOrDefault("applicantDataIsValid", false));
+            allMatch &= assertField(assertions, "applicantIncomeIsVerified",
+                    exp.getApplicantIncomeIsVerified(), actual.getOrDefault("applicantIncomeIsVerified", false));
+            allMatch &= assertField(assertions, "applicantAddressIsComplete",
+                    exp.getApplicantAddressIsComplete(), actual.getOrDefault("applicantAddressIsComplete", false));
+            allMatch &= assertField(assertions, "applicantIsEligible",
+                    exp.getApplicantIsEligible(), actual.getOrDefault("applicantIsEligible", false));
+            allMatch &= assertField(assertions, "applicantIdentityIsConfirmed",
+                    exp.getApplicantIdentityIsConfirmed(), actual.getOrDefault("applicantIdentityIsConfirmed", false));
+        }
+
+        BatchValidationResponse.TestCaseResult tcr = new BatchValidationResponse.TestCaseResult();
+        tcr.setTestName(tc.getTestName());
+        tcr.setDescription(tc.getDescription());
+        tcr.setTestPassed(allMatch);
+        tcr.setActualRuleResults(vr.getRuleResults());
+        tcr.setAssertions(assertions);
+        tcr.setValidationResponse(vr);
+        return tcr;
+    }
+
     private boolean assertField(List<BatchValidationResponse.AssertionResult> assertions,
                                 String field, Boolean expected, Boolean actual) {
         if (expected == null) return true; // no assertion for this field
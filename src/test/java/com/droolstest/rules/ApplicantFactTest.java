@@ -0,0 +1,125 @@
+package com.droolstest.rules;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApplicantFactTest {
+
+    private static void pass(ApplicantFact fact, ValidationRule rule) {
+        fact.addValidationResult(rule.getKey(), true, rule.getPassedMessage());
+    }
+
+    private static List<String> resultKeys(ApplicantFact fact) {
+        return fact.getValidationResults().stream().map(ApplicantFact.ValidationResult::getFieldName).toList();
+    }
+
+    @Test
+    void keepsResultsInRecordingOrder() {
+        ApplicantFact fact = new ApplicantFact();
+        pass(fact, ValidationRule.IDENTITY_IS_CONFIRMED);
+        pass(fact, ValidationRule.DATA_IS_VALID);
+        fact.addValidationResult("applicantIsEligible", false, "too young");
+        pass(fact, ValidationRule.DATA_IS_VALID);  // again: same place, no second entry
+
+        assertEquals(3, fact.resultCount());
+        assertSame(ValidationRule.IDENTITY_IS_CONFIRMED, fact.recordedRule(0));
+        assertSame(ValidationRule.DATA_IS_VALID, fact.recordedRule(1));
+        assertSame(ValidationRule.IS_ELIGIBLE, fact.recordedRule(2));
+        assertEquals(List.of("applicantIdentityIsConfirmed", "applicantDataIsValid", "applicantIsEligible"),
+                resultKeys(fact));
+
+        int recorded = ValidationRule.IDENTITY_IS_CONFIRMED.getBit() | ValidationRule.DATA_IS_VALID.getBit()
+                | ValidationRule.IS_ELIGIBLE.getBit();
+        assertEquals(recorded, fact.recordedMask());
+        assertEquals(recorded & ~ValidationRule.IS_ELIGIBLE.getBit(), fact.passedMask());
+        assertEquals("too young", fact.resultMessage(ValidationRule.IS_ELIGIBLE));
+        assertEquals("the applicant data is valid", fact.resultMessage(ValidationRule.DATA_IS_VALID));
+    }
+
+    @Test
+    void laterResultForTheSameRuleWins() {
+        ApplicantFact fact = new ApplicantFact();
+        fact.addValidationResult("applicantIsEligible", false, "too young");
+        pass(fact, ValidationRule.IS_ELIGIBLE);
+
+        assertEquals(1, fact.resultCount());
+        assertTrue(fact.isPassed(ValidationRule.IS_ELIGIBLE));
+        assertEquals("the applicant is eligible", fact.resultMessage(ValidationRule.IS_ELIGIBLE));
+    }
+
+    @Test
+    void fullyValidNeedsEveryRuleToPass() {
+        ApplicantFact fact = new ApplicantFact();
+        for (ValidationRule rule : ValidationRule.values()) {
+            assertFalse(fact.isFullyValid(), "before " + rule);
+            pass(fact, rule);
+        }
+        assertTrue(fact.isFullyValid());
+        assertEquals(ValidationRule.ALL_MASK, fact.passedMask());
+
+        fact.addValidationResult("applicantSanctionsChecked", false, "listed");
+        assertFalse(fact.isFullyValid(), "a failed result under another key");
+        assertEquals(ValidationRule.COUNT + 1, fact.resultCount());
+        assertEquals("applicantSanctionsChecked", resultKeys(fact).get(ValidationRule.COUNT));
+    }
+
+    @Test
+    void flagsListEveryRuleAndOtherKeys() {
+        ApplicantFact fact = new ApplicantFact();
+        pass(fact, ValidationRule.ADDRESS_IS_COMPLETE);
+        fact.addValidationResult("applicantSanctionsChecked", true, "not listed");
+
+        Map<String, Boolean> flags = fact.getValidationFlags();
+
+        assertEquals(ValidationRule.COUNT + 1, flags.size());
+        assertEquals(Boolean.TRUE, flags.get("applicantAddressIsComplete"));
+        assertEquals(Boolean.FALSE, flags.get("applicantDataIsValid"));
+        assertEquals(Boolean.TRUE, flags.get("applicantSanctionsChecked"));
+    }
+
+    @Test
+    void clearingOneResultKeepsTheOrderOfTheRest() {
+        ApplicantFact fact = new ApplicantFact();
+        pass(fact, ValidationRule.INCOME_IS_VERIFIED);
+        fact.setApplicantIncomeIsVerified(true);
+        pass(fact, ValidationRule.ADDRESS_IS_COMPLETE);
+        fact.addValidationResult("applicantDataIsValid", true, "custom message");
+
+        fact.clearResult("applicantAddressIsComplete");
+        fact.clearResult("applicantIncomeIsVerified");
+        pass(fact, ValidationRule.INCOME_IS_VERIFIED);
+
+        assertEquals(List.of("applicantDataIsValid", "applicantIncomeIsVerified"), resultKeys(fact));
+        assertFalse(fact.hasResult(ValidationRule.ADDRESS_IS_COMPLETE));
+        assertFalse(fact.isApplicantIncomeIsVerified(), "the conclusion flag is cleared with the result");
+        assertEquals("custom message", fact.resultMessage(ValidationRule.DATA_IS_VALID));
+    }
+
+    @Test
+    void copiedResultsMatchTheOriginal() {
+        ApplicantFact original = new ApplicantFact();
+        pass(original, ValidationRule.IDENTITY_IS_CONFIRMED);
+        original.addValidationResult("applicantDataIsValid", false, "no name");
+        original.addValidationResult("applicantSanctionsChecked", true, "not listed");
+
+        ApplicantFact copy = new ApplicantFact();
+        pass(copy, ValidationRule.IS_ELIGIBLE);
+        copy.copyResultsFrom(original);
+
+        assertEquals(resultKeys(original), resultKeys(copy));
+        assertEquals(original.getValidationFlags(), copy.getValidationFlags());
+        assertEquals(original.passedMask(), copy.passedMask());
+        assertEquals("no name", copy.resultMessage(ValidationRule.DATA_IS_VALID));
+
+        copy.clearResults();
+        assertEquals(0, copy.resultCount());
+        assertEquals(List.of(), copy.getValidationResults());
+    }
+}
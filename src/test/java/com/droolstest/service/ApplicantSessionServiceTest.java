@@ -0,0 +1,134 @@
+package com.droolstest.service;
+
+import com.droolstest.config.RuleCompiler;
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.dto.ValidationRequest;
+import com.droolstest.rules.ApplicantFact;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieServices;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApplicantSessionServiceTest {
+
+    private static final String DATA_RULE = "the applicant data is valid - Rule 1";
+    private static final String INCOME_RULE = "the applicant income is verified - Rule 2";
+    private static final String ADDRESS_RULE = "the applicant address is complete - Rule 3";
+    private static final String ELIGIBLE_RULE = "the applicant is eligible - Rule 4";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Map<String, String> sources;
+    private RuleBaseManager manager;
+    private ApplicantSessionService service;
+    private ApplicantFact applicant;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sources = RuleCompiler.loadClasspathRules();
+        manager = new RuleBaseManager(2, 1_000, List.of());
+        install("1.0.0");
+        service = new ApplicantSessionService(new RuleSetRegistry(manager),
+                new ValidationHistory(false, "", 1 << 20, 1), mapper, new SimpleMeterRegistry(), 600, 2);
+        try (InputStream in = getClass().getResourceAsStream("/single-test.json")) {
+            applicant = mapper.readValue(in, ValidationRequest.class).getApplicant();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        manager.shutdown();
+    }
+
+    private void install(String version) {
+        manager.install(RuleCompiler.compile(sources, KieServices.Factory.get().newReleaseId(
+                "com.droolstest", "applicant-session-test", version)), sources, "test");
+    }
+
+    private ObjectNode patch(String field, Object value) {
+        return mapper.createObjectNode().set(field, mapper.valueToTree(value));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverTheLimit() {
+        service.open("a", null, applicant.copyInput());
+        service.open("b", null, applicant.copyInput());
+        assertNotNull(service.get("a"));  // b is now the least recently used
+
+        service.open("c", null, applicant.copyInput());
+
+        assertNotNull(service.get("a"));
+        assertNull(service.get("b"));
+        assertNotNull(service.get("c"));
+        assertEquals(2, service.getStats().get("open"));
+        assertEquals(1L, service.getStats().get("evicted"));
+    }
+
+    @Test
+    void reopeningReplacesWithoutEvicting() {
+        service.open("a", null, applicant.copyInput());
+        service.open("b", null, applicant.copyInput());
+        service.open("a", null, applicant.copyInput());
+
+        assertNotNull(service.get("a"));
+        assertNotNull(service.get("b"));
+        assertEquals(0L, service.getStats().get("evicted"));
+    }
+
+    @Test
+    void patchReevaluatesOnlyTheRulesReadingTheChangedFields() {
+        ValidationResponse opened = service.open("a", null, applicant.copyInput());
+        assertFalse(opened.getRuleResults().get("applicantDataIsValid"));  // blank first name
+        assertTrue(opened.getRuleResults().get("applicantAddressIsComplete"));
+
+        ValidationResponse named = service.patch("a", patch("applicantFirstName", "Jane"));
+        assertEquals(List.of(DATA_RULE), named.getReevaluatedRules());
+        assertTrue(named.isFullyValid());
+
+        // A rule that passed and no longer matches loses its old result
+        ValidationResponse moved = service.patch("a", patch("applicantCity", ""));
+        assertEquals(List.of(ADDRESS_RULE), moved.getReevaluatedRules());
+        assertFalse(moved.getRuleResults().get("applicantAddressIsComplete"));
+        assertTrue(moved.getRuleResults().get("applicantDataIsValid"));
+        assertEquals(4, moved.getRulesMatched());
+
+        ValidationResponse poorer = service.patch("a", patch("applicantAnnualIncome", 20_000));
+        assertEquals(List.of(INCOME_RULE, ELIGIBLE_RULE), poorer.getReevaluatedRules());
+        assertTrue(poorer.getRuleResults().get("applicantIncomeIsVerified"));
+        assertFalse(poorer.getRuleResults().get("applicantIsEligible"));
+        assertFalse(poorer.getRuleResults().get("applicantAddressIsComplete"));
+        assertEquals(3, poorer.getRulesMatched());
+
+        assertEquals(List.of(), service.patch("a", patch("applicantCity", "")).getReevaluatedRules());
+        assertEquals(poorer.getRuleResults(), service.get("a").getRuleResults());
+    }
+
+    @Test
+    void patchAfterReloadMovesTheSessionToTheActiveVersion() {
+        String opened = service.open("a", null, applicant.copyInput()).getRuleSetVersion();
+        install("2.0.0");
+
+        ValidationResponse patched = service.patch("a", patch("applicantFirstName", "Jane"));
+
+        assertNotEquals(opened, patched.getRuleSetVersion());
+        assertEquals(5, patched.getReevaluatedRules().size());
+        assertTrue(patched.isFullyValid());
+        assertEquals(patched.getRuleSetVersion(), service.get("a").getRuleSetVersion());
+        assertEquals(1L, service.getStats().get("moved"));
+    }
+}
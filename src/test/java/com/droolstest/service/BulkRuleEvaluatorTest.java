@@ -0,0 +1,125 @@
+package com.droolstest.service;
+
+import com.droolstest.config.RuleCompiler;
+import com.droolstest.rules.ApplicantFact;
+import com.droolstest.rules.ValidationRule;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The bulk engine's restatement of the bundled rules agrees with Drools,
+ * row by row, including the comparisons at their boundaries.
+ */
+class BulkRuleEvaluatorTest {
+
+    private static KieContainer container;
+
+    @BeforeAll
+    static void compileRules() throws IOException {
+        container = RuleCompiler.compile(RuleCompiler.loadClasspathRules(),
+                KieServices.Factory.get().newReleaseId("com.droolstest", "bulk-evaluator-test", "1.0.0"));
+    }
+
+    @AfterAll
+    static void dispose() {
+        container.dispose();
+    }
+
+    /** The rules {@code fact} passes in Drools, as ValidationRule bits. */
+    private static int droolsMask(ApplicantFact fact) {
+        KieSession session = container.getKieBase().newKieSession();
+        try {
+            session.insert(fact);
+            session.fireAllRules();
+        } finally {
+            session.dispose();
+        }
+        return fact.passedMask();
+    }
+
+    private static void assertAgreesWithDrools(List<ApplicantFact> applicants) {
+        byte[] flags = BulkRuleEvaluator.evaluate(ApplicantColumns.of(applicants), ForkJoinPool.commonPool());
+        assertEquals(applicants.size(), flags.length);
+        for (int i = 0; i < applicants.size(); i++) {
+            ApplicantFact applicant = applicants.get(i);
+            assertEquals(droolsMask(applicant.copyInput()), flags[i],
+                    "row " + i + ": income " + applicant.getApplicantAnnualIncome() + ", age "
+                            + applicant.getApplicantAge() + ", credit score " + applicant.getApplicantCreditScore());
+        }
+    }
+
+    private static List<ApplicantFact> variants(List<Consumer<ApplicantFact>> changes) {
+        List<ApplicantFact> applicants = new ArrayList<>();
+        for (Consumer<ApplicantFact> change : changes) {
+            ApplicantFact fact = ApplicantGenerator.generate(1, 100, applicants.size()).get(0);
+            change.accept(fact);
+            applicants.add(fact);
+        }
+        return applicants;
+    }
+
+    @Test
+    void agreesWithDroolsOnGeneratedApplicants() {
+        // Several 64-row words, the last one partly used
+        List<ApplicantFact> applicants = new ArrayList<>(NativeRuleVerifier.sampleApplicants());
+        applicants.addAll(ApplicantGenerator.generate(300, 30, 7));
+        assertAgreesWithDrools(applicants);
+    }
+
+    @Test
+    void roundsIncomeLikeDroolsComparesIt() {
+        List<Consumer<ApplicantFact>> changes = new ArrayList<>();
+        for (String income : new String[]{"25000", "25000.00", "25000.001", "25000.0000001", "24999.999",
+                "25001", "0", "0.001", "-0.001", "-25001", "1E+30"}) {
+            changes.add(f -> f.setApplicantAnnualIncome(new BigDecimal(income)));
+        }
+        changes.add(f -> f.setApplicantAnnualIncome(null));
+        assertAgreesWithDrools(variants(changes));
+    }
+
+    @Test
+    void agreesOnAgeAndCreditScoreBoundaries() {
+        List<Consumer<ApplicantFact>> changes = new ArrayList<>();
+        for (Integer age : new Integer[]{17, 18, 19, 0, -1, null}) {
+            changes.add(f -> f.setApplicantAge(age));
+        }
+        for (Integer score : new Integer[]{600, 601, 0, null}) {
+            changes.add(f -> f.setApplicantCreditScore(score));
+        }
+        changes.add(f -> {
+            f.setApplicantAge(null);
+            f.setApplicantCreditScore(null);
+            f.setApplicantAnnualIncome(null);
+        });
+        changes.add(f -> {
+            f.setApplicantDriversLicenseNumber("");
+            f.setApplicantPassportNumber(null);
+            f.setApplicantStateIdNumber("SID-1");
+        });
+        assertAgreesWithDrools(variants(changes));
+    }
+
+    @Test
+    void unreadableRowsFailEveryRule() {
+        ApplicantColumns columns = ApplicantColumns.of(ApplicantGenerator.generate(70, 100, 3));
+        columns.addUnreadable();
+
+        byte[] flags = BulkRuleEvaluator.evaluate(columns, ForkJoinPool.commonPool());
+
+        assertEquals(ValidationRule.ALL_MASK, flags[69]);
+        assertEquals((byte) BulkRuleEvaluator.UNREADABLE, flags[70]);
+    }
+}
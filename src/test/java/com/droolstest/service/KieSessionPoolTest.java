@@ -0,0 +1,147 @@
+package com.droolstest.service;
+
+import com.droolstest.config.RuleCompiler;
+import com.droolstest.rules.ApplicantFact;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KieSessionPoolTest {
+
+    private static KieContainer container;
+    private static KieBase kieBase;
+
+    @BeforeAll
+    static void compileRules() throws IOException {
+        container = RuleCompiler.compile(RuleCompiler.loadClasspathRules(),
+                KieServices.Factory.get().newReleaseId("com.droolstest", "session-pool-test", "1.0.0"));
+        kieBase = container.getKieBase();
+    }
+
+    @AfterAll
+    static void dispose() {
+        container.dispose();
+    }
+
+    @Test
+    void neverHandsOutMoreThanMaxSize() throws Exception {
+        int threads = 8;
+        int rounds = 200;
+        KieSessionPool pool = new KieSessionPool(kieBase, 2, 10_000, List.of());
+        AtomicInteger checkedOut = new AtomicInteger();
+        AtomicInteger mostCheckedOut = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < rounds; i++) {
+                        KieSession session = pool.acquire();
+                        mostCheckedOut.accumulateAndGet(checkedOut.incrementAndGet(), Math::max);
+                        try {
+                            session.insert(new ApplicantFact());
+                            session.fireAllRules();
+                        } finally {
+                            checkedOut.decrementAndGet();
+                            pool.release(session);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            pool.shutdown();
+        }
+
+        assertTrue(mostCheckedOut.get() <= 2, "checked out at once: " + mostCheckedOut.get());
+        assertEquals(threads * rounds, pool.getAcquired());
+        assertEquals(0, pool.getTimeouts());
+        assertEquals(0, pool.getInUse());
+    }
+
+    @Test
+    void timesOutWhenExhausted() {
+        KieSessionPool pool = new KieSessionPool(kieBase, 1, 50, List.of());
+        try {
+            KieSession held = pool.acquire();
+            assertThrows(SessionPoolExhaustedException.class, pool::acquire);
+            assertEquals(1, pool.getTimeouts());
+
+            pool.release(held);
+            pool.release(pool.acquire());
+            assertEquals(2, pool.getAcquired());
+            assertEquals(0, pool.getInUse());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void releasedSessionsComeBackEmpty() {
+        KieSessionPool pool = new KieSessionPool(kieBase, 1, 1_000, List.of());
+        try {
+            KieSession session = pool.acquire();
+            session.insert(new ApplicantFact());
+            session.fireAllRules();
+            pool.release(session);
+
+            KieSession reused = pool.acquire();
+            assertEquals(0, reused.getFactCount());
+            pool.release(reused);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void reusedSessionsKeepTheirListeners() {
+        AtomicInteger fired = new AtomicInteger();
+        DefaultAgendaEventListener counter = new DefaultAgendaEventListener() {
+            @Override
+            public void afterMatchFired(AfterMatchFiredEvent event) {
+                fired.incrementAndGet();
+            }
+        };
+        KieSessionPool pool = new KieSessionPool(kieBase, 1, 1_000, List.of(counter));
+        try {
+            for (int i = 1; i <= 2; i++) {
+                KieSession session = pool.acquire();
+                ApplicantFact applicant = new ApplicantFact();
+                applicant.setApplicantDriversLicenseNumber("DL-1");  // only the identity rule matches
+                session.insert(applicant);
+                session.fireAllRules();
+                pool.release(session);
+                assertEquals(i, fired.get(), "firings seen after checkout " + i);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.droolstest.service;
+
+import com.droolstest.config.NativeRuleCompiler;
+import com.droolstest.config.RuleCompiler;
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.rules.ApplicantFact;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Every applicant of test-cases.json, run through the bundled DRL in Drools
+ * and through its native translation, must come out as the same fact.
+ *
+ * Independent of NativeRuleVerifier, which performs the same check at run
+ * time: a bug there must not be able to hide a bug in the translation.
+ */
+class NativeEngineDifferentialTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static KieContainer container;
+    private static NativeRuleSet nativeRules;
+
+    @BeforeAll
+    static void compileRules() throws IOException {
+        Map<String, String> sources = RuleCompiler.loadClasspathRules();
+        container = RuleCompiler.compile(sources, KieServices.Factory.get().newReleaseId(
+                "com.droolstest", "differential-test", "1.0.0"));
+        nativeRules = NativeRuleCompiler.compile(sources);
+    }
+
+    @AfterAll
+    static void dispose() {
+        container.dispose();
+    }
+
+    static Stream<Arguments> testCases() throws IOException {
+        try (InputStream in = NativeEngineDifferentialTest.class.getResourceAsStream("/test-cases.json")) {
+            assertNotNull(in, "test-cases.json not on the classpath");
+            BatchValidationRequest request = MAPPER.readValue(in, BatchValidationRequest.class);
+            return request.getTestCases().stream()
+                    .map(tc -> Arguments.of(tc.getTestName(), tc.getInput().getApplicant()));
+        }
+    }
+
+    @Test
+    void everyBundledRuleIsTranslated() {
+        assertEquals(0, nativeRules.fallbackRuleCount(), "rules left to Drools");
+        assertEquals(5, nativeRules.nativeRuleCount());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("testCases")
+    void nativeRulesMatchDrools(String testName, ApplicantFact applicant) {
+        ApplicantFact drools = applicant.copyInput();
+        KieSession session = container.getKieBase().newKieSession();
+        try {
+            session.insert(drools);
+            session.fireAllRules();
+        } finally {
+            session.dispose();
+        }
+
+        ApplicantFact translated = applicant.copyInput();
+        nativeRules.apply(translated);
+
+        assertEquals(outcome(drools), outcome(translated));
+        assertEquals(drools.isFullyValid(), translated.isFullyValid());
+    }
+
+    /** The fact as JSON, without timestamps and with results in key order. */
+    private static JsonNode outcome(ApplicantFact fact) {
+        ObjectNode tree = MAPPER.valueToTree(fact);
+        ArrayNode results = (ArrayNode) tree.get("validationResults");
+        List<JsonNode> sorted = new ArrayList<>();
+        for (JsonNode result : results) {
+            ((ObjectNode) result).remove("timestamp");
+            sorted.add(result);
+        }
+        sorted.sort(Comparator.comparing(r -> r.path("fieldName").asText()));
+        results.removeAll();
+        results.addAll(sorted);
+        return tree;
+    }
+}
@@ -0,0 +1,56 @@
+package com.droolstest.service;
+
+import com.droolstest.rules.ApplicantFact;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RuleProfilerTest {
+
+    private static List<ApplicantFact> batch(int size) {
+        List<ApplicantFact> facts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            facts.add(new ApplicantFact());
+        }
+        return facts;
+    }
+
+    @Test
+    void samplesNothingAtRateZero() {
+        assertEquals(List.of(), new RuleProfiler(0, 10).sample(batch(1_000)));
+    }
+
+    @Test
+    void capsTheApplicantsTracedPerBatch() {
+        List<ApplicantFact> facts = batch(10_000);
+
+        List<ApplicantFact> all = new RuleProfiler(1, 10).sample(facts);
+        assertEquals(RuleProfiler.MAX_SAMPLED_PER_BATCH, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertSame(facts.get(i), all.get(i));
+        }
+
+        assertTrue(new RuleProfiler(0.5, 10).sample(facts).size() <= RuleProfiler.MAX_SAMPLED_PER_BATCH);
+    }
+
+    @Test
+    void samplesEachApplicantAtTheRate() {
+        RuleProfiler profiler = new RuleProfiler(0.01, 10);
+        List<ApplicantFact> facts = batch(100);
+        int sampled = 0;
+        for (int round = 0; round < 2_000; round++) {
+            List<ApplicantFact> picked = profiler.sample(facts);
+            for (int i = 1; i < picked.size(); i++) {
+                assertTrue(facts.indexOf(picked.get(i - 1)) < facts.indexOf(picked.get(i)), "in batch order, no repeats");
+            }
+            sampled += picked.size();
+        }
+        // 2,000 rounds of 100 applicants at 1%: 2,000 expected, sd about 45
+        assertTrue(sampled > 1_700 && sampled < 2_300, "sampled " + sampled);
+    }
+}
@@ -0,0 +1,133 @@
+package com.droolstest.service;
+
+import com.droolstest.config.RuleCompilationException;
+import com.droolstest.config.RuleCompiler;
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.dto.ValidationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieServices;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validations running while the rule set is hot-swapped finish on the
+ * version they started on, and each replaced version is disposed once
+ * the last of them releases it.
+ */
+class RuleReloadConcurrencyTest {
+
+    private static final int THREADS = 4;
+    private static final int RELOADS = 2;
+
+    private Map<String, String> sources;
+    private RuleBaseManager manager;
+    private ExecutorService executor;
+    private ValidationService service;
+    private List<BatchValidationRequest.TestCase> testCases;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sources = RuleCompiler.loadClasspathRules();
+        manager = new RuleBaseManager(THREADS, 10_000, List.of());
+        manager.install(RuleCompiler.compile(sources, KieServices.Factory.get().newReleaseId(
+                "com.droolstest", "reload-test", "1.0.0")), sources, "test");
+        RuleSetRegistry registry = new RuleSetRegistry(manager);
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(THREADS);
+        service = new ValidationService(registry,
+                new RuleRunner(registry, meters, RuleRunner.MODE_POOLED, RuleRunner.ENGINE_DROOLS),
+                new ParallelBatch(executor, false, 1), new ValidationResultCache(false, 0, 0), new RuleProfiler(0, 0),
+                new ValidationHistory(false, "", 1 << 20, 1), meters, 0);
+        try (InputStream in = getClass().getResourceAsStream("/test-cases.json")) {
+            testCases = new ObjectMapper().readValue(in, BatchValidationRequest.class).getTestCases();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        manager.shutdown();
+    }
+
+    @Test
+    void validationsSurviveReloads() throws Exception {
+        AtomicBoolean reloading = new AtomicBoolean(true);
+        List<Future<Integer>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                int validated = 0;
+                do {
+                    for (BatchValidationRequest.TestCase tc : testCases) {
+                        assertPassed(tc);
+                        validated++;
+                    }
+                } while (reloading.get());
+                return validated;
+            }));
+        }
+
+        RuleBase first = manager.acquire();
+        try {
+            for (int i = 0; i < RELOADS; i++) {
+                manager.reload(sources, "reload " + i).get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            reloading.set(false);
+        }
+
+        // Still usable while referenced, although no longer active
+        assertTrue(first.retain());
+        first.release();
+        first.release();
+        assertFalse(first.retain(), "replaced rule set was not disposed");
+
+        for (Future<Integer> worker : workers) {
+            assertTrue(worker.get(60, TimeUnit.SECONDS) >= testCases.size());
+        }
+        assertTrue(manager.getActive().getVersion().startsWith((1 + RELOADS) + "-"));
+        assertEquals(0, manager.getActive().getSessionPool().getInUse());
+    }
+
+    @Test
+    void failedReloadKeepsTheActiveRuleSet() {
+        String version = manager.getActive().getVersion();
+        Map<String, String> broken = new TreeMap<>(sources);
+        broken.put("broken.drl", "package com.droolstest.rules\nrule \"broken\" when then nonsense( end\n");
+
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> manager.reload(broken, "broken").get(120, TimeUnit.SECONDS));
+
+        assertInstanceOf(RuleCompilationException.class, failed.getCause());
+        assertEquals(version, manager.getActive().getVersion());
+        assertNotNull(manager.getStatus().get("lastReloadError"));
+        testCases.forEach(this::assertPassed);
+    }
+
+    /** Validate one test case and check it against its expected values. */
+    private void assertPassed(BatchValidationRequest.TestCase tc) {
+        ValidationResponse response = service.validate(tc.getInput().getApplicant().copyInput());
+        assertTrue(service.toTestCaseResult(tc, response).isTestPassed(), tc.getTestName());
+    }
+}
@@ -0,0 +1,173 @@
+package com.droolstest.service;
+
+import com.droolstest.config.RuleCompiler;
+import com.droolstest.dto.HistoryQuery;
+import com.droolstest.rules.ValidationRule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.api.KieServices;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ValidationHistoryTest {
+
+    /** A rule set with only the eligibility rule; the other four are missing from its records. */
+    private static final String ELIGIBILITY_ONLY = """
+            package com.droolstest.rules
+            import com.droolstest.rules.ApplicantFact
+
+            rule "eligible"
+                dialect "mvel"
+                when
+                    $fact : ApplicantFact(applicantAge >= 18)
+                then
+                    $fact.addValidationResult("applicantIsEligible", true, "the applicant is eligible");
+            end
+            """;
+
+    private static final int ELIGIBLE = ValidationRule.IS_ELIGIBLE.getBit();
+
+    @TempDir
+    Path dir;
+
+    private RuleBaseManager defaultRules;
+    private RuleBaseManager adultRules;
+    private ValidationHistory history;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Map<String, String> sources = RuleCompiler.loadClasspathRules();
+        defaultRules = new RuleBaseManager(1, 1_000, List.of());
+        defaultRules.install(RuleCompiler.compile(sources, KieServices.Factory.get().newReleaseId(
+                "com.droolstest", "history-test", "1.0.0")), sources, "test");
+        Map<String, String> adult = Map.of("adult.drl", ELIGIBILITY_ONLY);
+        adultRules = new RuleBaseManager(1, 1_000, List.of(), false, "adult");
+        adultRules.install(RuleCompiler.compile(adult, KieServices.Factory.get().newReleaseId(
+                "com.droolstest", "history-test-adult", "1.0.0")), adult, "test");
+
+        // Two records a segment, so most are in settled segments answered from their summaries
+        history = new ValidationHistory(true, dir.toString(), 2, 64);
+        RuleBase all = defaultRules.getActive();
+        history.record(all, 1, ValidationRule.ALL_MASK, true);
+        history.record(all, 2, ValidationRule.ALL_MASK & ~ELIGIBLE, false);
+        history.recordDecision(all, 3, ValidationRule.ALL_MASK, true);
+        RuleBase eligibleOnly = adultRules.getActive();
+        history.record(eligibleOnly, 4, ELIGIBLE, true);
+        history.record(eligibleOnly, 5, 0, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        defaultRules.shutdown();
+        adultRules.shutdown();
+    }
+
+    private Map<String, Object> query(Consumer<HistoryQuery> filters) {
+        HistoryQuery query = new HistoryQuery();
+        filters.accept(query);
+        return history.query(query);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> hashes(Map<String, Object> result) {
+        return ((List<Map<String, Object>>) result.get("records")).stream()
+                .map(r -> (String) r.get("inputHash")).toList();
+    }
+
+    private static String hash(long fingerprint) {
+        return String.format("%016x", fingerprint);
+    }
+
+    @Test
+    void failedOnlyMatchesRulesTheRuleSetHas() {
+        assertEquals(List.of(hash(2), hash(5)), hashes(query(q -> q.setFailed("4"))));
+        assertEquals(List.of(), hashes(query(q -> q.setFailed("applicantDataIsValid"))),
+                "the eligibility-only rule set has no data rule to fail");
+        assertEquals(0L, query(q -> q.setFailed("1,4")).get("matched"));
+    }
+
+    @Test
+    void passedNeedsTheRuleToHavePassed() {
+        assertEquals(List.of(hash(1), hash(2), hash(3)), hashes(query(q -> q.setPassed("5"))));
+        assertEquals(List.of(hash(1), hash(3), hash(4)), hashes(query(q -> q.setPassed("applicantIsEligible"))));
+    }
+
+    @Test
+    void filtersByVerdictRuleSetAndInput() {
+        assertEquals(List.of(hash(1), hash(3), hash(4)), hashes(query(q -> q.setFullyValid(true))));
+        assertEquals(List.of(hash(4)), hashes(query(q -> {
+            q.setFullyValid(true);
+            q.setPassed("4");
+            q.setRuleSet("adult");
+        })));
+        assertEquals(List.of(hash(4), hash(5)), hashes(query(q -> q.setRuleSet("adult"))));
+        assertEquals(0L, query(q -> q.setRuleSet("never-used")).get("matched"));
+        assertEquals(List.of(hash(2)), hashes(query(q -> q.setInputHash(hash(2)))));
+        assertEquals(0L, query(q -> q.setTo("2000-01-01")).get("matched"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordsNameTheRulesMissingFromTheirRuleSet() {
+        Map<String, Object> record = ((List<Map<String, Object>>) query(q -> q.setInputHash(hash(5)))
+                .get("records")).get(0);
+
+        assertEquals(List.of("applicantDataIsValid", "applicantIncomeIsVerified", "applicantAddressIsComplete",
+                "applicantIdentityIsConfirmed"), record.get("notInRuleSet"));
+        assertEquals(List.of(), record.get("passed"));
+
+        Map<String, Object> decision = ((List<Map<String, Object>>) query(q -> q.setInputHash(hash(3)))
+                .get("records")).get(0);
+        assertEquals(true, decision.get("decision"));
+        assertNull(decision.get("notInRuleSet"));
+    }
+
+    @Test
+    void pagesWithAfterAndCountsTheRest() {
+        Map<String, Object> first = query(q -> q.setLimit(2));
+        assertEquals(List.of(hash(1), hash(2)), hashes(first));
+        assertEquals(5L, first.get("matched"));
+
+        Map<String, Object> second = query(q -> {
+            q.setLimit(2);
+            q.setAfter((Long) first.get("next"));
+        });
+        assertEquals(List.of(hash(3), hash(4)), hashes(second));
+        assertEquals(3L, second.get("matched"));
+
+        assertEquals(List.of(hash(4)), hashes(query(q -> {
+            q.setFullyValid(true);
+            q.setAfter((Long) second.get("next") - 1);
+        })));
+    }
+
+    @Test
+    void survivesARestart() throws IOException {
+        history.flush();
+        ValidationHistory reopened = new ValidationHistory(true, dir.toString(), 2, 64);
+        history = reopened;
+
+        assertEquals(List.of(hash(2), hash(5)), hashes(query(q -> q.setFailed("4"))));
+        reopened.record(adultRules.getActive(), 6, 0, false);
+        assertEquals(List.of(hash(5), hash(6)), hashes(query(q -> {
+            q.setRuleSet("adult");
+            q.setFullyValid(false);
+        })));
+    }
+
+    @Test
+    void rejectsUnknownRules() {
+        assertThrows(IllegalArgumentException.class, () -> query(q -> q.setPassed("6")));
+        assertThrows(IllegalArgumentException.class, () -> query(q -> q.setFailed("applicantIsTall")));
+    }
+}
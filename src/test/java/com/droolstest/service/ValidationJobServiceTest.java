@@ -0,0 +1,180 @@
+package com.droolstest.service;
+
+import com.droolstest.config.RuleCompiler;
+import com.droolstest.dto.BatchValidationRequest;
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.rules.ApplicantFact;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.api.KieServices;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidationJobServiceTest {
+
+    private static final int CHUNK_SIZE = 4;
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private RuleBaseManager manager;
+    private ExecutorService executor;
+    /** Holds every chunk until opened; open unless a test closes it. */
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private ValidationJobService jobs;
+    private byte[] testCasesJson;
+    private List<BatchValidationRequest.TestCase> testCases;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Map<String, String> sources = RuleCompiler.loadClasspathRules();
+        manager = new RuleBaseManager(2, 1_000, List.of());
+        manager.install(RuleCompiler.compile(sources, KieServices.Factory.get().newReleaseId(
+                "com.droolstest", "validation-job-test", "1.0.0")), sources, "test");
+        RuleSetRegistry registry = new RuleSetRegistry(manager);
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        executor = Executors.newSingleThreadExecutor();
+        ValidationService validation = new ValidationService(registry,
+                new RuleRunner(registry, meters, RuleRunner.MODE_POOLED, RuleRunner.ENGINE_DROOLS),
+                new ParallelBatch(executor, false, 1), new ValidationResultCache(false, 0, 0), new RuleProfiler(0, 0),
+                new ValidationHistory(false, "", 1 << 20, 1), meters, 0) {
+            @Override
+            public List<ValidationResponse> validateAll(List<ApplicantFact> facts) {
+                try {
+                    gate.await(60, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.validateAll(facts);
+            }
+        };
+        jobs = new ValidationJobService(validation, mapper, meters,
+                dir.toString(), 1, 1, CHUNK_SIZE, 60, 1 << 20);
+        try (InputStream in = getClass().getResourceAsStream("/test-cases.json")) {
+            testCasesJson = in.readAllBytes();
+        }
+        testCases = mapper.readValue(testCasesJson, BatchValidationRequest.class).getTestCases();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobs.shutdown();
+        executor.shutdownNow();
+        manager.shutdown();
+    }
+
+    private ValidationJob submit(byte[] body, boolean ndjson) throws IOException {
+        return jobs.submit(new ByteArrayInputStream(body), ndjson);
+    }
+
+    private static void awaitDone(ValidationJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (!job.isDone()) {
+            assertTrue(System.nanoTime() < deadline, "job still " + job.getState());
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void runsAJobAndPagesThroughItsResults() throws Exception {
+        ValidationJob job = submit(testCasesJson, false);
+        awaitDone(job);
+
+        Map<String, Object> status = job.getStatus();
+        assertEquals(ValidationJob.State.COMPLETED, status.get("state"));
+        assertEquals(testCases.size(), status.get("totalTests"));
+        assertEquals(testCases.size(), status.get("processed"));
+        assertEquals(testCases.size(), status.get("passed"));
+        assertEquals(100.0, status.get("percentComplete"));
+        assertFalse(Files.exists(job.getInput()), "the spooled input is removed once read");
+
+        List<String> names = new ArrayList<>();
+        int size = 5;
+        for (int page = 0; ; page++) {
+            List<String> results = jobs.results(job, page, size, job.getProcessed());
+            if (results.isEmpty()) {
+                break;
+            }
+            assertTrue(results.size() == size || names.size() + results.size() == testCases.size());
+            for (String result : results) {
+                names.add(mapper.readTree(result).get("testName").asText());
+            }
+        }
+        assertEquals(testCases.stream().map(BatchValidationRequest.TestCase::getTestName).toList(), names);
+        assertEquals(2, jobs.results(job, 0, 2, 3).size());
+        assertEquals(1, jobs.results(job, 1, 2, 3).size(), "never past the results available");
+    }
+
+    @Test
+    void acceptsOneTestCasePerLine() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (BatchValidationRequest.TestCase tc : testCases) {
+            ndjson.append(mapper.writeValueAsString(tc)).append('\n');
+        }
+        ValidationJob job = submit(ndjson.toString().getBytes(StandardCharsets.UTF_8), true);
+        awaitDone(job);
+
+        assertEquals(ValidationJob.State.COMPLETED, job.getState());
+        assertEquals(testCases.size(), job.getStatus().get("passed"));
+    }
+
+    @Test
+    void malformedInputFailsTheJob() throws Exception {
+        ValidationJob job = submit("{\"testCases\": [{\"testName\": ".getBytes(StandardCharsets.UTF_8), false);
+        awaitDone(job);
+
+        assertEquals(ValidationJob.State.FAILED, job.getState());
+        assertNotNull(job.getStatus().get("error"));
+    }
+
+    @Test
+    void rejectsJobsBeyondTheQueueAndCancelsQueuedOnes() throws Exception {
+        gate = new CountDownLatch(1);
+        ValidationJob running = submit(testCasesJson, false);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (running.getState() != ValidationJob.State.RUNNING) {
+            assertTrue(System.nanoTime() < deadline, "job never started");
+            Thread.sleep(10);
+        }
+        ValidationJob queued = submit(testCasesJson, false);
+
+        assertThrows(JobQueueFullException.class, () -> submit(testCasesJson, false));
+        assertEquals(2, jobs.list().size());
+
+        assertTrue(jobs.delete(queued.getId()));
+        assertEquals(ValidationJob.State.CANCELLED, queued.getState());
+        assertFalse(Files.exists(queued.getDir()));
+        assertNull(jobs.get(queued.getId()));
+
+        gate.countDown();
+        awaitDone(running);
+        assertEquals(ValidationJob.State.COMPLETED, running.getState());
+        assertEquals(ValidationJob.State.CANCELLED, queued.getState());
+        assertNull(queued.getStatus().get("startedAt"), "a job cancelled while queued never starts");
+        assertEquals(0, queued.getProcessed());
+    }
+}
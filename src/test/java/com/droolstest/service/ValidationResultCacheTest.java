@@ -0,0 +1,113 @@
+package com.droolstest.service;
+
+import com.droolstest.config.RuleCompiler;
+import com.droolstest.dto.ValidationRequest;
+import com.droolstest.dto.ValidationResponse;
+import com.droolstest.rules.ApplicantFact;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieServices;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidationResultCacheTest {
+
+    private Map<String, String> sources;
+    private RuleBaseManager manager;
+    private ExecutorService executor;
+    private ValidationResultCache cache;
+    private ValidationService service;
+    private ApplicantFact applicant;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sources = RuleCompiler.loadClasspathRules();
+        manager = new RuleBaseManager(2, 1_000, List.of());
+        manager.install(RuleCompiler.compile(sources, KieServices.Factory.get().newReleaseId(
+                "com.droolstest", "result-cache-test", "1.0.0")), sources, "test");
+        RuleSetRegistry registry = new RuleSetRegistry(manager);
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        executor = Executors.newSingleThreadExecutor();
+        cache = new ValidationResultCache(true, 100, 300);
+        service = new ValidationService(registry,
+                new RuleRunner(registry, meters, RuleRunner.MODE_POOLED, RuleRunner.ENGINE_DROOLS),
+                new ParallelBatch(executor, false, 1), cache, new RuleProfiler(0, 0),
+                new ValidationHistory(false, "", 1 << 20, 1), meters, 0);
+        try (InputStream in = getClass().getResourceAsStream("/single-test.json")) {
+            applicant = new ObjectMapper().readValue(in, ValidationRequest.class).getApplicant();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        manager.shutdown();
+    }
+
+    @Test
+    void repeatedApplicantIsReplayed() {
+        ValidationResponse first = service.validate(applicant.copyInput());
+        ValidationResponse second = service.validate(applicant.copyInput());
+
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(first.getRuleResults(), second.getRuleResults());
+        assertEquals(first.getRulesMatched(), second.getRulesMatched());
+        assertEquals(first.isFullyValid(), second.isFullyValid());
+
+        ApplicantFact corrected = applicant.copyInput();
+        corrected.setApplicantFirstName("Jane");
+        assertTrue(service.validate(corrected).isFullyValid());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void newRuleSetVersionInvalidatesTheCache() throws Exception {
+        String before = service.validate(applicant.copyInput()).getRuleSetVersion();
+        long invalidations = (long) cache.getStats().get("invalidations");
+        manager.reload(sources, "reload").get(120, TimeUnit.SECONDS);
+
+        ValidationResponse after = service.validate(applicant.copyInput());
+
+        assertNotEquals(before, after.getRuleSetVersion());
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(invalidations + 1, cache.getStats().get("invalidations"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void collisionsAndOlderVersionsMiss() {
+        ApplicantFact evaluated = applicant.copyInput();
+        service.validate(evaluated);
+        cache.clear();
+        cache.put(2, 42L, applicant.copyInput(), evaluated);
+        assertEquals(0, cache.size(), "version 2 not seen yet, so not current");
+
+        assertFalse(cache.replay(2, 42L, new ApplicantFact()));  // makes 2 current; empty after the clear
+        cache.put(2, 42L, applicant.copyInput(), evaluated);
+
+        ApplicantFact other = applicant.copyInput();
+        other.setApplicantCity("Shreveport");
+        assertFalse(cache.replay(2, 42L, other), "same fingerprint, different input");
+        assertFalse(cache.replay(1, 42L, applicant.copyInput()), "older rule set version");
+
+        ApplicantFact same = applicant.copyInput();
+        assertTrue(cache.replay(2, 42L, same));
+        assertEquals(evaluated.getValidationFlags(), same.getValidationFlags());
+    }
+}